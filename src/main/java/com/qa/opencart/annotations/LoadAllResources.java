@@ -0,0 +1,16 @@
+package com.qa.opencart.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * the test needs the resources blocked by the fast page profile (e.g. product
+ * images), BaseTest lifts the NetworkBlocker blocking while it runs
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LoadAllResources {
+
+}
@@ -7,6 +7,19 @@ public class AppConstants {
 	public static final int DEFAULT_SHORT_WAIT = 5;
 	public static final int DEFAULT_MEDIUM_WAIT = 10;
 	public static final int DEFAULT_LARGE_WAIT = 20;	
+	public static final int DEFAULT_SCRIPT_TIMEOUT = 30;
+	public static final long DEFAULT_MIN_POLLING_TIME = 10;
+	public static final long DEFAULT_MAX_POLLING_TIME = 500;
+	
+	public static final int DEFAULT_POOL_SIZE = 5;
+	public static final int DEFAULT_POOL_LEASE_WAIT = 120;
+	public static final int DEFAULT_SESSION_TTL = 30;
+	public static final double DEFAULT_HIGHLIGHT_RATE = 0.1;
+	public static final long DEFAULT_TEST_DURATION = 30000;
+	public static final int SCREENSHOT_WRITE_QUEUE_SIZE = 16;
+	public static final float DEFAULT_SCREENSHOT_QUALITY = 0.7f;
+	public static final long DEFAULT_PROXY_CACHE_SIZE = 64;
+	public static final long DEFAULT_PROXY_DISK_CACHE_SIZE = 256;
 	
 	public static final int DEFAULT_FOOTER_LINKS_COUNT = 15;	
 	
@@ -3,6 +3,16 @@ package com.qa.opencart.errors;
 public class AppError {
 	
 	public static final String INVALID_BROWSER_MESG = "please pass the right browser; only chrome/firefox/edge/safari is allowed";
+	public static final String DRIVER_POOL_EXHAUSTED_MESG = "no driver was given back to the pool within the lease wait time; increase poolsize or poolwait";
+	public static final String INVALID_SHARD_MESG = "please pass the right shard; -Dshard.index must be between 0 and -Dshard.total - 1";
+	public static final String EXCEL_READ_MESG = "could not read the excel test data file";
+	public static final String SHEET_NOT_FOUND_MESG = "sheet not found in the excel test data file";
+	public static final String CSV_READ_MESG = "could not read the csv test data file";
+	public static final String TEST_DATA_NOT_FOUND_MESG = "test data not found; pass a sheet name or a csv file name of the testdata folder";
+	public static final String PROXY_START_MESG = "could not start the caching proxy on a local port";
+	public static final String STAND_IN_SERVER_MESG = "could not start the stand-in server; check standinport and the recorded pages of standinpages";
+	public static final String INVALID_PAGE_LOAD_STRATEGY_MESG = "please pass the right pageloadstrategy; only normal/eager/none is allowed";
+	public static final String HAR_MESG = "could not read or write the har archive; check hardir or record it again with harmode = record";
 	
 	
 	
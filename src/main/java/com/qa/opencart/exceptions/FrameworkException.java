@@ -6,4 +6,8 @@ public class FrameworkException extends RuntimeException{
 		super(mesg);
 	}
 
+	public FrameworkException(String mesg, Throwable cause) {
+		super(mesg, cause);
+	}
+
 }
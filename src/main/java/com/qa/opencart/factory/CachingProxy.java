@@ -0,0 +1,688 @@
+package com.qa.opencart.factory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Proxy;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+
+/**
+ * embedded HTTP proxy shared by every browser of the JVM (proxycache = true):
+ * the static assets of the app (css, js, images, fonts) are fetched once and
+ * served to all the other browsers from an in memory LRU cache of
+ * proxycachesize MB; the entries pushed out of memory go to a disk LRU of
+ * proxycachedisksize MB (a temp directory of the run, 0 = no disk). Parallel
+ * misses of the same asset wait for the first fetch instead of all going to
+ * the server.
+ *
+ * Only plain http responses can be cached: https goes through CONNECT as an
+ * opaque tunnel (no certificate is forged), it is counted but not cached. The
+ * qa/stage/uat/prod apps are https, so the cache only pays off against a plain
+ * http app such as the stand-in server (env = local); the run summary says so
+ * when every request was tunnelled. Responses with no-store/private,
+ * Set-Cookie or a Vary other than Accept-Encoding are never cached.
+ */
+public class CachingProxy {
+
+	private static final Set<String> STATIC_EXTENSIONS = Set.of("css", "js", "png", "jpg", "jpeg", "gif", "webp",
+			"svg", "ico", "bmp", "woff", "woff2", "ttf", "otf", "eot");
+	private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+			"proxy-authorization", "proxy-authenticate", "te", "trailer", "transfer-encoding", "upgrade",
+			"content-length", "host", "expect");
+
+	private static final Logger log = LogManager.getLogger(CachingProxy.class);
+
+	private static CachingProxy sharedProxy;
+
+	private final long maxCacheBytes;
+	private final ServerSocket serverSocket;
+	private final ExecutorService workers;
+	private final HttpClient client;
+	private final Map<String, CachedResponse> cache = new LinkedHashMap<String, CachedResponse>(64, 0.75f, true);
+	private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<String, CompletableFuture<CachedResponse>>();
+	private long cachedBytes;
+	private final long maxDiskBytes;
+	private final File diskDir;
+	// file and body size of the entries on disk, in LRU order
+	private final Map<String, DiskEntry> diskCache = new LinkedHashMap<String, DiskEntry>(64, 0.75f, true);
+	private long diskBytes;
+	private long diskFiles;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong passThrough = new AtomicLong();
+	private final AtomicLong bytesSaved = new AtomicLong();
+	private final AtomicLong bytesFetched = new AtomicLong();
+	private final AtomicLong tunnels = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong diskHits = new AtomicLong();
+
+	/**
+	 * starts a proxy on a free local port, with a memory cache only
+	 *
+	 * @param maxCacheBytes
+	 */
+	public CachingProxy(long maxCacheBytes) {
+		this(maxCacheBytes, 0);
+	}
+
+	/**
+	 * starts a proxy on a free local port
+	 *
+	 * @param maxCacheBytes memory cache size
+	 * @param maxDiskBytes  disk cache size for the entries evicted from memory, 0
+	 *                      for none
+	 */
+	public CachingProxy(long maxCacheBytes, long maxDiskBytes) {
+		this.maxCacheBytes = maxCacheBytes;
+		this.maxDiskBytes = maxDiskBytes;
+		try {
+			serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+			diskDir = maxDiskBytes > 0 ? Files.createTempDirectory("caching-proxy").toFile() : null;
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.PROXY_START_MESG + " : " + e.getMessage());
+		}
+		workers = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "caching-proxy");
+			thread.setDaemon(true);
+			return thread;
+		});
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.followRedirects(HttpClient.Redirect.NEVER).connectTimeout(Duration.ofSeconds(30)).executor(workers)
+				.build();
+		workers.execute(this::acceptLoop);
+		log.info("caching proxy listening on {}, cache size {} MB, disk cache size {} MB", getAddress(),
+				maxCacheBytes / (1024 * 1024), maxDiskBytes / (1024 * 1024));
+	}
+
+	/**
+	 * the proxy of the whole run, started on the first call
+	 *
+	 * @param prop
+	 * @return
+	 */
+	public static synchronized CachingProxy getShared(Properties prop) {
+		if (sharedProxy == null) {
+			long megaBytes = getMegaBytes(prop, "proxycachesize", AppConstants.DEFAULT_PROXY_CACHE_SIZE);
+			long diskMegaBytes = getMegaBytes(prop, "proxycachedisksize", AppConstants.DEFAULT_PROXY_DISK_CACHE_SIZE);
+			sharedProxy = new CachingProxy(megaBytes * 1024 * 1024, diskMegaBytes * 1024 * 1024);
+			String url = prop.getProperty("url", "");
+			if (url.startsWith("https:")) {
+				log.warn("proxycache : {} is https, its requests are tunnelled and nothing is cached; "
+						+ "the cache only works against a plain http app such as the stand-in server (env = local)", url);
+			}
+		}
+		return sharedProxy;
+	}
+
+	/**
+	 * @return the shared proxy or null when proxycache is off
+	 */
+	public static synchronized CachingProxy getSharedIfStarted() {
+		return sharedProxy;
+	}
+
+	private static long getMegaBytes(Properties prop, String key, long defaultMegaBytes) {
+		String size = prop.getProperty(key);
+		return size == null || size.trim().isEmpty() ? defaultMegaBytes : Long.parseLong(size.trim());
+	}
+
+	public static boolean isEnabled(Properties prop) {
+		return Boolean.parseBoolean(prop.getProperty("proxycache"));
+	}
+
+	public String getAddress() {
+		return "127.0.0.1:" + serverSocket.getLocalPort();
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return the selenium proxy capability pointing at this proxy, for http and
+	 *         https
+	 */
+	public Proxy getSeleniumProxy() {
+		Proxy proxy = new Proxy();
+		proxy.setHttpProxy(getAddress());
+		proxy.setSslProxy(getAddress());
+		return proxy;
+	}
+
+	public void stop() {
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			log.warn("could not close the caching proxy", e);
+		}
+		workers.shutdownNow();
+		if (diskDir != null) {
+			synchronized (this) {
+				for (DiskEntry entry : diskCache.values()) {
+					entry.file.delete();
+				}
+				diskCache.clear();
+				diskBytes = 0;
+			}
+			diskDir.delete();
+		}
+	}
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				workers.execute(() -> handle(socket));
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					log.warn("caching proxy could not accept a connection", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * one browser connection, kept alive for as many requests as the browser
+	 * sends on it
+	 */
+	private void handle(Socket socket) {
+		try (Socket client = socket) {
+			InputStream in = new BufferedInputStream(client.getInputStream());
+			OutputStream out = client.getOutputStream();
+			while (true) {
+				String requestLine = readLine(in);
+				if (requestLine == null || requestLine.isEmpty()) {
+					return;
+				}
+				String[] parts = requestLine.split(" ");
+				Map<String, String> headers = readHeaders(in);
+				if (parts.length < 3) {
+					writeError(out, 400, "Bad Request");
+					return;
+				}
+				if ("CONNECT".equalsIgnoreCase(parts[0])) {
+					tunnel(client, in, out, parts[1]);
+					return;
+				}
+				byte[] body = readBody(in, headers);
+				requests.incrementAndGet();
+				CachedResponse response = forward(parts[0], parts[1], headers, body);
+				writeResponse(out, response, "HEAD".equalsIgnoreCase(parts[0]));
+				if ("close".equalsIgnoreCase(headers.get("proxy-connection"))
+						|| "close".equalsIgnoreCase(headers.get("connection"))) {
+					return;
+				}
+			}
+		} catch (SocketException e) {
+			// browser closed the connection
+		} catch (IOException e) {
+			log.debug("caching proxy connection failed", e);
+		}
+	}
+
+	private CachedResponse forward(String method, String uri, Map<String, String> headers, byte[] body)
+			throws IOException {
+		if (!"GET".equalsIgnoreCase(method) || headers.containsKey("range")) {
+			return passThrough(method, uri, headers, body);
+		}
+		String key = uri + " " + headers.getOrDefault("accept-encoding", "");
+		CachedResponse cached = getCached(key);
+		if (cached != null) {
+			return hit(cached);
+		}
+		if (!isStaticPath(uri)) {
+			// pages are fetched by every browser, they are not worth waiting for each other
+			CachedResponse response = passThrough(method, uri, headers, body);
+			if (response.cacheable) {
+				putCached(key, response);
+			}
+			return response;
+		}
+
+		CompletableFuture<CachedResponse> fetching = new CompletableFuture<CachedResponse>();
+		CompletableFuture<CachedResponse> running = inFlight.putIfAbsent(key, fetching);
+		if (running != null) {
+			// another browser is fetching the same asset right now
+			CachedResponse response = await(running);
+			if (response != null && response.cacheable) {
+				return hit(response);
+			}
+			return passThrough(method, uri, headers, body);
+		}
+
+		CachedResponse response = null;
+		try {
+			response = fetch(method, uri, headers, body);
+			if (response.cacheable) {
+				misses.incrementAndGet();
+				putCached(key, response);
+			} else {
+				passThrough.incrementAndGet();
+			}
+			return response;
+		} finally {
+			inFlight.remove(key);
+			fetching.complete(response);
+		}
+	}
+
+	private CachedResponse hit(CachedResponse cached) {
+		hits.incrementAndGet();
+		bytesSaved.addAndGet(cached.body.length);
+		return cached;
+	}
+
+	// hits and misses are counted for the cacheable responses only
+	private CachedResponse passThrough(String method, String uri, Map<String, String> headers, byte[] body)
+			throws IOException {
+		CachedResponse response = fetch(method, uri, headers, body);
+		if (response.cacheable) {
+			misses.incrementAndGet();
+		} else {
+			passThrough.incrementAndGet();
+		}
+		return response;
+	}
+
+	private CachedResponse fetch(String method, String uri, Map<String, String> headers, byte[] body)
+			throws IOException {
+		HttpRequest.Builder request;
+		try {
+			request = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60))
+					.method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+							: HttpRequest.BodyPublishers.ofByteArray(body));
+		} catch (IllegalArgumentException e) {
+			return CachedResponse.error(400, "Bad Request");
+		}
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			if (!HOP_BY_HOP_HEADERS.contains(header.getKey())) {
+				try {
+					request.header(header.getKey(), header.getValue());
+				} catch (IllegalArgumentException e) {
+					// restricted header of the http client
+				}
+			}
+		}
+		HttpResponse<byte[]> response;
+		try {
+			response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while fetching " + uri, e);
+		} catch (IOException e) {
+			log.warn("caching proxy could not fetch {} : {}", uri, e.getMessage());
+			return CachedResponse.error(502, "Bad Gateway");
+		}
+		bytesFetched.addAndGet(response.body().length);
+
+		List<String[]> responseHeaders = new ArrayList<String[]>();
+		response.headers().map().forEach((name, values) -> {
+			if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				for (String value : values) {
+					responseHeaders.add(new String[] { name, value });
+				}
+			}
+		});
+		boolean cacheable = "GET".equalsIgnoreCase(method) && isCacheable(uri, response);
+		return new CachedResponse(response.statusCode(), responseHeaders, response.body(), cacheable);
+	}
+
+	private boolean isCacheable(String uri, HttpResponse<byte[]> response) {
+		if (response.statusCode() != 200 || response.headers().firstValue("set-cookie").isPresent()) {
+			return false;
+		}
+		String cacheControl = response.headers().firstValue("cache-control").orElse("").toLowerCase(Locale.ROOT);
+		if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+			return false;
+		}
+		String vary = response.headers().firstValue("vary").orElse("").trim().toLowerCase(Locale.ROOT);
+		if (!vary.isEmpty() && !"accept-encoding".equals(vary)) {
+			return false;
+		}
+		String contentType = response.headers().firstValue("content-type").orElse("").toLowerCase(Locale.ROOT);
+		return isStaticPath(uri) || contentType.startsWith("image/") || contentType.startsWith("font/")
+				|| contentType.startsWith("text/css") || contentType.contains("javascript");
+	}
+
+	private static boolean isStaticPath(String uri) {
+		String path = URI.create(uri).getPath();
+		if (path == null) {
+			return false;
+		}
+		int dot = path.lastIndexOf('.');
+		return dot > path.lastIndexOf('/') && STATIC_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+	}
+
+	// a disk hit moves the entry back to memory
+	private synchronized CachedResponse getCached(String key) {
+		CachedResponse cached = cache.get(key);
+		if (cached != null || diskDir == null) {
+			return cached;
+		}
+		DiskEntry entry = diskCache.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		diskBytes -= entry.size;
+		try {
+			cached = readFromDisk(entry.file);
+		} catch (IOException e) {
+			log.warn("could not read the cached response {} : {}", entry.file, e.getMessage());
+			return null;
+		} finally {
+			entry.file.delete();
+		}
+		diskHits.incrementAndGet();
+		putCached(key, cached);
+		return cached;
+	}
+
+	private synchronized void putCached(String key, CachedResponse response) {
+		// one asset may not push most of the cache out
+		if (response.body.length > maxCacheBytes / 8) {
+			return;
+		}
+		CachedResponse previous = cache.put(key, response);
+		cachedBytes += response.body.length - (previous == null ? 0 : previous.body.length);
+		Iterator<Map.Entry<String, CachedResponse>> eldest = cache.entrySet().iterator();
+		while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+			Map.Entry<String, CachedResponse> evicted = eldest.next();
+			cachedBytes -= evicted.getValue().body.length;
+			eldest.remove();
+			evictions.incrementAndGet();
+			spillToDisk(evicted.getKey(), evicted.getValue());
+		}
+	}
+
+	private void spillToDisk(String key, CachedResponse response) {
+		if (diskDir == null || response.body.length > maxDiskBytes / 8) {
+			return;
+		}
+		File file = new File(diskDir, "entry-" + (++diskFiles) + ".bin");
+		try {
+			writeToDisk(file, response);
+		} catch (IOException e) {
+			log.warn("could not write the cached response {} : {}", file, e.getMessage());
+			file.delete();
+			return;
+		}
+		DiskEntry previous = diskCache.put(key, new DiskEntry(file, response.body.length));
+		if (previous != null) {
+			diskBytes -= previous.size;
+			previous.file.delete();
+		}
+		diskBytes += response.body.length;
+		Iterator<DiskEntry> eldest = diskCache.values().iterator();
+		while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+			DiskEntry evicted = eldest.next();
+			diskBytes -= evicted.size;
+			evicted.file.delete();
+			eldest.remove();
+		}
+	}
+
+	private static void writeToDisk(File file, CachedResponse response) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(response.status);
+			out.writeInt(response.headers.size());
+			for (String[] header : response.headers) {
+				out.writeUTF(header[0]);
+				out.writeUTF(header[1]);
+			}
+			out.writeInt(response.body.length);
+			out.write(response.body);
+		}
+	}
+
+	private static CachedResponse readFromDisk(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			int status = in.readInt();
+			int headerCount = in.readInt();
+			List<String[]> headers = new ArrayList<String[]>();
+			for (int i = 0; i < headerCount; i++) {
+				headers.add(new String[] { in.readUTF(), in.readUTF() });
+			}
+			byte[] body = new byte[in.readInt()];
+			in.readFully(body);
+			return new CachedResponse(status, headers, body, true);
+		}
+	}
+
+	private static CachedResponse await(CompletableFuture<CachedResponse> running) {
+		try {
+			return running.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * https: the bytes are relayed both ways as they are, nothing is cached
+	 */
+	private void tunnel(Socket client, InputStream in, OutputStream out, String target) throws IOException {
+		tunnels.incrementAndGet();
+		int colon = target.lastIndexOf(':');
+		String host = colon < 0 ? target : target.substring(0, colon);
+		int port = colon < 0 ? 443 : Integer.parseInt(target.substring(colon + 1));
+		try (Socket server = new Socket()) {
+			try {
+				server.connect(new InetSocketAddress(host, port), 30_000);
+			} catch (IOException e) {
+				writeError(out, 502, "Bad Gateway");
+				return;
+			}
+			out.write("HTTP/1.1 200 Connection established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+			out.flush();
+			CompletableFuture<Void> upstream = CompletableFuture.runAsync(() -> {
+				try {
+					in.transferTo(server.getOutputStream());
+					server.shutdownOutput();
+				} catch (IOException e) {
+					// one side closed the tunnel
+				}
+			}, workers);
+			try {
+				server.getInputStream().transferTo(out);
+			} catch (IOException e) {
+				// one side closed the tunnel
+			}
+			client.shutdownOutput();
+			upstream.join();
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1) {
+			if (b == '\n') {
+				break;
+			}
+			if (b != '\r') {
+				line.write(b);
+			}
+		}
+		if (b == -1 && line.size() == 0) {
+			return null;
+		}
+		return line.toString(StandardCharsets.ISO_8859_1);
+	}
+
+	// header names in lower case
+	private static Map<String, String> readHeaders(InputStream in) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<String, String>();
+		String line;
+		while ((line = readLine(in)) != null && !line.isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				headers.merge(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim(),
+						(first, second) -> first + ", " + second);
+			}
+		}
+		return headers;
+	}
+
+	private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+		String length = headers.get("content-length");
+		if (length == null) {
+			return new byte[0];
+		}
+		return in.readNBytes(Integer.parseInt(length.trim()));
+	}
+
+	private static void writeResponse(OutputStream out, CachedResponse response, boolean headRequest) throws IOException {
+		// the reason phrase is optional
+		StringBuilder statusAndHeaders = new StringBuilder();
+		statusAndHeaders.append("HTTP/1.1 ").append(response.status).append(' ').append("\r\n");
+		for (String[] header : response.headers) {
+			statusAndHeaders.append(header[0]).append(": ").append(header[1]).append("\r\n");
+		}
+		statusAndHeaders.append("Content-Length: ").append(response.body.length).append("\r\n\r\n");
+		out.write(statusAndHeaders.toString().getBytes(StandardCharsets.ISO_8859_1));
+		if (!headRequest) {
+			out.write(response.body);
+		}
+		out.flush();
+	}
+
+	private static void writeError(OutputStream out, int status, String reason) throws IOException {
+		out.write(("HTTP/1.1 " + status + " " + reason + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+				.getBytes(StandardCharsets.ISO_8859_1));
+		out.flush();
+	}
+
+	public long getRequests() {
+		return requests.get();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public double getHitRatio() {
+		long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+
+	/**
+	 * @return bytes served from the cache instead of the server
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.get();
+	}
+
+	public long getTunnels() {
+		return tunnels.get();
+	}
+
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	/**
+	 * @return hits served from the disk cache, they are part of the hits
+	 */
+	public long getDiskHits() {
+		return diskHits.get();
+	}
+
+	public synchronized long getDiskCachedBytes() {
+		return diskBytes;
+	}
+
+	@Override
+	public String toString() {
+		String summary = "proxy cache: " + requests.get() + " requests, hits: " + hits.get() + " (disk: "
+				+ diskHits.get() + "), misses: " + misses.get() + ", not cacheable: " + passThrough.get()
+				+ ", hit ratio: " + Math.round(getHitRatio() * 100) + " %, bytes saved: " + bytesSaved.get()
+				+ ", bytes fetched: " + bytesFetched.get() + ", cached: " + getCachedBytes() + " bytes (disk: "
+				+ getDiskCachedBytes() + "), evictions: " + evictions.get() + ", https tunnels (not cached): "
+				+ tunnels.get();
+		if (tunnels.get() > 0 && requests.get() == 0) {
+			summary += " -- NOTHING CACHED: the app is https, the cache only works against a plain http app such as the stand-in server (env = local)";
+		}
+		return summary;
+	}
+
+	private static class CachedResponse {
+
+		private final int status;
+		private final List<String[]> headers;
+		private final byte[] body;
+		private final boolean cacheable;
+
+		private CachedResponse(int status, List<String[]> headers, byte[] body, boolean cacheable) {
+			this.status = status;
+			this.headers = headers;
+			this.body = body;
+			this.cacheable = cacheable;
+		}
+
+		private static CachedResponse error(int status, String reason) {
+			List<String[]> headers = new ArrayList<String[]>();
+			headers.add(new String[] { "X-Proxy-Error", reason });
+			return new CachedResponse(status, headers, new byte[0], false);
+		}
+	}
+
+	private static class DiskEntry {
+
+		private final File file;
+		private final long size;
+
+		private DiskEntry(File file, long size) {
+			this.file = file;
+			this.size = size;
+		}
+	}
+
+}
@@ -18,9 +18,14 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
+import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.errors.AppError;
 import com.qa.opencart.exceptions.FrameworkException;
+import com.qa.opencart.listeners.CommandLatencyListener;
+import com.qa.opencart.pages.PageContext;
+import com.qa.opencart.utils.WaitEngine;
 
 public class DriverFactory {
 
@@ -28,6 +33,16 @@ public class DriverFactory {
 	public Properties prop;
 
 	public static String highlightEle;
+	public static String highlightRate;
+	public static String elementCache;
+	public static String sessionCache;
+	public static String sessionTTL;
+	public static String appUrl;
+	public static String screenshotMode;
+	public static String screenshotScale;
+	public static String screenshotFormat;
+	public static String screenshotQuality;
+	public static String pageLoadStrategy;
 
 	public static ThreadLocal<WebDriver> tlDriver = new ThreadLocal<WebDriver>();
 
@@ -45,58 +60,98 @@ public class DriverFactory {
 
 		String browserName = prop.getProperty("browser");
 		// System.out.println("browser name : " + browserName);
-		log.info("browser name ::: " + browserName);
+		log.info("browser name ::: {}", browserName);
 
 		highlightEle = prop.getProperty("highlight");
+		highlightRate = prop.getProperty("highlightrate");
+		elementCache = prop.getProperty("elementcache");
+		sessionCache = prop.getProperty("sessioncache");
+		sessionTTL = prop.getProperty("sessionttl");
+		appUrl = prop.getProperty("url");
+		screenshotMode = prop.getProperty("screenshotmode");
+		screenshotScale = prop.getProperty("screenshotscale");
+		screenshotFormat = prop.getProperty("screenshotformat");
+		screenshotQuality = prop.getProperty("screenshotquality");
+		pageLoadStrategy = OptionsManager.getPageLoadStrategy(prop).toString();
 		optionsManager = new OptionsManager(prop);
 
-		boolean remoteExeution = Boolean.parseBoolean(prop.getProperty("remote"));
+		if (isPooled(prop)) {
+			// pooled mode: reuse an already launched browser, it is reset on release
+			tlDriver.set(getDriverPool(prop).lease(() -> launchBrowser(prop), getPoolLeaseWait(prop)));
+			return getDriver();
+		}
+
+		tlDriver.set(launchBrowser(prop));
+		return getDriver();
+
+	}
+
+	/**
+	 * launches a new browser and opens the application url on it; with
+	 * commandmetrics = true the driver is decorated to record the latency of
+	 * every command, with fastpage = true the unused requests are blocked
+	 * (NetworkBlocker), with harmode = record/replay the traffic is recorded or
+	 * replayed (HarInterceptor)
+	 * 
+	 * @param prop
+	 * @return
+	 */
+	private WebDriver launchBrowser(Properties prop) {
+		WebDriver driver = createDriver(prop.getProperty("browser"), Boolean.parseBoolean(prop.getProperty("remote")));
+		boolean fastPage = NetworkBlocker.isFastPage(prop);
+		boolean har = HarInterceptor.isEnabled(prop);
+		if (fastPage || har) {
+			driver = NetworkBlocker.withDevTools(driver);
+		}
+		if (Boolean.parseBoolean(prop.getProperty("commandmetrics"))) {
+			driver = new EventFiringDecorator<WebDriver>(new CommandLatencyListener()).decorate(driver);
+		}
+		if (fastPage) {
+			NetworkBlocker.block(driver, prop);
+		}
+		if (har) {
+			HarInterceptor.attach(driver, prop);
+		}
+		driver.manage().deleteAllCookies();
+		driver.manage().window().maximize();
+		driver.get(prop.getProperty("url"));
+		return driver;
+	}
+
+	private WebDriver createDriver(String browserName, boolean remoteExeution) {
 
 		switch (browserName.trim().toLowerCase()) {
 		case "chrome":
 			if (remoteExeution) {
 				// run tcs on remote - grid
-				init_remoteDriver("chrome");
-			} else {
-				// run tcs in local
-				tlDriver.set(new ChromeDriver(optionsManager.getChromeOptions()));
+				return init_remoteDriver("chrome");
 			}
-			break;
+			// run tcs in local
+			return new ChromeDriver(optionsManager.getChromeOptions());
 		case "firefox":
 			if (remoteExeution) {
 				// run tcs on remote - grid
-				init_remoteDriver("firefox");
-			} else {
-				// run tcs in local
-				tlDriver.set(new FirefoxDriver(optionsManager.getFirefoxOptions()));
+				return init_remoteDriver("firefox");
 			}
-			break;
+			// run tcs in local
+			return new FirefoxDriver(optionsManager.getFirefoxOptions());
 		case "edge":
 			if (remoteExeution) {
 				// run tcs on remote - grid
-				init_remoteDriver("edge");
-			} else {
-				// run tcs in local
-				tlDriver.set(new EdgeDriver(optionsManager.getEdgeOptions()));
+				return init_remoteDriver("edge");
 			}
-			break;
+			// run tcs in local
+			return new EdgeDriver(optionsManager.getEdgeOptions());
 		case "safari":
-			tlDriver.set(new SafariDriver());
-			break;
+			return new SafariDriver();
 		default:
-			log.error(AppError.INVALID_BROWSER_MESG + " : " + browserName);
+			log.error("{} : {}", AppError.INVALID_BROWSER_MESG, browserName);
 			FrameworkException fe = new FrameworkException(AppError.INVALID_BROWSER_MESG + " : " + browserName);
 			log.error("Exception occurred while initializing driver: ", fe);
 			throw new FrameworkException("=====INVALID BROWSER====");
 
 		}
 
-		getDriver().manage().deleteAllCookies();
-		getDriver().manage().window().maximize();
-		getDriver().get(prop.getProperty("url"));
-
-		return getDriver();
-
 	}
 
 	/**
@@ -104,22 +159,19 @@ public class DriverFactory {
 	 * 
 	 * @param string
 	 */
-	private void init_remoteDriver(String browserName) {
-		log.info("Running tests on selenoum grid --"+ browserName);
+	private WebDriver init_remoteDriver(String browserName) {
+		log.info("Running tests on selenoum grid --{}", browserName);
 
 		try {
 			switch (browserName) {
 			case "chrome":
-				tlDriver.set(new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getChromeOptions()));
-				break;
+				return new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getChromeOptions());
 				
 			case "firefox":
-				tlDriver.set(new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getFirefoxOptions()));
-				break;
+				return new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getFirefoxOptions());
 				
 			case "edge":
-				tlDriver.set(new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getEdgeOptions()));
-				break;
+				return new RemoteWebDriver(new URL(prop.getProperty("huburl")), optionsManager.getEdgeOptions());
 				
 			default:
 				log.error("Plz supply the right browser name for selenium grid....");
@@ -129,9 +181,95 @@ public class DriverFactory {
 			}
 		} 
 		catch (MalformedURLException e) {
-			e.printStackTrace();
+			log.error("invalid huburl : {}", prop.getProperty("huburl"), e);
+			throw new FrameworkException("=====INVALID HUB URL====");
+		}
+
+	}
+
+	/**
+	 * this is used to close the driver of the current thread; in pooled mode the
+	 * driver is reset and given back to the pool instead of being quit
+	 * 
+	 * @param prop
+	 */
+	public void quitDriver(Properties prop) {
+		quitDriver(prop, getDriver());
+	}
+
+	/**
+	 * this is used to close a driver which may be owned by another (worker)
+	 * thread, only the thread local of the current thread is cleared
+	 * 
+	 * @param prop
+	 * @param driver
+	 */
+	public void quitDriver(Properties prop, WebDriver driver) {
+		if (driver == getDriver()) {
+			tlDriver.remove();
+			PageContext.remove();
+		}
+		if (driver == null) {
+			return;
 		}
+		if (isPooled(prop)) {
+			getDriverPool(prop).release(driver, prop.getProperty("url"));
+		} else {
+			removeDriverState(driver);
+			driver.quit();
+		}
+	}
 
+	/**
+	 * drops what the framework keeps per driver (wait engine, request blocking,
+	 * har interceptor), to be called before the driver is quit, pooled or not
+	 * 
+	 * @param driver
+	 */
+	static void removeDriverState(WebDriver driver) {
+		WaitEngine.removeWaitEngine(driver);
+		NetworkBlocker.remove(driver);
+		HarInterceptor.remove(driver);
+	}
+
+	/**
+	 * this is used to start browsers in the background before the first test asks
+	 * for one; the browsers are already on the app url when they are leased
+	 * 
+	 * @param prop
+	 * @param count
+	 * @return number of browsers being started
+	 */
+	public int prewarmDrivers(Properties prop, int count) {
+		this.prop = prop;
+		highlightEle = prop.getProperty("highlight");
+		highlightRate = prop.getProperty("highlightrate");
+		pageLoadStrategy = OptionsManager.getPageLoadStrategy(prop).toString();
+		optionsManager = new OptionsManager(prop);
+		log.info("pre-warming {} {} browser(s)", count, prop.getProperty("browser"));
+		return getDriverPool(prop).prewarm(() -> launchBrowser(prop), count);
+	}
+
+	/**
+	 * pre-warm mode always goes through the pool, that is how the warm browsers
+	 * are handed over to the test threads
+	 * 
+	 * @param prop
+	 * @return
+	 */
+	public static boolean isPooled(Properties prop) {
+		return Boolean.parseBoolean(prop.getProperty("pool")) || Boolean.parseBoolean(prop.getProperty("prewarm"));
+	}
+
+	private DriverPool getDriverPool(Properties prop) {
+		int poolSize = prop.getProperty("poolsize") == null ? AppConstants.DEFAULT_POOL_SIZE
+				: Integer.parseInt(prop.getProperty("poolsize").trim());
+		return DriverPool.getPool(prop.getProperty("browser"), OptionsManager.getProfileKey(prop), poolSize);
+	}
+
+	private int getPoolLeaseWait(Properties prop) {
+		return prop.getProperty("poolwait") == null ? AppConstants.DEFAULT_POOL_LEASE_WAIT
+				: Integer.parseInt(prop.getProperty("poolwait").trim());
 	}
 
 	/**
@@ -154,12 +292,13 @@ public class DriverFactory {
 	// mvn clean install
 	// -Dsurefire.suiteXmlFiles=src/test/resources/testrunners/testng_regression.xml
 	// -Denv="dev"
+	// mvn clean install -Denv="local" : stand-in server, no internet needed
 	public Properties initProp() {
 		prop = new Properties();
 		FileInputStream ip = null;
 
 		String envName = System.getProperty("env");
-		log.info("Env name =======>" + envName);
+		log.info("Env name =======>{}", envName);
 
 		try {
 			if (envName == null) {
@@ -184,6 +323,9 @@ public class DriverFactory {
 				case "prod":
 					ip = new FileInputStream("./src/test/resources/config/config.properties");
 					break;
+				case "local":
+					ip = new FileInputStream("./src/test/resources/config/config.local.properties");
+					break;
 				default:
 					log.error("Env value is invalid...plz pass the right env value..");
 					throw new FrameworkException("====INVALID ENVIRONMENT====");
@@ -200,6 +342,11 @@ public class DriverFactory {
 			e.printStackTrace();
 		}
 
+		if (StandInServer.isEnabled(prop)) {
+			// offline run against the recorded pages, the url is the one of the local server
+			prop.setProperty("url", StandInServer.getShared(prop).getLoginUrl());
+		}
+
 		return prop;
 	}
 
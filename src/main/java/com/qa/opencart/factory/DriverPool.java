@@ -0,0 +1,361 @@
+package com.qa.opencart.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+
+/**
+ * bounded pool of browser sessions, one pool per browser profile (browser name
+ * and the settings it was launched with, see OptionsManager.getProfileKey).
+ * Drivers are leased by the test thread, reset when they are given back and
+ * only quit when they turn unhealthy or at the end of the suite; an idle driver
+ * whose session is gone is dropped on lease.
+ */
+public class DriverPool {
+
+	private static final Map<String, DriverPool> pools = new ConcurrentHashMap<String, DriverPool>();
+
+	private static final Logger log = LogManager.getLogger(DriverPool.class);
+
+	private static final ExecutorService prewarmExecutor = Executors.newCachedThreadPool(task -> {
+		Thread thread = new Thread(task, "driver-prewarm");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		// safety net in case the suite listener is not registered in the xml
+		Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdownAll));
+	}
+
+	private final String browserName;
+	private final String profile;
+	private final int maxSize;
+	private final BlockingQueue<WebDriver> idleDrivers = new LinkedBlockingQueue<WebDriver>();
+	private final Map<WebDriver, Integer> leaseCounts = new ConcurrentHashMap<WebDriver, Integer>();
+	// leased and not given back yet, quit with the idle ones on shutdown
+	private final Set<WebDriver> leasedDrivers = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger created = new AtomicInteger();
+	private final AtomicLong leases = new AtomicLong();
+	private final AtomicLong reuses = new AtomicLong();
+	private final AtomicLong discarded = new AtomicLong();
+	private final AtomicLong prewarmed = new AtomicLong();
+	private final AtomicLong totalLeaseWaitMillis = new AtomicLong();
+	private final AtomicLong maxLeaseWaitMillis = new AtomicLong();
+
+	private DriverPool(String browserName, String profile, int maxSize) {
+		this.browserName = browserName;
+		this.profile = profile;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * this is used to get the pool for the given browser profile, the pool is
+	 * created on the first call with the given max size
+	 *
+	 * @param browserName
+	 * @param profile     see OptionsManager.getProfileKey
+	 * @param maxSize
+	 * @return
+	 */
+	public static DriverPool getPool(String browserName, String profile, int maxSize) {
+		return pools.computeIfAbsent(profile, key -> {
+			log.info("creating driver pool for [{}] with max size {}", key, maxSize);
+			return new DriverPool(browserName.trim().toLowerCase(), key, maxSize);
+		});
+	}
+
+	/**
+	 * lease a driver from the pool. An idle driver is returned first (a dead one
+	 * is quit and its slot freed), a new one is created with the given creator
+	 * when the pool is not full yet, otherwise the caller waits until another
+	 * thread gives a driver back.
+	 *
+	 * @param creator
+	 * @param timeoutInSeconds
+	 * @return
+	 */
+	public WebDriver lease(Supplier<WebDriver> creator, int timeoutInSeconds) {
+		long start = System.currentTimeMillis();
+		WebDriver driver = pollAlive();
+
+		try {
+			while (driver == null) {
+				if (reserveSlot()) {
+					try {
+						driver = creator.get();
+					} catch (RuntimeException e) {
+						created.decrementAndGet();
+						throw e;
+					}
+					break;
+				}
+				long remaining = timeoutInSeconds * 1000L - (System.currentTimeMillis() - start);
+				if (remaining <= 0) {
+					log.error("{} : {}", AppError.DRIVER_POOL_EXHAUSTED_MESG, browserName);
+					throw new FrameworkException("=====DRIVER POOL EXHAUSTED====");
+				}
+				driver = idleDrivers.poll(Math.min(remaining, 1000L), TimeUnit.MILLISECONDS);
+				if (driver != null && !isAlive(driver)) {
+					discard(driver);
+					driver = null;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FrameworkException("=====INTERRUPTED WHILE WAITING FOR DRIVER====");
+		}
+
+		long waited = System.currentTimeMillis() - start;
+		totalLeaseWaitMillis.addAndGet(waited);
+		maxLeaseWaitMillis.accumulateAndGet(waited, Math::max);
+		leases.incrementAndGet();
+		leasedDrivers.add(driver);
+
+		int count = leaseCounts.merge(driver, 1, Integer::sum);
+		if (count > 1) {
+			reuses.incrementAndGet();
+		}
+		log.info("leased {} driver (lease no. {}) after waiting {} ms", browserName, count, waited);
+		return driver;
+	}
+
+	/**
+	 * give the driver back to the pool. The driver is reset (extra windows,
+	 * cookies, storage and url) so the next lease starts from a clean login page;
+	 * a driver which can not be reset is quit and its slot is freed.
+	 *
+	 * @param driver
+	 * @param url
+	 */
+	public void release(WebDriver driver, String url) {
+		if (driver == null) {
+			return;
+		}
+		leasedDrivers.remove(driver);
+		try {
+			reset(driver, url);
+			idleDrivers.offer(driver);
+		} catch (RuntimeException e) {
+			log.warn("driver could not be reset, hence removing it from the {} pool", browserName, e);
+			discard(driver);
+		}
+	}
+
+	/**
+	 * starts the given number of browsers in the background and parks them as idle
+	 * drivers, a lease issued meanwhile waits for the first warm driver instead of
+	 * launching one more browser
+	 *
+	 * @param creator
+	 * @param count
+	 * @return number of browsers actually being started
+	 */
+	public int prewarm(Supplier<WebDriver> creator, int count) {
+		int started = 0;
+		for (int i = 0; i < count && reserveSlot(); i++) {
+			prewarmExecutor.submit(() -> {
+				long start = System.currentTimeMillis();
+				try {
+					WebDriver driver = creator.get();
+					idleDrivers.offer(driver);
+					prewarmed.incrementAndGet();
+					log.info("pre-warmed {} driver ready in {} ms", browserName, System.currentTimeMillis() - start);
+				} catch (RuntimeException e) {
+					created.decrementAndGet();
+					log.warn("could not pre-warm {} driver, it will be launched on lease", browserName, e);
+				}
+			});
+			started++;
+		}
+		return started;
+	}
+
+	private WebDriver pollAlive() {
+		WebDriver driver;
+		while ((driver = idleDrivers.poll()) != null) {
+			if (isAlive(driver)) {
+				return driver;
+			}
+			discard(driver);
+		}
+		return null;
+	}
+
+	// a crashed browser or an expired grid session fails the cheapest command
+	private boolean isAlive(WebDriver driver) {
+		try {
+			driver.getWindowHandles();
+			return true;
+		} catch (RuntimeException e) {
+			log.warn("idle {} driver is not responding, hence removing it from the pool", browserName, e);
+			return false;
+		}
+	}
+
+	private boolean reserveSlot() {
+		while (true) {
+			int current = created.get();
+			if (current >= maxSize) {
+				return false;
+			}
+			if (created.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void reset(WebDriver driver, String url) {
+		Set<String> handles = driver.getWindowHandles();
+		List<String> handleList = new ArrayList<String>(handles);
+		if (handleList.size() > 1) {
+			for (String handle : handleList.subList(1, handleList.size())) {
+				driver.switchTo().window(handle).close();
+			}
+		}
+		driver.switchTo().window(handleList.get(0));
+		driver.manage().deleteAllCookies();
+		((JavascriptExecutor) driver).executeScript(
+				"try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+		driver.get(url);
+	}
+
+	private void discard(WebDriver driver) {
+		leaseCounts.remove(driver);
+		leasedDrivers.remove(driver);
+		DriverFactory.removeDriverState(driver);
+		discarded.incrementAndGet();
+		created.decrementAndGet();
+		try {
+			driver.quit();
+		} catch (RuntimeException e) {
+			log.warn("driver was already gone while quitting it", e);
+		}
+	}
+
+	/**
+	 * quits the idle drivers and the ones which are still leased (a test which
+	 * never gave its driver back)
+	 */
+	private void shutdown() {
+		List<WebDriver> drivers = new ArrayList<WebDriver>();
+		idleDrivers.drainTo(drivers);
+		if (!leasedDrivers.isEmpty()) {
+			log.warn("{} {} driver(s) were never given back to the pool, quitting them", leasedDrivers.size(),
+					browserName);
+			drivers.addAll(leasedDrivers);
+			leasedDrivers.clear();
+		}
+		for (WebDriver driver : drivers) {
+			DriverFactory.removeDriverState(driver);
+			try {
+				driver.quit();
+			} catch (RuntimeException e) {
+				log.warn("driver was already gone while quitting it", e);
+			}
+		}
+		leaseCounts.clear();
+		created.set(0);
+	}
+
+	/**
+	 * quits every pooled driver of every browser profile, called at the end of
+	 * the suite
+	 */
+	public static void shutdownAll() {
+		for (DriverPool pool : pools.values()) {
+			log.info(pool.getStats());
+			pool.shutdown();
+		}
+	}
+
+	public String getBrowserName() {
+		return browserName;
+	}
+
+	public String getProfile() {
+		return profile;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getPoolSize() {
+		return created.get();
+	}
+
+	public int getIdleCount() {
+		return idleDrivers.size();
+	}
+
+	public int getLeasedCount() {
+		return leasedDrivers.size();
+	}
+
+	public long getLeaseCount() {
+		return leases.get();
+	}
+
+	public long getReuseCount() {
+		return reuses.get();
+	}
+
+	public long getDiscardedCount() {
+		return discarded.get();
+	}
+
+	public long getPrewarmedCount() {
+		return prewarmed.get();
+	}
+
+	public long getTotalLeaseWaitMillis() {
+		return totalLeaseWaitMillis.get();
+	}
+
+	public long getMaxLeaseWaitMillis() {
+		return maxLeaseWaitMillis.get();
+	}
+
+	public String getStats() {
+		long leaseCount = leases.get();
+		long avgWait = leaseCount == 0 ? 0 : totalLeaseWaitMillis.get() / leaseCount;
+		return "driver pool [" + profile + "] size: " + created.get() + "/" + maxSize + ", idle: "
+				+ idleDrivers.size() + ", pre-warmed: " + prewarmed.get() + ", leases: " + leaseCount + ", reuses: " + reuses.get() + ", discarded: "
+				+ discarded.get() + ", avg lease wait: " + avgWait + " ms, max lease wait: " + maxLeaseWaitMillis.get()
+				+ " ms";
+	}
+
+	/**
+	 * stats of all the pools, used for sizing the pool for parallel runs
+	 *
+	 * @return
+	 */
+	public static List<String> getAllStats() {
+		List<String> stats = new ArrayList<String>();
+		for (DriverPool pool : pools.values()) {
+			stats.add(pool.getStats());
+		}
+		return stats;
+	}
+
+}
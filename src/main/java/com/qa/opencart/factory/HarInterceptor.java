@@ -0,0 +1,291 @@
+package com.qa.opencart.factory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import com.qa.opencart.utils.HarArchive;
+import com.qa.opencart.utils.HarArchive.HarEntry;
+
+/**
+ * record and replay of the application traffic with the DevTools network
+ * interceptor (chrome and edge, local or grid):
+ *
+ * harmode = record : every request of the browser goes to the network and is
+ * saved with its response in hardir/TestClass.har at the end of the test
+ * harmode = replay : the requests are answered from the recorded archive of the
+ * test class, looked up by method, url and body hash; a request recorded
+ * several times gets its responses in the recorded order
+ * harreplaymiss = network | notfound : what a replay does with a request which
+ * was not recorded
+ *
+ * The traffic of a browser before its first test (the app url opened at launch)
+ * goes to the BrowserLaunch archive.
+ */
+public class HarInterceptor implements Filter {
+
+	public static final String DEFAULT_HAR_PATH = "./src/test/resources/har";
+	public static final String LAUNCH_ARCHIVE = "BrowserLaunch";
+
+	// the body given to the browser is already decoded and sized by DevTools
+	private static final Set<String> SKIPPED_HEADERS = Set.of("content-encoding", "content-length",
+			"transfer-encoding");
+
+	private static final Logger log = LogManager.getLogger(HarInterceptor.class);
+
+	private static final Map<WebDriver, HarInterceptor> driverInterceptors = new ConcurrentHashMap<WebDriver, HarInterceptor>();
+	// the archives of the run per test class, shared by all the browsers
+	private static final Map<String, HarArchive> archives = new ConcurrentHashMap<String, HarArchive>();
+
+	private static final AtomicLong recorded = new AtomicLong();
+	private static final AtomicLong replayHits = new AtomicLong();
+	private static final AtomicLong replayMisses = new AtomicLong();
+	private static final AtomicLong replayedNetworkMillis = new AtomicLong();
+
+	private final boolean replay;
+	private final boolean missToNetwork;
+	private final File harDir;
+	private NetworkInterceptor interceptor;
+	private volatile String testClass = LAUNCH_ARCHIVE;
+	// next recorded response per request key of the current test class
+	private final Map<String, Integer> cursors = new HashMap<String, Integer>();
+
+	/**
+	 * @param replay        false to record
+	 * @param missToNetwork replay only, a request which was not recorded goes to
+	 *                      the network instead of getting a 404
+	 * @param harDir
+	 */
+	public HarInterceptor(boolean replay, boolean missToNetwork, File harDir) {
+		this.replay = replay;
+		this.missToNetwork = missToNetwork;
+		this.harDir = harDir;
+	}
+
+	public static boolean isEnabled(Properties prop) {
+		return !getMode(prop).equals("off");
+	}
+
+	private static String getMode(Properties prop) {
+		String mode = prop.getProperty("harmode", "off").trim().toLowerCase(Locale.ROOT);
+		return mode.isEmpty() ? "off" : mode;
+	}
+
+	/**
+	 * starts recording or replaying on a new browser, before the first page is
+	 * opened
+	 *
+	 * @param driver the driver the tests use (decorated or not)
+	 * @param prop
+	 */
+	public static void attach(WebDriver driver, Properties prop) {
+		String mode = getMode(prop);
+		if (!mode.equals("record") && !mode.equals("replay")) {
+			log.warn("unknown harmode : {}, only off/record/replay is allowed, traffic is not recorded", mode);
+			return;
+		}
+		if (!(driver instanceof HasDevTools)) {
+			log.info("no DevTools for {}, traffic is not {}ed", prop.getProperty("browser"), mode);
+			return;
+		}
+		HarInterceptor har = new HarInterceptor(mode.equals("replay"),
+				!"notfound".equalsIgnoreCase(prop.getProperty("harreplaymiss", "network").trim()),
+				new File(prop.getProperty("hardir", DEFAULT_HAR_PATH)));
+		try {
+			har.interceptor = new NetworkInterceptor(driver, har);
+			driverInterceptors.put(driver, har);
+			log.info("har {} mode, archives in {}", mode, har.harDir);
+		} catch (WebDriverException e) {
+			log.warn("could not intercept the traffic with DevTools, traffic is not " + mode + "ed", e);
+		}
+	}
+
+	/**
+	 * the following requests of the browser belong to this test class
+	 *
+	 * @param driver
+	 * @param testClass
+	 */
+	public static void forTestClass(WebDriver driver, String testClass) {
+		HarInterceptor har = driver == null ? null : driverInterceptors.get(driver);
+		if (har != null) {
+			har.setTestClass(testClass);
+		}
+	}
+
+	public static void remove(WebDriver driver) {
+		HarInterceptor har = driverInterceptors.remove(driver);
+		if (har != null && har.interceptor != null) {
+			try {
+				har.interceptor.close();
+			} catch (WebDriverException e) {
+				log.warn("browser was already gone while closing the network interceptor", e);
+			}
+		}
+	}
+
+	/**
+	 * writes the archives recorded so far, one file per test class
+	 *
+	 * @param prop
+	 */
+	public static void saveRecordings(Properties prop) {
+		if (!getMode(prop).equals("record")) {
+			return;
+		}
+		File dir = new File(prop.getProperty("hardir", DEFAULT_HAR_PATH));
+		for (HarArchive archive : archives.values()) {
+			archive.write(new File(dir, archive.getName() + ".har"));
+			log.info("{} requests recorded in {}", archive.size(), new File(dir, archive.getName() + ".har"));
+		}
+	}
+
+	public synchronized void setTestClass(String testClass) {
+		if (!testClass.equals(this.testClass)) {
+			this.testClass = testClass;
+			cursors.clear();
+		}
+	}
+
+	@Override
+	public HttpHandler apply(HttpHandler next) {
+		return request -> replay ? replay(request, next) : record(request, next);
+	}
+
+	private HttpResponse record(HttpRequest request, HttpHandler next) {
+		byte[] requestBody = Contents.bytes(request.getContent());
+		request.setContent(Contents.bytes(requestBody));
+		long startedMillis = System.currentTimeMillis();
+		long start = System.nanoTime();
+		HttpResponse response = next.execute(request);
+		long timeMillis = (System.nanoTime() - start) / 1_000_000;
+
+		byte[] responseBody = Contents.bytes(response.getContent());
+		response.setContent(Contents.bytes(responseBody));
+		List<String[]> headers = new ArrayList<String[]>();
+		response.forEachHeader((name, value) -> headers.add(new String[] { name, value }));
+
+		HarEntry entry = new HarEntry(request.getMethod().toString(), request.getUri(), requestBody,
+				response.getStatus(), headers, responseBody, startedMillis, timeMillis);
+		HarArchive archive = archives.computeIfAbsent(testClass, HarArchive::new);
+		synchronized (archive) {
+			// the same page loaded again with the same answer is kept once
+			List<HarEntry> previous = archive.find(entry.getKey());
+			if (!previous.isEmpty() && isSameResponse(previous.get(previous.size() - 1), entry)) {
+				return response;
+			}
+			archive.add(entry);
+		}
+		recorded.incrementAndGet();
+		return response;
+	}
+
+	private HttpResponse replay(HttpRequest request, HttpHandler next) {
+		byte[] requestBody = Contents.bytes(request.getContent());
+		request.setContent(Contents.bytes(requestBody));
+		String key = HarArchive.key(request.getMethod().toString(), request.getUri(), requestBody);
+		HarEntry entry = nextEntry(key);
+		if (entry == null) {
+			replayMisses.incrementAndGet();
+			log.debug("not recorded for {} : {}", testClass, key);
+			if (missToNetwork) {
+				return next.execute(request);
+			}
+			return new HttpResponse().setStatus(404).addHeader("Content-Type", "text/plain")
+					.setContent(Contents.utf8String("not recorded : " + key));
+		}
+		replayHits.incrementAndGet();
+		replayedNetworkMillis.addAndGet(entry.getTimeMillis());
+		HttpResponse response = new HttpResponse().setStatus(entry.getStatus());
+		for (String[] header : entry.getResponseHeaders()) {
+			if (!SKIPPED_HEADERS.contains(header[0].toLowerCase(Locale.ROOT))) {
+				response.addHeader(header[0], header[1]);
+			}
+		}
+		byte[] body = entry.getResponseBody();
+		return response.setContent(Contents.bytes(body));
+	}
+
+	// the responses of a key in the recorded order, the last one is given again once they are used up
+	private synchronized HarEntry nextEntry(String key) {
+		List<HarEntry> entries = getReplayArchive(testClass).find(key);
+		if (entries.isEmpty() && !LAUNCH_ARCHIVE.equals(testClass)) {
+			entries = getReplayArchive(LAUNCH_ARCHIVE).find(key);
+		}
+		if (entries.isEmpty()) {
+			return null;
+		}
+		int cursor = cursors.getOrDefault(key, 0);
+		cursors.put(key, cursor + 1);
+		return entries.get(Math.min(cursor, entries.size() - 1));
+	}
+
+	private HarArchive getReplayArchive(String name) {
+		return archives.computeIfAbsent(name, archiveName -> {
+			File file = new File(harDir, archiveName + ".har");
+			if (!file.isFile()) {
+				log.warn("no recording {}, run with harmode = record first", file);
+				return new HarArchive(archiveName);
+			}
+			HarArchive archive = HarArchive.read(archiveName, file);
+			log.info("{} recorded requests loaded from {}", archive.size(), file);
+			return archive;
+		});
+	}
+
+	private static boolean isSameResponse(HarEntry previous, HarEntry entry) {
+		return previous.getStatus() == entry.getStatus()
+				&& Arrays.equals(previous.getResponseBody(), entry.getResponseBody());
+	}
+
+	/**
+	 * forgets the archives of the run, the next replay reads them again
+	 */
+	public static void reset() {
+		archives.clear();
+		recorded.set(0);
+		replayHits.set(0);
+		replayMisses.set(0);
+		replayedNetworkMillis.set(0);
+	}
+
+	public static long getReplayHits() {
+		return replayHits.get();
+	}
+
+	public static long getReplayMisses() {
+		return replayMisses.get();
+	}
+
+	/**
+	 * @return null when nothing was recorded or replayed
+	 */
+	public static String getSummary() {
+		if (recorded.get() == 0 && replayHits.get() == 0 && replayMisses.get() == 0) {
+			return null;
+		}
+		return "har --> recorded: " + recorded.get() + " requests, replayed: " + replayHits.get() + ", not recorded: "
+				+ replayMisses.get() + ", recorded network time replayed: " + replayedNetworkMillis.get() + " ms";
+	}
+
+}
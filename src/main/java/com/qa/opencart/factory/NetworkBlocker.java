@@ -0,0 +1,160 @@
+package com.qa.opencart.factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * "fast page" profile (fastpage = true): the requests we never assert on are
+ * blocked in the browser with the DevTools Network.setBlockedURLs command
+ * (chrome and edge, local or grid):
+ *
+ * blockresources = image,font,media : resource types, turned into url patterns
+ * blockurls = *googletagmanager.com*,*facebook.net* : extra url patterns
+ *
+ * Tests which need the blocked resources (e.g. product images) are annotated
+ * with @LoadAllResources, BaseTest lifts the blocking for them and puts it back
+ * for the next test of the thread. Firefox has no DevTools network domain, its
+ * resource types are blocked with prefs by OptionsManager and can not be lifted
+ * per test.
+ */
+public class NetworkBlocker {
+
+	private static final Map<String, List<String>> RESOURCE_PATTERNS = new LinkedHashMap<String, List<String>>();
+
+	static {
+		RESOURCE_PATTERNS.put("image",
+				List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.svg*", "*.ico*", "*.bmp*"));
+		RESOURCE_PATTERNS.put("font", List.of("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"));
+		RESOURCE_PATTERNS.put("media", List.of("*.mp4*", "*.webm*", "*.ogg*", "*.mp3*", "*.wav*"));
+		RESOURCE_PATTERNS.put("stylesheet", List.of("*.css*"));
+	}
+
+	// blocked url patterns per driver, a driver of a @LoadAllResources test is in unblocked
+	private static final Map<WebDriver, List<String>> blockedDrivers = new ConcurrentHashMap<WebDriver, List<String>>();
+	private static final Map<WebDriver, Boolean> unblocked = new ConcurrentHashMap<WebDriver, Boolean>();
+
+	private static final Logger log = LogManager.getLogger(NetworkBlocker.class);
+
+	public static boolean isFastPage(Properties prop) {
+		return Boolean.parseBoolean(prop.getProperty("fastpage"));
+	}
+
+	/**
+	 * @param prop
+	 * @return the url patterns of blockresources and blockurls
+	 */
+	public static List<String> getBlockedUrls(Properties prop) {
+		List<String> patterns = new ArrayList<String>();
+		for (String type : split(prop.getProperty("blockresources"))) {
+			List<String> typePatterns = RESOURCE_PATTERNS.get(type.toLowerCase());
+			if (typePatterns == null) {
+				log.warn("unknown resource type to block : {}, known types are {}", type, RESOURCE_PATTERNS.keySet());
+				continue;
+			}
+			patterns.addAll(typePatterns);
+		}
+		patterns.addAll(split(prop.getProperty("blockurls")));
+		return patterns;
+	}
+
+	/**
+	 * a grid browser has DevTools only once augmented, do it before the driver is
+	 * decorated
+	 *
+	 * @param driver
+	 * @return
+	 */
+	public static WebDriver withDevTools(WebDriver driver) {
+		if (!(driver instanceof HasCdp) && driver instanceof RemoteWebDriver) {
+			return new Augmenter().augment(driver);
+		}
+		return driver;
+	}
+
+	/**
+	 * blocks the configured requests on a new browser, before the first page is
+	 * opened
+	 *
+	 * @param driver the driver the tests use (decorated or not)
+	 * @param prop
+	 */
+	public static void block(WebDriver driver, Properties prop) {
+		List<String> patterns = getBlockedUrls(prop);
+		if (patterns.isEmpty()) {
+			return;
+		}
+		if (!(driver instanceof HasCdp)) {
+			log.info("no DevTools for {}, url patterns are not blocked", prop.getProperty("browser"));
+			return;
+		}
+		try {
+			HasCdp cdp = (HasCdp) driver;
+			cdp.executeCdpCommand("Network.enable", Collections.emptyMap());
+			setBlockedUrls(cdp, patterns);
+			blockedDrivers.put(driver, patterns);
+			log.info("fast page profile, blocking {}", patterns);
+		} catch (WebDriverException e) {
+			log.warn("could not block the requests with DevTools, pages are loaded in full", e);
+		}
+	}
+
+	/**
+	 * lifts the blocking for a test which needs all the resources, or puts it
+	 * back for a test which does not; nothing is sent to the browser when the
+	 * state does not change
+	 *
+	 * @param driver
+	 * @param allResources
+	 */
+	public static void forTest(WebDriver driver, boolean allResources) {
+		List<String> patterns = driver == null ? null : blockedDrivers.get(driver);
+		if (patterns == null || allResources == unblocked.containsKey(driver)) {
+			return;
+		}
+		setBlockedUrls((HasCdp) driver, allResources ? Collections.<String>emptyList() : patterns);
+		if (allResources) {
+			unblocked.put(driver, Boolean.TRUE);
+		} else {
+			unblocked.remove(driver);
+		}
+		log.info("{} blocked requests for the next test", allResources ? "allowing" : "blocking again");
+	}
+
+	public static void remove(WebDriver driver) {
+		blockedDrivers.remove(driver);
+		unblocked.remove(driver);
+	}
+
+	private static void setBlockedUrls(HasCdp cdp, List<String> patterns) {
+		Map<String, Object> params = new LinkedHashMap<String, Object>();
+		params.put("urls", patterns);
+		cdp.executeCdpCommand("Network.setBlockedURLs", params);
+	}
+
+	private static List<String> split(String value) {
+		List<String> values = new ArrayList<String>();
+		if (value == null) {
+			return values;
+		}
+		for (String item : value.split(",")) {
+			if (!item.trim().isEmpty()) {
+				values.add(item.trim());
+			}
+		}
+		return values;
+	}
+
+}
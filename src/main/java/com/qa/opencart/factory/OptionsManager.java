@@ -1,13 +1,18 @@
 package com.qa.opencart.factory;
 
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+
 public class OptionsManager {
 
 	private Properties prop;
@@ -17,10 +22,61 @@ public class OptionsManager {
 	
 	private static final Logger log = LogManager.getLogger(OptionsManager.class);
 
+	// chrome/edge services running next to the tests (updates, sync, translate...)
+	private static final List<String> CHROMIUM_BACKGROUND_SERVICES_OFF = List.of("--disable-background-networking",
+			"--disable-component-update", "--disable-sync", "--disable-default-apps", "--disable-extensions",
+			"--disable-domain-reliability", "--disable-client-side-phishing-detection", "--no-first-run",
+			"--disable-features=Translate,OptimizationHints,MediaRouter");
+
+	// the settings which change the launched browser, see getProfileKey
+	private static final List<String> PROFILE_PROPERTIES = List.of("remote", "huburl", "headless", "incognito",
+			"fastpage", "blockresources", "blockurls", "pageloadstrategy", "proxycache", "harmode", "hardir",
+			"harreplaymiss", "commandmetrics");
+
 	public OptionsManager(Properties prop) {
 		this.prop = prop;
 	}
 
+	/**
+	 * pageloadstrategy = normal | eager | none; the fast page profile is eager
+	 * when it is not set. With eager/none the page objects wait for their own
+	 * readiness probe (PageReadiness).
+	 * 
+	 * @param prop
+	 * @return
+	 */
+	public static PageLoadStrategy getPageLoadStrategy(Properties prop) {
+		String strategy = prop.getProperty("pageloadstrategy");
+		if (strategy == null || strategy.trim().isEmpty()) {
+			return NetworkBlocker.isFastPage(prop) ? PageLoadStrategy.EAGER : PageLoadStrategy.NORMAL;
+		}
+		PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(strategy.trim().toLowerCase());
+		if (pageLoadStrategy == null) {
+			log.error("{} : {}", AppError.INVALID_PAGE_LOAD_STRATEGY_MESG, strategy);
+			throw new FrameworkException(AppError.INVALID_PAGE_LOAD_STRATEGY_MESG + " : " + strategy);
+		}
+		return pageLoadStrategy;
+	}
+
+	/**
+	 * the browser name with every setting which changes the launched browser
+	 * (options, request blocking, har, proxy, decorator), a driver launched with
+	 * one profile is never handed to a test running with another one
+	 * 
+	 * @param prop
+	 * @return
+	 */
+	public static String getProfileKey(Properties prop) {
+		StringBuilder key = new StringBuilder(prop.getProperty("browser").trim().toLowerCase());
+		for (String name : PROFILE_PROPERTIES) {
+			String value = prop.getProperty(name);
+			if (value != null && !value.trim().isEmpty()) {
+				key.append(' ').append(name).append('=').append(value.trim().toLowerCase());
+			}
+		}
+		return key.toString();
+	}
+
 	public ChromeOptions getChromeOptions() {
 		co = new ChromeOptions();
 		if (Boolean.parseBoolean(prop.getProperty("headless"))) {
@@ -34,6 +90,16 @@ public class OptionsManager {
 		if(Boolean.parseBoolean(prop.getProperty("remote"))) {
 			co.setCapability("browserName", "chrome");
 		}
+		if (NetworkBlocker.isFastPage(prop)) {
+			log.info("Running tests with the fast page profile");
+			co.addArguments(CHROMIUM_BACKGROUND_SERVICES_OFF);
+		}
+		co.setPageLoadStrategy(getPageLoadStrategy(prop));
+		if (useCachingProxy()) {
+			co.setProxy(CachingProxy.getShared(prop).getSeleniumProxy());
+			// the local stand-in server goes through the proxy too
+			co.addArguments("--proxy-bypass-list=<-loopback>");
+		}
 		return co;
 	}
 
@@ -50,6 +116,16 @@ public class OptionsManager {
 		if(Boolean.parseBoolean(prop.getProperty("remote"))) {
 			fo.setCapability("browserName", "firefox");
 		}
+		if (NetworkBlocker.isFastPage(prop)) {
+			log.info("Running tests with the fast page profile");
+			setFirefoxFastPagePrefs(fo);
+		}
+		fo.setPageLoadStrategy(getPageLoadStrategy(prop));
+		if (useCachingProxy()) {
+			fo.setProxy(CachingProxy.getShared(prop).getSeleniumProxy());
+			// the local stand-in server goes through the proxy too
+			fo.addPreference("network.proxy.allow_hijacking_localhost", true);
+		}
 		return fo;
 	}
 
@@ -66,7 +142,64 @@ public class OptionsManager {
 		if(Boolean.parseBoolean(prop.getProperty("remote"))) {
 			eo.setCapability("browserName", "edge");
 		}
+		if (NetworkBlocker.isFastPage(prop)) {
+			log.info("Running tests with the fast page profile");
+			eo.addArguments(CHROMIUM_BACKGROUND_SERVICES_OFF);
+		}
+		eo.setPageLoadStrategy(getPageLoadStrategy(prop));
+		if (useCachingProxy()) {
+			eo.setProxy(CachingProxy.getShared(prop).getSeleniumProxy());
+			// the local stand-in server goes through the proxy too
+			eo.addArguments("--proxy-bypass-list=<-loopback>");
+		}
 		return eo;
 	}
 
+	/**
+	 * the caching proxy listens on the loopback of this machine, a grid browser
+	 * can not reach it
+	 * 
+	 * @return
+	 */
+	private boolean useCachingProxy() {
+		if (!CachingProxy.isEnabled(prop)) {
+			return false;
+		}
+		if (Boolean.parseBoolean(prop.getProperty("remote"))) {
+			log.warn("proxycache is ignored for remote browsers");
+			return false;
+		}
+		log.info("Running tests through the caching proxy");
+		return true;
+	}
+
+	/**
+	 * firefox has no DevTools request blocking (NetworkBlocker): the blocked
+	 * resource types are turned off with prefs for the whole session, url
+	 * patterns are not supported
+	 * 
+	 * @param fo
+	 */
+	private void setFirefoxFastPagePrefs(FirefoxOptions fo) {
+		String resources = String.valueOf(prop.getProperty("blockresources")).toLowerCase();
+		if (resources.contains("image")) {
+			fo.addPreference("permissions.default.image", 2);
+		}
+		if (resources.contains("font")) {
+			fo.addPreference("browser.display.use_document_fonts", 0);
+		}
+		if (resources.contains("media")) {
+			fo.addPreference("media.autoplay.default", 5);
+		}
+		// background services
+		fo.addPreference("app.update.auto", false);
+		fo.addPreference("extensions.update.enabled", false);
+		fo.addPreference("toolkit.telemetry.enabled", false);
+		fo.addPreference("datareporting.healthreport.uploadEnabled", false);
+		fo.addPreference("browser.safebrowsing.malware.enabled", false);
+		fo.addPreference("browser.safebrowsing.phishing.enabled", false);
+		fo.addPreference("network.prefetch-next", false);
+		fo.addPreference("network.dns.disablePrefetch", true);
+	}
+
 }
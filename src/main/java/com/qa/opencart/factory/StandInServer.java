@@ -0,0 +1,455 @@
+package com.qa.opencart.factory;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * local stand-in for the OpenCart app (env = local): the login, account,
+ * register, search and product pages are served from the recorded markup of
+ * standinpages (./src/test/resources/standin by default) with the products of
+ * its products.csv, so the suite runs offline and every page costs the same
+ * time on every run:
+ *
+ * standinlatency = 200 : delay of every page in ms
+ *
+ * standinassetlatency = 20 : delay of every css/image in ms
+ *
+ * The account of username/password can log in, registered accounts too; the
+ * session is kept in the OCSESSID cookie like the real app.
+ */
+public class StandInServer {
+
+	public static final String DEFAULT_PAGES_PATH = "./src/test/resources/standin";
+
+	private static final String CONTEXT = "/opencart/";
+	private static final String SESSION_COOKIE = "OCSESSID";
+	private static final Pattern IMAGE_SIZE = Pattern.compile("-(\\d+)x(\\d+)\\.png$");
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)\\}\\}");
+
+	private static final Logger log = LogManager.getLogger(StandInServer.class);
+
+	private static StandInServer sharedServer;
+
+	private final File pagesDir;
+	private final long pageLatency;
+	private final long assetLatency;
+	private final HttpServer server;
+	private final ExecutorService workers;
+
+	private final Map<String, String> templates = new ConcurrentHashMap<String, String>();
+	private final Map<String, byte[]> images = new ConcurrentHashMap<String, byte[]>();
+	private final Map<String, Map<String, String>> products;
+	// session id --> e-mail of the logged in customer, "" for a guest
+	private final Map<String, String> sessions = new ConcurrentHashMap<String, String>();
+	private final Map<String, String> accounts = new ConcurrentHashMap<String, String>();
+
+	private final AtomicLong pageRequests = new AtomicLong();
+	private final AtomicLong assetRequests = new AtomicLong();
+
+	/**
+	 * starts the server on the loopback address
+	 *
+	 * @param pagesDir     recorded pages and products.csv
+	 * @param port         0 for a free port
+	 * @param pageLatency  ms
+	 * @param assetLatency ms
+	 */
+	public StandInServer(File pagesDir, int port, long pageLatency, long assetLatency) {
+		this.pagesDir = pagesDir;
+		this.pageLatency = pageLatency;
+		this.assetLatency = assetLatency;
+		this.products = loadProducts(new File(pagesDir, "products.csv"));
+		try {
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.STAND_IN_SERVER_MESG + " : " + e.getMessage());
+		}
+		workers = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "stand-in-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.createContext(CONTEXT, this::handle);
+		server.setExecutor(workers);
+		server.start();
+		log.info("stand-in OpenCart server on {}, page latency {} ms, asset latency {} ms", getBaseUrl(),
+				pageLatency, assetLatency);
+	}
+
+	/**
+	 * the server of the whole run, started on the first call
+	 *
+	 * @param prop
+	 * @return
+	 */
+	public static synchronized StandInServer getShared(Properties prop) {
+		if (sharedServer == null) {
+			sharedServer = new StandInServer(new File(prop.getProperty("standinpages", DEFAULT_PAGES_PATH)),
+					getInt(prop, "standinport"), getInt(prop, "standinlatency"), getInt(prop, "standinassetlatency"));
+			sharedServer.addAccount(prop.getProperty("username"), prop.getProperty("password"));
+		}
+		return sharedServer;
+	}
+
+	public static boolean isEnabled(Properties prop) {
+		return Boolean.parseBoolean(prop.getProperty("standin"));
+	}
+
+	private static int getInt(Properties prop, String key) {
+		String value = prop.getProperty(key);
+		return value == null || value.trim().isEmpty() ? 0 : Integer.parseInt(value.trim());
+	}
+
+	public void addAccount(String email, String password) {
+		if (email != null && password != null) {
+			accounts.put(email.trim().toLowerCase(Locale.ROOT), password);
+		}
+	}
+
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + CONTEXT;
+	}
+
+	public String getLoginUrl() {
+		return getBaseUrl() + "index.php?route=account/login";
+	}
+
+	public long getPageRequests() {
+		return pageRequests.get();
+	}
+
+	public long getAssetRequests() {
+		return assetRequests.get();
+	}
+
+	public void stop() {
+		server.stop(0);
+		workers.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+			if (path.isEmpty() || "index.php".equals(path)) {
+				pageRequests.incrementAndGet();
+				sleep(pageLatency);
+				handlePage(exchange);
+			} else {
+				assetRequests.incrementAndGet();
+				sleep(assetLatency);
+				handleAsset(exchange, path);
+			}
+		} catch (RuntimeException e) {
+			log.warn("stand-in server failed on {}", exchange.getRequestURI(), e);
+			send(exchange, 500, "text/plain", new byte[0]);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void handlePage(HttpExchange exchange) throws IOException {
+		Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+		Map<String, String> form = "POST".equals(exchange.getRequestMethod())
+				? parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+				: new LinkedHashMap<String, String>();
+		String sessionId = getSession(exchange);
+		boolean loggedIn = !sessions.get(sessionId).isEmpty();
+		String route = query.getOrDefault("route", "common/home");
+
+		switch (route) {
+		case "account/login":
+			if (loggedIn) {
+				redirect(exchange, "account/account");
+				return;
+			}
+			if (!form.isEmpty()) {
+				String email = form.getOrDefault("email", "").trim().toLowerCase(Locale.ROOT);
+				if (!email.isEmpty() && form.getOrDefault("password", "").equals(accounts.get(email))) {
+					sessions.put(sessionId, email);
+					redirect(exchange, "account/account");
+					return;
+				}
+			}
+			Map<String, String> login = new LinkedHashMap<String, String>();
+			login.put("email", escape(form.getOrDefault("email", "")));
+			login.put("alert", form.isEmpty() ? ""
+					: render("alert-danger.html", Map.of("message", "Warning: No match for E-Mail Address and/or Password.")));
+			sendPage(exchange, 200, "Account Login", "account-login", route, render("login.html", login), false);
+			return;
+		case "account/account":
+			if (!loggedIn) {
+				redirect(exchange, "account/login");
+				return;
+			}
+			sendPage(exchange, 200, "My Account", "account-account", route, render("account.html", Map.of()), true);
+			return;
+		case "account/logout":
+			sessions.put(sessionId, "");
+			sendPage(exchange, 200, "Account Logout", "common-success", route, render("logout.html", Map.of()), false);
+			return;
+		case "account/register":
+			if (!form.isEmpty()) {
+				String email = form.getOrDefault("email", "").trim().toLowerCase(Locale.ROOT);
+				accounts.put(email, form.getOrDefault("password", ""));
+				sessions.put(sessionId, email);
+				redirect(exchange, "account/success");
+				return;
+			}
+			sendPage(exchange, 200, "Register Account", "account-register", route, render("register.html", Map.of()),
+					loggedIn);
+			return;
+		case "account/success":
+			sendPage(exchange, 200, "Your Account Has Been Created!", "common-success", route,
+					render("success.html", Map.of()), loggedIn);
+			return;
+		case "product/search":
+			String search = query.getOrDefault("search", "");
+			sendPage(exchange, 200, "Search - " + escape(search), "product-search", route, renderSearch(search), null);
+			return;
+		case "product/product":
+			Map<String, String> product = products.get(query.getOrDefault("product_id", ""));
+			if (product != null) {
+				sendPage(exchange, 200, product.get("name"), "product-product", route, renderProduct(product), null);
+				return;
+			}
+			break;
+		default:
+			break;
+		}
+		sendPage(exchange, 404, "Page Not Found!", "error-not-found", route, render("not-found.html", Map.of()), null);
+	}
+
+	private String renderSearch(String search) {
+		StringBuilder results = new StringBuilder();
+		String key = search.trim().toLowerCase(Locale.ROOT);
+		for (Map<String, String> product : products.values()) {
+			if (!key.isEmpty() && product.get("name").toLowerCase(Locale.ROOT).contains(key)) {
+				Map<String, String> item = new LinkedHashMap<String, String>(product);
+				item.put("search", escape(search));
+				results.append(render("search-item.html", item));
+			}
+		}
+		if (results.length() == 0) {
+			results.append(render("search-empty.html", Map.of()));
+		}
+		Map<String, String> page = new LinkedHashMap<String, String>();
+		page.put("search", escape(search));
+		page.put("results", results.toString());
+		return render("search.html", page);
+	}
+
+	private String renderProduct(Map<String, String> product) {
+		StringBuilder thumbnails = new StringBuilder();
+		int count = Integer.parseInt(product.get("images"));
+		for (int i = 1; i <= count; i++) {
+			Map<String, String> image = new LinkedHashMap<String, String>(product);
+			image.put("index", String.valueOf(i));
+			thumbnails.append(render("product-image.html", image));
+		}
+		Map<String, String> page = new LinkedHashMap<String, String>(product);
+		page.put("images", thumbnails.toString());
+		return render("product.html", page);
+	}
+
+	/**
+	 * @param title    html escaped
+	 * @param loggedIn account column of a customer or of a guest, null for no
+	 *                 column
+	 */
+	private void sendPage(HttpExchange exchange, int status, String title, String pageId, String route,
+			String content, Boolean loggedIn) throws IOException {
+		Map<String, String> layout = new LinkedHashMap<String, String>();
+		layout.put("title", title);
+		layout.put("base", getRequestBaseUrl(exchange));
+		layout.put("search", "product/search".equals(route) ? escape(parseForm(exchange.getRequestURI().getRawQuery())
+				.getOrDefault("search", "")) : "");
+		layout.put("pageid", pageId);
+		layout.put("url", "index.php?route=" + route);
+		layout.put("content", content);
+		layout.put("column",
+				loggedIn == null ? "" : render(loggedIn ? "column-customer.html" : "column-guest.html", Map.of()));
+		send(exchange, status, "text/html; charset=utf-8",
+				render("layout.html", layout).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void handleAsset(HttpExchange exchange, String path) throws IOException {
+		if (path.endsWith(".png") && path.startsWith("image/")) {
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=86400");
+			send(exchange, 200, "image/png", images.computeIfAbsent(path, this::createImage));
+			return;
+		}
+		File file = new File(pagesDir, path).getCanonicalFile();
+		if (path.endsWith(".css") && file.toPath().startsWith(pagesDir.getCanonicalFile().toPath()) && file.isFile()) {
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=86400");
+			send(exchange, 200, "text/css", Files.readAllBytes(file.toPath()));
+			return;
+		}
+		send(exchange, 404, "text/plain", new byte[0]);
+	}
+
+	// the product pictures are not recorded, a plain image of the right size stands in for them
+	private byte[] createImage(String path) {
+		Matcher size = IMAGE_SIZE.matcher(path);
+		boolean sized = size.find();
+		// the logo has no size in its name
+		int width = sized ? Integer.parseInt(size.group(1)) : 228;
+		int height = sized ? Integer.parseInt(size.group(2)) : 48;
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int shade = 120 + Math.abs(path.hashCode() % 100);
+		int rgb = new Color(shade, shade, 220).getRGB();
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				image.setRGB(x, y, rgb);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			ImageIO.write(image, "png", out);
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.STAND_IN_SERVER_MESG + " : " + e.getMessage());
+		}
+		return out.toByteArray();
+	}
+
+	private String getSession(HttpExchange exchange) {
+		String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+		if (cookies != null) {
+			for (String cookie : cookies.split(";")) {
+				String[] pair = cookie.trim().split("=", 2);
+				if (pair.length == 2 && SESSION_COOKIE.equals(pair[0]) && sessions.containsKey(pair[1])) {
+					return pair[1];
+				}
+			}
+		}
+		String sessionId = UUID.randomUUID().toString().replace("-", "");
+		sessions.put(sessionId, "");
+		exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + sessionId + "; path=/");
+		return sessionId;
+	}
+
+	private void redirect(HttpExchange exchange, String route) throws IOException {
+		exchange.getResponseHeaders().add("Location", getRequestBaseUrl(exchange) + "index.php?route=" + route);
+		send(exchange, 302, "text/html; charset=utf-8", new byte[0]);
+	}
+
+	// the browser may use localhost or 127.0.0.1, the links keep its host
+	private String getRequestBaseUrl(HttpExchange exchange) {
+		String host = exchange.getRequestHeaders().getFirst("Host");
+		return host == null ? getBaseUrl() : "http://" + host + CONTEXT;
+	}
+
+	private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		if (body.length > 0) {
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	private String render(String templateName, Map<String, String> values) {
+		String template = templates.computeIfAbsent(templateName, this::loadTemplate);
+		Matcher placeholder = PLACEHOLDER.matcher(template);
+		StringBuilder page = new StringBuilder();
+		while (placeholder.find()) {
+			placeholder.appendReplacement(page,
+					Matcher.quoteReplacement(values.getOrDefault(placeholder.group(1), "")));
+		}
+		placeholder.appendTail(page);
+		return page.toString();
+	}
+
+	private String loadTemplate(String templateName) {
+		try {
+			return new String(Files.readAllBytes(new File(pagesDir, templateName).toPath()), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.STAND_IN_SERVER_MESG + " : " + templateName + " in " + pagesDir);
+		}
+	}
+
+	/**
+	 * @return product id --> column --> value, in the order of the file
+	 */
+	private static Map<String, Map<String, String>> loadProducts(File file) {
+		Map<String, Map<String, String>> products = new LinkedHashMap<String, Map<String, String>>();
+		try (CSVReader reader = new CSVReader(new FileReader(file, StandardCharsets.UTF_8))) {
+			List<String[]> rows = reader.readAll();
+			String[] header = rows.get(0);
+			for (String[] row : rows.subList(1, rows.size())) {
+				Map<String, String> product = new LinkedHashMap<String, String>();
+				for (int j = 0; j < header.length; j++) {
+					product.put(header[j], escape(row[j]));
+				}
+				products.put(product.get("id"), product);
+			}
+		} catch (IOException | CsvException | RuntimeException e) {
+			throw new FrameworkException(AppError.STAND_IN_SERVER_MESG + " : " + file + " : " + e.getMessage());
+		}
+		return products;
+	}
+
+	private static Map<String, String> parseForm(String encoded) {
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		if (encoded == null || encoded.isEmpty()) {
+			return values;
+		}
+		for (String pair : encoded.split("&")) {
+			String[] keyValue = pair.split("=", 2);
+			values.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+					keyValue.length == 2 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+		}
+		return values;
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;")
+				.replace("'", "&#39;");
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.qa.opencart.listeners;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import com.qa.opencart.utils.LatencyHistogram;
+
+/**
+ * records the latency of every WebDriver command of the decorated driver
+ * (commandmetrics = true) per command type and per calling page method. The
+ * histograms are kept per thread for the running test and merged into the
+ * suite totals when the test is done.
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+	private static final String PAGES_PACKAGE = "com.qa.opencart.pages.";
+	private static final String NO_PAGE = "(test code)";
+	// listener + decorator + ElementUtil/WaitEngine frames above the page method
+	private static final int MAX_CALLER_FRAMES = 40;
+
+	private static final String LOGIN_METHOD = "LoginPage.doLogin";
+	private static final Set<String> NAVIGATION_COMMANDS = new HashSet<String>(Arrays.asList("get",
+			"Navigation.to", "Navigation.back", "Navigation.forward", "Navigation.refresh", "element.click",
+			"element.submit", "element.sendKeys", "element.clear"));
+
+	private static final StackWalker walker = StackWalker.getInstance();
+
+	private static final ThreadLocal<TestLatency> tlLatency = ThreadLocal.withInitial(TestLatency::new);
+	private static final Map<String, LatencyHistogram> suiteCommands = new ConcurrentHashMap<String, LatencyHistogram>();
+
+	@Override
+	public void beforeAnyCall(Object target, Method method, Object[] args) {
+		TestLatency latency = tlLatency.get();
+		latency.push(getCommandName(target, method), getCallingPageMethod(), System.nanoTime());
+	}
+
+	@Override
+	public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+		tlLatency.get().pop(System.nanoTime());
+	}
+
+	@Override
+	public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+		// failed commands (findElement while waiting) cost time as well
+		tlLatency.get().pop(System.nanoTime());
+	}
+
+	/**
+	 * starts a new recording for the test running on the current thread
+	 */
+	public static void startTest() {
+		tlLatency.get().clear();
+	}
+
+	/**
+	 * summary of the commands of the current test, merged into the suite totals
+	 *
+	 * @return empty when no command was recorded
+	 */
+	public static String finishTest() {
+		TestLatency latency = tlLatency.get();
+		if (latency.commands.isEmpty()) {
+			return "";
+		}
+		for (Map.Entry<String, LatencyHistogram> entry : latency.commands.entrySet()) {
+			suiteCommands.computeIfAbsent(entry.getKey(), key -> new LatencyHistogram()).add(entry.getValue());
+		}
+		String summary = "WebDriver command latency per command:\n" + format(latency.commands)
+				+ "\nWebDriver command latency per page method:\n" + format(latency.pageMethods);
+		latency.clear();
+		return summary;
+	}
+
+	/**
+	 * time spent by the current thread in commands called from the LoginPage
+	 * login methods, it is never reset so callers take the difference
+	 *
+	 * @return
+	 */
+	public static long getLoginNanos() {
+		return tlLatency.get().loginNanos;
+	}
+
+	/**
+	 * time spent by the current thread in navigation/interaction commands (get,
+	 * navigate, click, submit, sendKeys, clear) outside the login methods
+	 *
+	 * @return
+	 */
+	public static long getNavigationNanos() {
+		return tlLatency.get().navigationNanos;
+	}
+
+	/**
+	 * latency per command type for the whole run
+	 *
+	 * @return
+	 */
+	public static List<String> getSuiteSummary() {
+		List<String> summary = new ArrayList<String>();
+		for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<String, LatencyHistogram>(suiteCommands)
+				.entrySet()) {
+			summary.add(entry.getKey() + " --> " + entry.getValue());
+		}
+		return summary;
+	}
+
+	private static String format(Map<String, LatencyHistogram> histograms) {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<String, LatencyHistogram>(histograms)
+				.entrySet()) {
+			sb.append(String.format("%-45s %s%n", entry.getKey(), entry.getValue()));
+		}
+		return sb.toString();
+	}
+
+	private static String getCommandName(Object target, Method method) {
+		if (target instanceof WebDriver) {
+			return method.getName();
+		}
+		if (target instanceof WebElement) {
+			return "element." + method.getName();
+		}
+		// manage(), navigate(), switchTo() helpers
+		return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+	}
+
+	private static String getCallingPageMethod() {
+		return walker.walk(frames -> frames.limit(MAX_CALLER_FRAMES)
+				.filter(f -> f.getClassName().startsWith(PAGES_PACKAGE)).findFirst()
+				.map(f -> f.getClassName().substring(PAGES_PACKAGE.length()) + "." + f.getMethodName())
+				.orElse(NO_PAGE));
+	}
+
+	private static class TestLatency {
+
+		private final Map<String, LatencyHistogram> commands = new TreeMap<String, LatencyHistogram>();
+		private final Map<String, LatencyHistogram> pageMethods = new TreeMap<String, LatencyHistogram>();
+
+		// calls do not nest today, the stack only keeps pairs in order if they do
+		private final String[] commandStack = new String[8];
+		private final String[] pageStack = new String[8];
+		private final long[] startStack = new long[8];
+		private int depth;
+		private long loginNanos;
+		private long navigationNanos;
+
+		private void push(String command, String pageMethod, long start) {
+			if (depth < startStack.length) {
+				commandStack[depth] = command;
+				pageStack[depth] = pageMethod;
+				startStack[depth] = start;
+			}
+			depth++;
+		}
+
+		private void pop(long end) {
+			if (depth == 0) {
+				return;
+			}
+			depth--;
+			if (depth < startStack.length) {
+				long nanos = end - startStack[depth];
+				commands.computeIfAbsent(commandStack[depth], key -> new LatencyHistogram()).recordNanos(nanos);
+				pageMethods.computeIfAbsent(pageStack[depth], key -> new LatencyHistogram()).recordNanos(nanos);
+				if (pageStack[depth].startsWith(LOGIN_METHOD)) {
+					loginNanos += nanos;
+				} else if (NAVIGATION_COMMANDS.contains(commandStack[depth])) {
+					navigationNanos += nanos;
+				}
+			}
+		}
+
+		private void clear() {
+			commands.clear();
+			pageMethods.clear();
+			depth = 0;
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.qa.opencart.listeners;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.factory.DriverPool;
+
+/**
+ * pre-warms the browsers as soon as the suite is parsed (when prewarm = true)
+ * and quits the pooled drivers once the whole suite is finished, printing the
+ * pool stats (size, lease wait and reuse counts) for sizing the pool
+ */
+public class DriverPoolListener implements ISuiteListener {
+
+	private static final Logger log = LogManager.getLogger(DriverPoolListener.class);
+
+	@Override
+	public void onStart(ISuite suite) {
+		Properties prop = new DriverFactory().initProp();
+		if (!Boolean.parseBoolean(prop.getProperty("prewarm"))) {
+			return;
+		}
+
+		for (Map.Entry<String, Integer> entry : getBrowserLanes(suite.getXmlSuite()).entrySet()) {
+			Properties browserProp = (Properties) prop.clone();
+			browserProp.setProperty("browser", entry.getKey());
+			new DriverFactory().prewarmDrivers(browserProp, entry.getValue());
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		for (String stats : DriverPool.getAllStats()) {
+			log.info("{} --> {}", suite.getName(), stats);
+		}
+		DriverPool.shutdownAll();
+	}
+
+	/**
+	 * number of browsers needed at the same time per browser name: one per
+	 * &lt;test&gt; using that browser, capped by the suite thread-count
+	 * 
+	 * @param xmlSuite
+	 * @return
+	 */
+	private Map<String, Integer> getBrowserLanes(XmlSuite xmlSuite) {
+		int lanes = xmlSuite.getParallel() == XmlSuite.ParallelMode.NONE ? 1 : xmlSuite.getThreadCount();
+
+		Map<String, Integer> browserLanes = new LinkedHashMap<String, Integer>();
+		for (XmlTest test : xmlSuite.getTests()) {
+			String browserName = test.getParameter("browser");
+			if (browserName == null) {
+				browserName = "chrome";// same as @Optional in BaseTest.setUp
+			}
+			browserLanes.merge(browserName.trim().toLowerCase(), 1, (a, b) -> Math.min(a + b, lanes));
+		}
+		log.info("browser lanes for {} : {}", xmlSuite.getName(), browserLanes);
+		return browserLanes;
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.qa.opencart.listeners;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.IAlterSuiteListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.utils.DurationHistory;
+import com.qa.opencart.utils.ShardPlanner;
+
+/**
+ * orders the work longest processing time first with the DurationHistory:
+ * the &lt;test&gt;s of the suite (parallel="tests") and the methods inside a
+ * &lt;test&gt; (parallel="methods"). Methods are only reordered inside the same
+ * priority, so tests like loginTest (priority = MAX_VALUE) still run last of
+ * their class; the login/page setup is done per thread by BaseTest.threadSetup
+ * before the first method of the thread whatever the order is.
+ *
+ * The makespan predicted from the history (LPT on thread-count workers) is
+ * compared with the actual suite time and written to
+ * ./target/timing/schedule-&lt;suite&gt;.json.
+ */
+public class LongestFirstScheduler implements IAlterSuiteListener, IMethodInterceptor, ISuiteListener {
+
+	private static final String TIMING_PATH = "./target/timing/";
+
+	private static final Logger log = LogManager.getLogger(LongestFirstScheduler.class);
+
+	private final Map<String, Long> predictedMakespans = new ConcurrentHashMap<String, Long>();
+	private final Map<String, Long> suiteStarts = new ConcurrentHashMap<String, Long>();
+	private Map<String, Long> history;
+
+	@Override
+	public void alter(List<XmlSuite> suites) {
+		Map<String, Long> durations = getHistory();
+		for (XmlSuite suite : suites) {
+			Map<String, Long> testDurations = new LinkedHashMap<String, Long>();
+			for (XmlTest test : suite.getTests()) {
+				long duration = -1;
+				for (XmlClass xmlClass : test.getXmlClasses()) {
+					long classDuration = DurationHistory.getClassDuration(durations, xmlClass.getName());
+					if (classDuration >= 0) {
+						duration = Math.max(duration, 0) + classDuration;
+					}
+				}
+				testDurations.put(test.getName(), duration);
+			}
+			Map<String, Long> estimated = ShardPlanner.withEstimates(testDurations,
+					AppConstants.DEFAULT_TEST_DURATION);
+
+			List<XmlTest> tests = new ArrayList<XmlTest>(suite.getTests());
+			// stable sort, the declaration order is kept for the same duration
+			tests.sort(Comparator.comparing((XmlTest test) -> estimated.get(test.getName())).reversed());
+			suite.setTests(tests);
+
+			predictedMakespans.put(suite.getName(), predictMakespan(suite, estimated, durations));
+			log.info("longest first order of {} : {}", suite.getName(), estimated);
+		}
+	}
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		Map<String, Long> durations = getHistory();
+		List<IMethodInstance> ordered = new ArrayList<IMethodInstance>(methods);
+		ordered.sort(Comparator.comparingInt((IMethodInstance method) -> method.getMethod().getPriority())
+				.thenComparing(Comparator.comparingLong((IMethodInstance method) -> getDuration(durations,
+						method.getMethod())).reversed()));
+		return ordered;
+	}
+
+	@Override
+	public void onStart(ISuite suite) {
+		suiteStarts.put(suite.getName(), System.currentTimeMillis());
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		Long start = suiteStarts.remove(suite.getName());
+		Long predicted = predictedMakespans.remove(suite.getName());
+		if (start == null || predicted == null) {
+			return;
+		}
+		long actual = System.currentTimeMillis() - start;
+		log.info("{} --> predicted makespan: {} ms, actual makespan: {} ms", suite.getName(), predicted, actual);
+
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("suite", suite.getName());
+		json.put("parallel", suite.getXmlSuite().getParallel().toString());
+		json.put("threadCount", suite.getXmlSuite().getThreadCount());
+		List<String> order = new ArrayList<String>();
+		for (XmlTest test : suite.getXmlSuite().getTests()) {
+			order.add(test.getName());
+		}
+		json.put("order", order);
+		json.put("predictedMakespanMillis", predicted);
+		json.put("actualMakespanMillis", actual);
+
+		File file = new File(TIMING_PATH + "schedule-" + suite.getName().replaceAll("[^A-Za-z0-9_-]+", "_") + ".json");
+		file.getParentFile().mkdirs();
+		try {
+			Files.write(file.toPath(), new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			log.warn("could not write the schedule file : {}", file, e);
+		}
+	}
+
+	/**
+	 * &lt;test&gt;s run one after the other unless parallel="tests", then they are
+	 * taken in order by thread-count workers (longest first list schedule of
+	 * ShardPlanner). With parallel="methods" the methods of every &lt;test&gt; are
+	 * scheduled the same way on the threads.
+	 */
+	private long predictMakespan(XmlSuite suite, Map<String, Long> testDurations, Map<String, Long> durations) {
+		int threads = Math.max(1, suite.getThreadCount());
+		if (suite.getParallel() == XmlSuite.ParallelMode.TESTS) {
+			return ShardPlanner.plan(testDurations, threads).getMakespan();
+		}
+		long makespan = 0;
+		for (XmlTest test : suite.getTests()) {
+			Map<String, Long> methodDurations = new LinkedHashMap<String, Long>();
+			if (suite.getParallel() == XmlSuite.ParallelMode.METHODS) {
+				for (XmlClass xmlClass : test.getXmlClasses()) {
+					for (Map.Entry<String, Long> entry : durations.entrySet()) {
+						if (entry.getKey().startsWith(xmlClass.getName() + "#")) {
+							methodDurations.put(entry.getKey(), entry.getValue());
+						}
+					}
+				}
+			}
+			makespan += methodDurations.isEmpty() ? testDurations.get(test.getName())
+					: ShardPlanner.plan(methodDurations, threads).getMakespan();
+		}
+		return makespan;
+	}
+
+	private long getDuration(Map<String, Long> durations, ITestNGMethod method) {
+		Long duration = durations.get(method.getRealClass().getName() + "#" + method.getMethodName());
+		return duration == null ? AppConstants.DEFAULT_TEST_DURATION : duration;
+	}
+
+	private synchronized Map<String, Long> getHistory() {
+		if (history == null) {
+			history = DurationHistory.load();
+		}
+		return history;
+	}
+
+}
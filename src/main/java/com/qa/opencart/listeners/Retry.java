@@ -22,4 +22,8 @@ public class Retry implements IRetryAnalyzer {
 		}
 		return false;
 	}
+
+	public int getRetryCount() {
+		return count;
+	}
 }
\ No newline at end of file
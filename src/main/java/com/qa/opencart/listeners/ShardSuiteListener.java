@@ -0,0 +1,185 @@
+package com.qa.opencart.listeners;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+import com.qa.opencart.utils.DurationHistory;
+import com.qa.opencart.utils.ShardPlanner;
+
+/**
+ * runs only one shard of the suite when -Dshard.total is given:
+ *
+ * mvn test -DsuiteXmlFile=src/test/resources/testrunners/testng_parallel.xml
+ * -Dshard.index=0 -Dshard.total=3 [-Dshard.mode=methods]
+ *
+ * all the classes (or test methods) of the suite are balanced over the shards
+ * with the DurationHistory of the previous runs and the &lt;test&gt; list of the
+ * suite is replaced by the generated one of this shard (parameters of the
+ * original &lt;test&gt; are kept). The generated suite is written to
+ * ./target/shards/ for reference.
+ */
+public class ShardSuiteListener implements IAlterSuiteListener {
+
+	private static final String SHARD_PATH = "./target/shards/";
+
+	private static final Logger log = LogManager.getLogger(ShardSuiteListener.class);
+
+	@Override
+	public void alter(List<XmlSuite> suites) {
+		String total = System.getProperty("shard.total");
+		if (total == null || total.trim().isEmpty()) {
+			return;
+		}
+		int shardTotal;
+		int shardIndex;
+		try {
+			shardTotal = Integer.parseInt(total.trim());
+			shardIndex = Integer.parseInt(System.getProperty("shard.index", "0").trim());
+		} catch (NumberFormatException e) {
+			throw new FrameworkException(AppError.INVALID_SHARD_MESG + " : " + e.getMessage());
+		}
+		if (shardTotal < 1 || shardIndex < 0 || shardIndex >= shardTotal) {
+			throw new FrameworkException(AppError.INVALID_SHARD_MESG + " : " + shardIndex + " of " + shardTotal);
+		}
+		boolean methodMode = "methods".equalsIgnoreCase(System.getProperty("shard.mode", "classes").trim());
+
+		Map<String, Long> history = DurationHistory.load();
+		for (XmlSuite suite : suites) {
+			shard(suite, shardIndex, shardTotal, methodMode, history);
+		}
+	}
+
+	private void shard(XmlSuite suite, int shardIndex, int shardTotal, boolean methodMode, Map<String, Long> history) {
+		Map<String, ShardUnit> units = new LinkedHashMap<String, ShardUnit>();
+		for (XmlTest test : suite.getTests()) {
+			for (XmlClass xmlClass : test.getXmlClasses()) {
+				if (methodMode) {
+					for (String method : getTestMethods(xmlClass)) {
+						String key = xmlClass.getName() + "#" + method;
+						Long duration = history.get(key);
+						addUnit(units, new ShardUnit(test, xmlClass.getName(), method, duration == null ? -1 : duration));
+					}
+				} else {
+					addUnit(units, new ShardUnit(test, xmlClass.getName(), null,
+							DurationHistory.getClassDuration(history, xmlClass.getName())));
+				}
+			}
+		}
+
+		Map<String, Long> unitDurations = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, ShardUnit> entry : units.entrySet()) {
+			unitDurations.put(entry.getKey(), entry.getValue().duration);
+		}
+		ShardPlanner plan = ShardPlanner.plan(
+				ShardPlanner.withEstimates(unitDurations, AppConstants.DEFAULT_TEST_DURATION), shardTotal);
+
+		List<XmlTest> shardTests = new ArrayList<XmlTest>();
+		Map<String, XmlClass> shardClasses = new LinkedHashMap<String, XmlClass>();
+		for (String unitId : plan.getShard(shardIndex)) {
+			ShardUnit unit = units.get(unitId);
+			String classKey = unit.test.getName() + "|" + unit.className;
+			XmlClass xmlClass = shardClasses.get(classKey);
+			if (xmlClass == null) {
+				// one <test> per class, like the hand written suites
+				xmlClass = new XmlClass(unit.className, false);
+				XmlTest shardTest = new XmlTest();
+				shardTest.setSuite(suite);
+				shardTest.setName(unit.test.getXmlClasses().size() == 1 ? unit.test.getName()
+						: unit.test.getName() + " - " + xmlClass.getSupportClass().getSimpleName());
+				shardTest.setParameters(new LinkedHashMap<String, String>(unit.test.getLocalParameters()));
+				List<XmlClass> classes = new ArrayList<XmlClass>();
+				classes.add(xmlClass);
+				shardTest.setXmlClasses(classes);
+				shardTests.add(shardTest);
+				shardClasses.put(classKey, xmlClass);
+			}
+			if (unit.method != null) {
+				xmlClass.getIncludedMethods().add(new XmlInclude(unit.method));
+			}
+		}
+		suite.setTests(shardTests);
+		suite.setName(suite.getName() + " [shard " + shardIndex + " of " + shardTotal + "]");
+
+		log.info("shard plan for {} (predicted makespan {} ms):\n{}", suite.getName(), plan.getMakespan(), plan);
+		if (shardTests.isEmpty()) {
+			log.warn("shard {} of {} has no tests", shardIndex, shardTotal);
+		}
+		writeSuite(suite, shardIndex, shardTotal);
+	}
+
+	private void addUnit(Map<String, ShardUnit> units, ShardUnit unit) {
+		String id = unit.method == null ? unit.className : unit.className + "#" + unit.method;
+		if (units.containsKey(id)) {
+			// same class in another <test> (e.g. another browser)
+			id = unit.test.getName() + ":" + id;
+		}
+		units.put(id, unit);
+	}
+
+	private List<String> getTestMethods(XmlClass xmlClass) {
+		List<String> methods = new ArrayList<String>();
+		if (!xmlClass.getIncludedMethods().isEmpty()) {
+			for (XmlInclude include : xmlClass.getIncludedMethods()) {
+				methods.add(include.getName());
+			}
+			return methods;
+		}
+		Class<?> testClass = xmlClass.getSupportClass();
+		if (testClass == null) {
+			throw new FrameworkException(AppError.INVALID_SHARD_MESG + " : class not found " + xmlClass.getName());
+		}
+		for (Method method : testClass.getMethods()) {
+			if (method.isAnnotationPresent(Test.class) && !xmlClass.getExcludedMethods().contains(method.getName())
+					&& !methods.contains(method.getName())) {
+				methods.add(method.getName());
+			}
+		}
+		methods.sort(null);
+		return methods;
+	}
+
+	private void writeSuite(XmlSuite suite, int shardIndex, int shardTotal) {
+		File file = new File(SHARD_PATH + "shard-" + shardIndex + "-of-" + shardTotal + ".xml");
+		file.getParentFile().mkdirs();
+		try {
+			Files.write(file.toPath(), suite.toXml().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			log.warn("could not write the shard suite : {}", file, e);
+		}
+	}
+
+	private static class ShardUnit {
+
+		private final XmlTest test;
+		private final String className;
+		private final String method;
+		private final long duration;
+
+		private ShardUnit(XmlTest test, String className, String method, long duration) {
+			this.test = test;
+			this.className = className;
+			this.method = method;
+			this.duration = duration;
+		}
+	}
+
+}
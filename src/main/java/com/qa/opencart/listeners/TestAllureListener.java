@@ -2,29 +2,36 @@ package com.qa.opencart.listeners;
 
 
 import io.qameta.allure.Attachment;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import com.qa.opencart.factory.CachingProxy;
+import com.qa.opencart.factory.HarInterceptor;
 import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.utils.ElementUtil;
+import com.qa.opencart.utils.FailureScreenshot;
+import com.qa.opencart.utils.PageReadiness;
+import com.qa.opencart.utils.WaitEngine;
 
 
 public class TestAllureListener implements ITestListener {
 
+	private static final Logger log = LogManager.getLogger(TestAllureListener.class);
+
 	private static String getTestMethodName(ITestResult iTestResult) {
 		return iTestResult.getMethod().getConstructorOrMethod().getName();
 	}
 
-	
-	// Text attachments for Allure
-	@Attachment(value = "Page screenshot", type = "image/png")
-	public byte[] saveScreenshotPNG(WebDriver driver) {
-		return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+	private static String getTestId(ITestResult iTestResult) {
+		return iTestResult.getTestClass().getRealClass().getSimpleName() + "." + getTestMethodName(iTestResult);
 	}
 
+	
 	// Text attachments for Allure
 	@Attachment(value = "{0}", type = "text/plain")
 	public static String saveTextLog(String message) {
@@ -45,34 +52,55 @@ public class TestAllureListener implements ITestListener {
 	@Override
 	public void onFinish(ITestContext iTestContext) {
 		System.out.println("I am in onFinish method " + iTestContext.getName());
+		FailureScreenshot.awaitWrites(30);
+		for (String waitStats : WaitEngine.getMetricsSummary()) {
+			log.info("wait metrics: {}", waitStats);
+		}
+		log.info("{}", ElementUtil.getElementCacheStats());
+		for (String readiness : PageReadiness.getMetricsSummary()) {
+			log.info("page readiness: {}", readiness);
+		}
+		if (CachingProxy.getSharedIfStarted() != null) {
+			log.info("{}", CachingProxy.getSharedIfStarted());
+		}
+		if (HarInterceptor.getSummary() != null) {
+			log.info("{}", HarInterceptor.getSummary());
+		}
+		for (String latency : CommandLatencyListener.getSuiteSummary()) {
+			log.info("command latency: {}", latency);
+		}
 	}
 
 	@Override
 	public void onTestStart(ITestResult iTestResult) {
+		// every log line of this thread carries the test id (%X{testId}) until the test ends
+		ThreadContext.put("testId", getTestId(iTestResult));
 		System.out.println("I am in onTestStart method " + getTestMethodName(iTestResult) + " start");
 	}
 
 	@Override
 	public void onTestSuccess(ITestResult iTestResult) {
 		System.out.println("I am in onTestSuccess method " + getTestMethodName(iTestResult) + " succeed");
+		ThreadContext.remove("testId");
 	}
 
 	@Override
 	public void onTestFailure(ITestResult iTestResult) {
 		System.out.println("I am in onTestFailure method " + getTestMethodName(iTestResult) + " failed");
-		Object testClass = iTestResult.getInstance();
-		// Allure ScreenShotRobot and SaveTestLog
+		// Allure ScreenShotRobot and SaveTestLog, one capture shared with ChainTest
 		if (DriverFactory.getDriver() instanceof WebDriver) {
 			System.out.println("Screenshot captured for test case:" + getTestMethodName(iTestResult));
-			saveScreenshotPNG(DriverFactory.getDriver());
+			FailureScreenshot.attachToAllure(iTestResult, DriverFactory.getDriver());
 		}
 		// Save a log on allure.
-		saveTextLog(getTestMethodName(iTestResult) + " failed and screenshot taken!");		
+		saveTextLog(getTestMethodName(iTestResult) + " failed and screenshot taken!");
+		ThreadContext.remove("testId");
 	}
 
 	@Override
 	public void onTestSkipped(ITestResult iTestResult) {
 		System.out.println("I am in onTestSkipped method " + getTestMethodName(iTestResult) + " skipped");
+		ThreadContext.remove("testId");
 	}
 
 	@Override
@@ -0,0 +1,316 @@
+package com.qa.opencart.listeners;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.utils.DurationHistory;
+
+import io.qameta.allure.Allure;
+
+/**
+ * splits the run time of every test and configuration method into setup,
+ * login, navigation, assertion and teardown phases, ranks the slowest tests and
+ * phases and writes them to ./target/timing/ (json + text report). The method
+ * durations are merged into the DurationHistory used by the shard planner.
+ *
+ * Before* methods are setup, After* methods are teardown. Inside a method the
+ * time of the commands called from LoginPage.doLogin* is login and the time of
+ * get/navigate/click/sendKeys commands is navigation, the rest of a test body is
+ * assertion. The login/navigation split needs the command instrumentation
+ * (commandmetrics = true), without it the whole test body is assertion.
+ */
+public class TimingProfilerListener implements IInvokedMethodListener, ISuiteListener {
+
+	public static final String SETUP = "setup";
+	public static final String LOGIN = "login";
+	public static final String NAVIGATION = "navigation";
+	public static final String ASSERTION = "assertion";
+	public static final String TEARDOWN = "teardown";
+
+	private static final String TIMING_PATH = "./target/timing/";
+	private static final int RANKING_SIZE = 10;
+
+	private static final Logger log = LogManager.getLogger(TimingProfilerListener.class);
+
+	private final Queue<TimingEntry> entries = new ConcurrentLinkedQueue<TimingEntry>();
+	// ms per Class#method of this run (all the data provider rows), for the duration history
+	private final Map<String, Long> runDurations = new ConcurrentHashMap<String, Long>();
+
+	private final ThreadLocal<long[]> tlStart = new ThreadLocal<long[]>();
+	private final ThreadLocal<TimingEntry> tlBeforeMethod = new ThreadLocal<TimingEntry>();
+	private final ThreadLocal<TimingEntry> tlLastTest = new ThreadLocal<TimingEntry>();
+
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		tlStart.set(new long[] { System.nanoTime(), CommandLatencyListener.getLoginNanos(),
+				CommandLatencyListener.getNavigationNanos() });
+	}
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		long[] start = tlStart.get();
+		if (start == null) {
+			return;
+		}
+		tlStart.remove();
+		long total = System.nanoTime() - start[0];
+		long login = CommandLatencyListener.getLoginNanos() - start[1];
+		long navigation = CommandLatencyListener.getNavigationNanos() - start[2];
+
+		ITestNGMethod testMethod = method.getTestMethod();
+		Class<?> testClass = testResult.getTestClass().getRealClass();
+		String name = testClass.getSimpleName() + "." + testMethod.getMethodName();
+		runDurations.merge(testClass.getName() + "#" + testMethod.getMethodName(), total / 1_000_000, Long::sum);
+
+		if (method.isTestMethod()) {
+			TimingEntry entry = new TimingEntry(name + getParameters(testResult), "test");
+			TimingEntry beforeMethod = tlBeforeMethod.get();
+			if (beforeMethod != null) {
+				entry.add(beforeMethod);
+				tlBeforeMethod.remove();
+			}
+			entry.add(LOGIN, login);
+			entry.add(NAVIGATION, navigation);
+			entry.add(ASSERTION, total - login - navigation);
+			entry.status = getStatus(testResult);
+			entries.add(entry);
+			tlLastTest.set(entry);
+			attachToReports(entry);
+			return;
+		}
+
+		if (testMethod.isAfterMethodConfiguration()) {
+			// belongs to the test which just ran on this thread
+			TimingEntry lastTest = tlLastTest.get();
+			if (lastTest != null) {
+				lastTest.add(TEARDOWN, total);
+				return;
+			}
+			// the test did not run (failed @BeforeMethod), its setup is reported on its own
+			TimingEntry pending = tlBeforeMethod.get();
+			if (pending != null) {
+				tlBeforeMethod.remove();
+				entries.add(pending);
+			}
+		} else {
+			// the teardown of the last test is over, a later method is not charged to it
+			tlLastTest.remove();
+		}
+
+		boolean teardown = testMethod.isAfterMethodConfiguration() || testMethod.isAfterClassConfiguration()
+				|| testMethod.isAfterTestConfiguration() || testMethod.isAfterSuiteConfiguration()
+				|| testMethod.isAfterGroupsConfiguration();
+		TimingEntry entry = new TimingEntry(name, "config");
+		if (teardown) {
+			entry.add(TEARDOWN, total);
+		} else {
+			entry.add(LOGIN, login);
+			entry.add(NAVIGATION, navigation);
+			entry.add(SETUP, total - login - navigation);
+		}
+		entry.status = getStatus(testResult);
+
+		if (testMethod.isBeforeMethodConfiguration()) {
+			// added to the test which runs next on this thread
+			TimingEntry pending = tlBeforeMethod.get();
+			if (pending == null) {
+				tlBeforeMethod.set(entry);
+			} else {
+				pending.add(entry);
+			}
+			return;
+		}
+		entries.add(entry);
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		List<TimingEntry> allEntries = new ArrayList<TimingEntry>(entries);
+		entries.clear();
+		DurationHistory.update(runDurations);
+		runDurations.clear();
+
+		Map<String, Long> phaseTotals = new LinkedHashMap<String, Long>();
+		for (String phase : Arrays.asList(SETUP, LOGIN, NAVIGATION, ASSERTION, TEARDOWN)) {
+			long millis = 0;
+			for (TimingEntry entry : allEntries) {
+				millis += entry.get(phase);
+			}
+			phaseTotals.put(phase, millis);
+		}
+
+		List<TimingEntry> slowestTests = new ArrayList<TimingEntry>();
+		List<String[]> slowestPhases = new ArrayList<String[]>();
+		for (TimingEntry entry : allEntries) {
+			if ("test".equals(entry.kind)) {
+				slowestTests.add(entry);
+			}
+			for (Map.Entry<String, Long> phase : entry.phases.entrySet()) {
+				if (phase.getValue() == 0) {
+					continue;
+				}
+				slowestPhases.add(new String[] { entry.name, phase.getKey(), String.valueOf(phase.getValue()) });
+			}
+		}
+		slowestTests.sort(Comparator.comparingLong(TimingEntry::getTotal).reversed());
+		slowestPhases.sort(Comparator.comparingLong((String[] phase) -> Long.parseLong(phase[2])).reversed());
+
+		String fileName = TIMING_PATH + "timing-" + suite.getName().replaceAll("[^A-Za-z0-9_-]+", "_");
+		writeJson(fileName + ".json", suite.getName(), phaseTotals, allEntries, slowestTests, slowestPhases);
+		String report = getReport(suite.getName(), phaseTotals, slowestTests, slowestPhases);
+		writeFile(fileName + ".txt", report);
+		log.info("\n{}", report);
+	}
+
+	private void attachToReports(TimingEntry entry) {
+		String timing = "timing (ms) --> " + entry.phases + ", total: " + entry.getTotal();
+		ChainTestListener.log(timing);
+		Allure.addAttachment("Timing profile", "text/plain", timing);
+	}
+
+	private void writeJson(String fileName, String suiteName, Map<String, Long> phaseTotals,
+			List<TimingEntry> allEntries, List<TimingEntry> slowestTests, List<String[]> slowestPhases) {
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("suite", suiteName);
+		json.put("phaseTotalsMillis", phaseTotals);
+
+		List<Map<String, Object>> tests = new ArrayList<Map<String, Object>>();
+		for (TimingEntry entry : allEntries) {
+			tests.add(entry.toMap());
+		}
+		json.put("entries", tests);
+
+		List<String> testRanking = new ArrayList<String>();
+		for (TimingEntry entry : slowestTests.subList(0, Math.min(RANKING_SIZE, slowestTests.size()))) {
+			testRanking.add(entry.name);
+		}
+		json.put("slowestTests", testRanking);
+
+		List<Map<String, Object>> phaseRanking = new ArrayList<Map<String, Object>>();
+		for (String[] phase : slowestPhases.subList(0, Math.min(RANKING_SIZE, slowestPhases.size()))) {
+			Map<String, Object> item = new LinkedHashMap<String, Object>();
+			item.put("name", phase[0]);
+			item.put("phase", phase[1]);
+			item.put("millis", Long.parseLong(phase[2]));
+			phaseRanking.add(item);
+		}
+		json.put("slowestPhases", phaseRanking);
+
+		writeFile(fileName, new Json().toJson(json));
+	}
+
+	private String getReport(String suiteName, Map<String, Long> phaseTotals, List<TimingEntry> slowestTests,
+			List<String[]> slowestPhases) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("===== Timing profile : ").append(suiteName).append(" =====\n");
+		sb.append("time per phase (ms): ").append(phaseTotals).append('\n');
+		sb.append("slowest tests:\n");
+		for (TimingEntry entry : slowestTests.subList(0, Math.min(RANKING_SIZE, slowestTests.size()))) {
+			sb.append(String.format("  %8d ms  %s %s%n", entry.getTotal(), entry.name, entry.phases));
+		}
+		sb.append("slowest phases:\n");
+		for (String[] phase : slowestPhases.subList(0, Math.min(RANKING_SIZE, slowestPhases.size()))) {
+			sb.append(String.format("  %8s ms  %-10s %s%n", phase[2], phase[1], phase[0]));
+		}
+		return sb.toString();
+	}
+
+	private void writeFile(String fileName, String content) {
+		File file = new File(fileName);
+		file.getParentFile().mkdirs();
+		try {
+			Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			log.warn("could not write the timing file : {}", file, e);
+		}
+	}
+
+	private static String getParameters(ITestResult testResult) {
+		Object[] parameters = testResult.getParameters();
+		return parameters == null || parameters.length == 0 ? "" : Arrays.toString(parameters);
+	}
+
+	private static String getStatus(ITestResult testResult) {
+		switch (testResult.getStatus()) {
+		case ITestResult.SUCCESS:
+			return "pass";
+		case ITestResult.SKIP:
+			return "skip";
+		case ITestResult.FAILURE:
+			return "fail";
+		default:
+			return "unknown";
+		}
+	}
+
+	private static class TimingEntry {
+
+		private final String name;
+		private final String kind;
+		private final Map<String, Long> phases = new LinkedHashMap<String, Long>();
+		private String status;
+
+		private TimingEntry(String name, String kind) {
+			this.name = name;
+			this.kind = kind;
+		}
+
+		private synchronized void add(String phase, long nanos) {
+			phases.merge(phase, nanos / 1_000_000, Long::sum);
+		}
+
+		private synchronized void add(TimingEntry other) {
+			for (Map.Entry<String, Long> phase : other.phases.entrySet()) {
+				phases.merge(phase.getKey(), phase.getValue(), Long::sum);
+			}
+		}
+
+		private synchronized long get(String phase) {
+			return phases.getOrDefault(phase, 0L);
+		}
+
+		private synchronized long getTotal() {
+			long total = 0;
+			for (long millis : phases.values()) {
+				total += millis;
+			}
+			return total;
+		}
+
+		private synchronized Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("name", name);
+			map.put("kind", kind);
+			map.put("status", status);
+			map.put("totalMillis", getTotal());
+			map.put("phasesMillis", new LinkedHashMap<String, Long>(phases));
+			return map;
+		}
+	}
+
+}
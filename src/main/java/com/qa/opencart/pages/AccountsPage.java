@@ -1,23 +1,28 @@
 package com.qa.opencart.pages;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
 
-public class AccountsPage {
+public class AccountsPage implements ReadinessProbe {
 
 	private WebDriver driver;
 	private ElementUtil eleUtil;
 
+	private static final Logger log = LogManager.getLogger(AccountsPage.class);
+
 	public AccountsPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 	}
 
 	private final By headers = By.cssSelector("div#content h2");
@@ -25,15 +30,18 @@ public class AccountsPage {
 	private final By search = By.name("search");
 	private final By searchIcon = By.cssSelector("div#search button");
 
+	@Override
+	public ExpectedCondition<?> readinessProbe() {
+		// the login page has a search field too, the logout link is only here once logged in
+		return ExpectedConditions.and(ExpectedConditions.presenceOfElementLocated(logoutLink),
+				ExpectedConditions.elementToBeClickable(search));
+	}
+
 	public List<String> getAccPageHeaders() {
 
-		List<WebElement> headersList = eleUtil.waitForElementsPresence(headers, AppConstants.DEFAULT_SHORT_WAIT);
-		System.out.println("total number of headers: " + headersList.size());
-		List<String> headersValList = new ArrayList<String>();
-		for (WebElement e : headersList) {
-			String text = e.getText();
-			headersValList.add(text);
-		}
+		eleUtil.waitForElementsPresence(headers, AppConstants.DEFAULT_SHORT_WAIT);
+		List<String> headersValList = eleUtil.getElementsTexts(headers);
+		log.info("total number of headers: {}", headersValList.size());
 		return headersValList;
 	}
 
@@ -43,12 +51,12 @@ public class AccountsPage {
 	}
 
 	public SearchResultsPage doSearch(String searchKey) {
-		System.out.println("search key -->"+ searchKey);
+		log.info("search key -->{}", searchKey);
 		WebElement searchEle = eleUtil.waitForElementVisible(search, AppConstants.DEFAULT_MEDIUM_WAIT);
 		searchEle.clear();
 		searchEle.sendKeys(searchKey);
 		eleUtil.doClick(searchIcon);
-		return new SearchResultsPage(driver);
+		return PageContext.get(driver).getReadyPage(SearchResultsPage.class);
 		
 	}
 
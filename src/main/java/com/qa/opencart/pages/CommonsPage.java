@@ -1,11 +1,9 @@
 package com.qa.opencart.pages;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
@@ -17,7 +15,7 @@ public class CommonsPage {
 
 	public CommonsPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 
 	}
 
@@ -34,13 +32,8 @@ public class CommonsPage {
 	}
 
 	public List<String> footerLinksExist() {
-		List<WebElement> footerList = eleUtil.waitForElementsVisible(footerLinks, AppConstants.DEFAULT_SHORT_WAIT);
-		List<String> footerValueList = new ArrayList<String>();
-		for (WebElement e : footerList) {
-			String text = e.getText();
-			footerValueList.add(text);
-		}
-		return footerValueList;
+		eleUtil.waitForElementsVisible(footerLinks, AppConstants.DEFAULT_SHORT_WAIT);
+		return eleUtil.getElementsTexts(footerLinks);
 	}
 
 }
@@ -5,13 +5,16 @@ import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
+import com.qa.opencart.utils.SessionUtil;
 
 import io.qameta.allure.Step;
 
-public class LoginPage {
+public class LoginPage implements ReadinessProbe {
 
 	private WebDriver driver;
 	private ElementUtil eleUtil;
@@ -32,17 +35,22 @@ public class LoginPage {
 	// public constructor
 	public LoginPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 
 	}
 
+	@Override
+	public ExpectedCondition<?> readinessProbe() {
+		return ExpectedConditions.elementToBeClickable(emailID);
+	}
+
 	// public page methods/actions
 
 	@Step("getting login page title....")
 	public String getLoginPageTitle() {
 		String title = eleUtil.waitForTitleIs(AppConstants.LOGIN_PAGE_TITLE, AppConstants.DEFAULT_SHORT_WAIT);
 		// System.out.println("login page title: "+ title);
-		log.info("login page title: " + title);
+		log.info("login page title: {}", title);
 		return title;
 	}
 
@@ -50,7 +58,7 @@ public class LoginPage {
 	public String getLoginPageURL() {
 		String url = eleUtil.waitForURLContains(AppConstants.LOGIN_PAGE_FRACTION_URL, AppConstants.DEFAULT_SHORT_WAIT);
 		// System.out.println("login page url: "+ url);
-		log.info("login page url : " + url);
+		log.info("login page url : {}", url);
 		return url;
 	}
 
@@ -66,23 +74,50 @@ public class LoginPage {
 
 	@Step("login with correct username: {0} and password: {1}")
 	public AccountsPage doLogin(String appUsername, String appPassword) {
-		log.info("application credentials: " + appUsername + " : " + "*********");
+		log.info("application credentials: {} : *********", appUsername);
 		eleUtil.waitForElementVisible(emailID, AppConstants.DEFAULT_MEDIUM_WAIT).sendKeys(appUsername);
 		eleUtil.doSendKeys(password, appPassword);
 		eleUtil.doClick(loginBtn);
-		return new AccountsPage(driver);
+		return PageContext.get(driver).getReadyPage(AccountsPage.class);
+	}
+
+	@Step("login with cached session for username: {0}")
+	public AccountsPage doLoginWithSession(String appUsername, String appPassword) {
+		if (!SessionUtil.isSessionCacheEnabled()) {
+			return doLogin(appUsername, appPassword);
+		}
+
+		synchronized (SessionUtil.getAccountLock(appUsername)) {
+			if (SessionUtil.restoreSession(driver, appUsername)) {
+				driver.get(driver.getCurrentUrl().replace(AppConstants.LOGIN_PAGE_FRACTION_URL,
+						AppConstants.ACC_PAGE_FRACTION_URL));
+				// the app redirects back to the login page when the session is not valid any more
+				if (driver.getCurrentUrl().contains(AppConstants.ACC_PAGE_FRACTION_URL)) {
+					log.info("logged in with the cached session of : {}", appUsername);
+					return PageContext.get(driver).getReadyPage(AccountsPage.class);
+				}
+				SessionUtil.invalidateSession(appUsername);
+			}
+
+			AccountsPage accPage = doLogin(appUsername, appPassword);
+			String url = eleUtil.waitForURLContains(AppConstants.ACC_PAGE_FRACTION_URL, AppConstants.DEFAULT_MEDIUM_WAIT);
+			if (url.contains(AppConstants.ACC_PAGE_FRACTION_URL)) {
+				SessionUtil.saveSession(driver, appUsername);
+			}
+			return accPage;
+		}
 	}
 
 	@Step("login with in-correct username: {0} and password: {1}")
 	public boolean doLoginWithInvalidCredentails(String invalidUN, String invalidPWD) {
-		log.info("Invalid application credentials: " + invalidUN + " : " + invalidPWD);
+		log.info("Invalid application credentials: {} : {}", invalidUN, invalidPWD);
 		WebElement emailEle = eleUtil.waitForElementVisible(emailID, AppConstants.DEFAULT_MEDIUM_WAIT);
 		emailEle.clear();
 		emailEle.sendKeys(invalidUN);
 		eleUtil.doSendKeys(password, invalidPWD);
 		eleUtil.doClick(loginBtn);
 		String errorMessg = eleUtil.doElementGetText(loginErrorMessg);
-		log.info("invalid creds error messg: " + errorMessg);
+		log.info("invalid creds error messg: {}", errorMessg);
 		if (errorMessg.contains(AppConstants.LOGIN_BLANK_CREDS_MESSG)) {
 			return true;
 		}
@@ -96,7 +131,7 @@ public class LoginPage {
 	public RegisterPage navigateToRegisterPage() {
 		log.info("trying to navigating to register page...");
 		eleUtil.waitForElementVisible(registerLink, AppConstants.DEFAULT_SHORT_WAIT).click();
-		return new RegisterPage(driver);
+		return PageContext.get(driver).getReadyPage(RegisterPage.class);
 	}
 
 }
@@ -0,0 +1,120 @@
+package com.qa.opencart.pages;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.interactions.Actions;
+
+import com.qa.opencart.exceptions.FrameworkException;
+import com.qa.opencart.utils.ElementUtil;
+import com.qa.opencart.utils.JavaScriptUtil;
+import com.qa.opencart.utils.PageReadiness;
+
+/**
+ * per thread and per driver holder of the page helpers (ElementUtil,
+ * JavaScriptUtil, Actions) and of the page objects, they are created lazily
+ * once instead of on every page constructor/navigation call
+ */
+public class PageContext {
+
+	private static final ThreadLocal<PageContext> tlContext = new ThreadLocal<PageContext>();
+
+	private final WebDriver driver;
+	private ElementUtil eleUtil;
+	private JavaScriptUtil jsUtil;
+	private Actions actions;
+	private final Map<Class<?>, Object> pages = new HashMap<Class<?>, Object>();
+
+	private PageContext(WebDriver driver) {
+		this.driver = driver;
+	}
+
+	/**
+	 * this is used to get the page context of the current thread, a new context
+	 * is created when the thread switched to another driver
+	 *
+	 * @param driver
+	 * @return
+	 */
+	public static PageContext get(WebDriver driver) {
+		PageContext context = tlContext.get();
+		if (context == null || context.driver != driver) {
+			context = new PageContext(driver);
+			tlContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * clears the context of the current thread, called when the driver is closed
+	 */
+	public static void remove() {
+		tlContext.remove();
+	}
+
+	public WebDriver getDriver() {
+		return driver;
+	}
+
+	public ElementUtil getElementUtil() {
+		if (eleUtil == null) {
+			eleUtil = new ElementUtil(driver, getJsUtil(), this::getActions);
+		}
+		return eleUtil;
+	}
+
+	public JavaScriptUtil getJsUtil() {
+		if (jsUtil == null) {
+			jsUtil = new JavaScriptUtil(driver);
+		}
+		return jsUtil;
+	}
+
+	public Actions getActions() {
+		if (actions == null) {
+			actions = new Actions(driver);
+		}
+		return actions;
+	}
+
+	/**
+	 * returns the cached page object, the page is created with its
+	 * (WebDriver) constructor on the first call
+	 *
+	 * @param pageClass
+	 * @return
+	 */
+	public <T> T getPage(Class<T> pageClass) {
+		Object page = pages.get(pageClass);
+		if (page == null) {
+			try {
+				page = pageClass.getConstructor(WebDriver.class).newInstance(driver);
+			} catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+					| InvocationTargetException e) {
+				throw new FrameworkException("===CAN NOT CREATE PAGE : " + pageClass.getSimpleName() + "===", e);
+			}
+			pages.put(pageClass, page);
+		}
+		return pageClass.cast(page);
+	}
+
+	/**
+	 * returns the cached page object once the page is usable, to be used right
+	 * after a navigation (eager/none page load strategy, see PageReadiness); the
+	 * elements cached on the previous page are dropped
+	 *
+	 * @param pageClass
+	 * @return
+	 */
+	public <T> T getReadyPage(Class<T> pageClass) {
+		if (eleUtil != null) {
+			eleUtil.invalidateElementCache();
+		}
+		T page = getPage(pageClass);
+		PageReadiness.await(driver, page);
+		return page;
+	}
+
+}
@@ -4,39 +4,52 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
 
-public class ProductInfoPage {
+public class ProductInfoPage implements ReadinessProbe {
 
 	private WebDriver driver;
 	private ElementUtil eleUtil;
 
+	private static final Logger log = LogManager.getLogger(ProductInfoPage.class);
+
 	private Map<String, String> productMap;
 
 	public ProductInfoPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 	}
 
 	private final By header = By.tagName("h1");
+	private final By productForm = By.id("product");
 	private final By productImages = By.cssSelector("ul.thumbnails img");
 	private final By productMetaData = By.xpath("(//div[@id='content']//ul[@class='list-unstyled'])[1]/li");
 	private final By productPriceData = By.xpath("(//div[@id='content']//ul[@class='list-unstyled'])[2]/li");
 
+	@Override
+	public ExpectedCondition<?> readinessProbe() {
+		// the search results have a h1 header too
+		return ExpectedConditions.and(ExpectedConditions.presenceOfElementLocated(productForm),
+				ExpectedConditions.visibilityOfElementLocated(header));
+	}
+
 	public String getProductHeader() {
 		String headerVal = eleUtil.waitForElementVisible(header, AppConstants.DEFAULT_SHORT_WAIT).getText();
-		System.out.println("product header is --->" + headerVal);
+		log.info("product header is --->{}", headerVal);
 		return headerVal;
 	}
 
 	public int getProductImages() {
 		int imagesCount = eleUtil.waitForElementsVisible(productImages, AppConstants.DEFAULT_MEDIUM_WAIT).size();
-		System.out.println("Total number of images : " + imagesCount);
+		log.info("Total number of images : {}", imagesCount);
 		return imagesCount;
 	}
 
@@ -54,7 +67,7 @@ public class ProductInfoPage {
 		getProductMetaData();
 		getProductPriceData();
 		
-		System.out.println("===========Product Data========: \n"+ productMap);
+		log.info("===========Product Data========: \n{}", productMap);
 		return productMap;
 	}
 
@@ -63,11 +76,11 @@ public class ProductInfoPage {
 //	Reward Points: 800
 //	Availability: Out Of Stock
 	private void getProductMetaData() {
-		List<WebElement> metaList = eleUtil.waitForElementsVisible(productMetaData, AppConstants.DEFAULT_SHORT_WAIT);
-		System.out.println("total meta data: " + metaList.size());
+		eleUtil.waitForElementsVisible(productMetaData, AppConstants.DEFAULT_SHORT_WAIT);
+		List<String> metaList = eleUtil.getElementsTexts(productMetaData);
+		log.info("total meta data: {}", metaList.size());
 
-		for (WebElement e : metaList) {
-			String metaData = e.getText();
+		for (String metaData : metaList) {
 			String meta[] = metaData.split(":");
 			String metaKey = meta[0].trim();
 			String metaValue = meta[1].trim();
@@ -79,10 +92,11 @@ public class ProductInfoPage {
 //	$2,000.00
 //	Ex Tax: $2,000.00
 	private void getProductPriceData() {
-		List<WebElement> priceList = eleUtil.waitForElementsVisible(productPriceData, AppConstants.DEFAULT_SHORT_WAIT);
-		System.out.println("total price data: " + priceList.size());// 2
-		String priceValue = priceList.get(0).getText();
-		String exTaxValue = priceList.get(1).getText().split(":")[1].trim();
+		eleUtil.waitForElementsVisible(productPriceData, AppConstants.DEFAULT_SHORT_WAIT);
+		List<String> priceList = eleUtil.getElementsTexts(productPriceData);
+		log.info("total price data: {}", priceList.size());// 2
+		String priceValue = priceList.get(0);
+		String exTaxValue = priceList.get(1).split(":")[1].trim();
 
 		productMap.put("productprice", priceValue);
 		productMap.put("extaxprice", exTaxValue);
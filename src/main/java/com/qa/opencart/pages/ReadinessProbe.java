@@ -0,0 +1,15 @@
+package com.qa.opencart.pages;
+
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * a page object telling when it is usable: with the eager or none page load
+ * strategy the browser returns before all the resources are loaded, the page
+ * is handed to the test once its probe is satisfied (PageReadiness). Pages
+ * without a probe are ready once the document is parsed.
+ */
+public interface ReadinessProbe {
+
+	ExpectedCondition<?> readinessProbe();
+
+}
@@ -1,19 +1,25 @@
 package com.qa.opencart.pages;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
 
-public class RegisterPage {
+public class RegisterPage implements ReadinessProbe {
 
 	private WebDriver driver;
 	private ElementUtil eleUtil;
 
+	private static final Logger log = LogManager.getLogger(RegisterPage.class);
+
 	public RegisterPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 
 	}
 
@@ -35,6 +41,11 @@ public class RegisterPage {
 	private final By logoutLink = By.linkText("Logout");
 	private final By registerLink = By.linkText("Register");
 
+	@Override
+	public ExpectedCondition<?> readinessProbe() {
+		return ExpectedConditions.elementToBeClickable(firstName);
+	}
+
 	public boolean userRegister(String firstName, String lastName, String email, String telephone, String password,
 			String subscribe) {
 
@@ -55,7 +66,7 @@ public class RegisterPage {
 		eleUtil.doClick(continueButton);
 
 		String successMesg = eleUtil.waitForElementVisible(successMessg, AppConstants.DEFAULT_MEDIUM_WAIT).getText();
-		System.out.println(successMesg);
+		log.info("register success message: {}", successMesg);
 
 		if (successMesg.contains(AppConstants.USER_REGISTER_SUCCESS_MESSG)) {
 			eleUtil.doClick(logoutLink);
@@ -1,42 +1,55 @@
 package com.qa.opencart.pages;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.utils.ElementUtil;
 
-public class SearchResultsPage {
+public class SearchResultsPage implements ReadinessProbe {
 
 	private WebDriver driver;
 	private ElementUtil eleUtil;
 
+	private static final Logger log = LogManager.getLogger(SearchResultsPage.class);
+
 	public SearchResultsPage(WebDriver driver) {
 		this.driver = driver;
-		eleUtil = new ElementUtil(driver);
+		eleUtil = PageContext.get(driver).getElementUtil();
 	}
 	
 	private final By searchResults = By.cssSelector("div.product-thumb");
 	private final By resultsHeader = By.cssSelector("div#content h1");
-	
+	private final By noResultsMessg = By.cssSelector("div#content > p");
+
+	@Override
+	public ExpectedCondition<?> readinessProbe() {
+		// a search without results has no product thumb
+		return ExpectedConditions.or(ExpectedConditions.visibilityOfElementLocated(searchResults),
+				ExpectedConditions.presenceOfElementLocated(noResultsMessg));
+	}
 	
 	public int getSearchResultsCount() {
 		int resultCount = 
 				eleUtil.waitForElementsPresence(searchResults, AppConstants.DEFAULT_MEDIUM_WAIT).size();
-		System.out.println("results count --->"+ resultCount);
+		log.info("results count --->{}", resultCount);
 		return resultCount;
 	}
 	
 	public String getResultsHeaderValue() {
 		String header = eleUtil.doElementGetText(resultsHeader);
-		System.out.println("results header --->"+ header);
+		log.info("results header --->{}", header);
 		return header;
 	}
 	
 	public ProductInfoPage selectProduct(String productName) {
-		System.out.println("prduct name--->"+ productName);
+		log.info("prduct name--->{}", productName);
 		eleUtil.doClick(By.linkText(productName));
-		return new ProductInfoPage(driver);
+		return PageContext.get(driver).getReadyPage(ProductInfoPage.class);
 	}
 	
 	
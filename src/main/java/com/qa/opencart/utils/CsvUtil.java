@@ -1,23 +1,35 @@
 package com.qa.opencart.utils;
 
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvValidationException;
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
 
 public class CsvUtil {
-	
-	
+
+
 	private static final String CSV_PATH = "./src/test/resources/testdata/";
 
-	private static List<String[]> rows;
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
 
 	public static Object[][] csvData(String csvName) {
 		String csvFile = CSV_PATH + csvName + ".csv";//./src/test/resources/testdata/register.csv
 
+		List<String[]> rows = null;
 		CSVReader reader;
 		try {
 			reader = new CSVReader(new FileReader(csvFile));
@@ -31,14 +43,85 @@ public class CsvUtil {
 			e.printStackTrace();
 		}
 
-		Object[][] data = new Object[rows.size()][];
+		// readAll gives a LinkedList, get(i) would walk the list for every row
+		return rows.toArray(new Object[rows.size()][]);
+	}
+
+	/**
+	 * streaming mode for the big csv files: the rows are read on demand while
+	 * TestNG iterates the data provider, so the first test starts right away and
+	 * only one row is in memory. The file is closed after the last row.
+	 *
+	 * @param csvName file name under ./src/test/resources/testdata/ without .csv
+	 * @return
+	 */
+	public static Iterator<Object[]> csvIterator(String csvName) {
+		return csvFileIterator(CSV_PATH + csvName + ".csv");
+	}
+
+	public static Iterator<Object[]> csvFileIterator(String csvFile) {
+		try {
+			Reader reader = new BufferedReader(
+					new InputStreamReader(Files.newInputStream(Paths.get(csvFile)), StandardCharsets.UTF_8),
+					READ_BUFFER_SIZE);
+			return new CsvRowIterator(csvFile, new CSVReader(reader));
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.CSV_READ_MESG + " : " + csvFile + " : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * reads one row ahead to answer hasNext(); not thread safe, TestNG pulls the
+	 * rows of a data provider from one thread
+	 */
+	private static class CsvRowIterator implements Iterator<Object[]> {
+
+		private final String csvFile;
+		private final CSVReader reader;
+		private String[] next;
+
+		private CsvRowIterator(String csvFile, CSVReader reader) {
+			this.csvFile = csvFile;
+			this.reader = reader;
+			this.next = readNext();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Object[] next() {
+			if (next == null) {
+				throw new NoSuchElementException(csvFile);
+			}
+			String[] row = next;
+			next = readNext();
+			return row;
+		}
 
-		for (int i = 0; i < rows.size(); i++) {
-			data[i] = rows.get(i);
+		private String[] readNext() {
+			try {
+				String[] row = reader.readNext();
+				if (row == null) {
+					reader.close();
+				}
+				return row;
+			} catch (IOException | CsvValidationException e) {
+				close();
+				throw new FrameworkException(AppError.CSV_READ_MESG + " : " + csvFile + " : " + e.getMessage());
+			}
 		}
 
-		return data;
+		private void close() {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				// already failing
+			}
+		}
 	}
-	
+
 
 }
@@ -0,0 +1,117 @@
+package com.qa.opencart.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+/**
+ * historical run time per test/configuration method ("fully.qualified.Class#method"
+ * in ms), used to balance the shards and to order the methods longest first.
+ * Every run is merged into the history with a moving average so one slow run
+ * does not flip the plan. The file is kept in ./.build-cache/ so that
+ * mvn clean does not wipe it (cache that folder between CI runs); it can be
+ * changed with -Ddurations=path.
+ */
+public class DurationHistory {
+
+	public static final String DEFAULT_PATH = "./.build-cache/test-durations.json";
+
+	// weight of the latest run in the moving average
+	private static final double LATEST_RUN_WEIGHT = 0.5;
+
+	private static final Logger log = LogManager.getLogger(DurationHistory.class);
+
+	public static File getFile() {
+		return new File(System.getProperty("durations", DEFAULT_PATH));
+	}
+
+	/**
+	 * @return the durations (ms) per Class#method, empty when there is no history
+	 *         yet
+	 */
+	public static synchronized Map<String, Long> load() {
+		return read(getFile());
+	}
+
+	private static Map<String, Long> read(File file) {
+		Map<String, Long> durations = new TreeMap<String, Long>();
+		if (!file.exists()) {
+			return durations;
+		}
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			Map<String, Object> json = new Json().toType(reader, Json.MAP_TYPE);
+			for (Map.Entry<String, Object> entry : json.entrySet()) {
+				if (entry.getValue() instanceof Number) {
+					durations.put(entry.getKey(), ((Number) entry.getValue()).longValue());
+				}
+			}
+		} catch (IOException | JsonException e) {
+			log.warn("could not read the duration history : {}", file, e);
+		}
+		return durations;
+	}
+
+	/**
+	 * merges the durations of the last run into the history file. The forks of
+	 * surefire and the parallel shards update the same file: the read-merge-write
+	 * is done under a lock on a side file, and the history is replaced with an
+	 * atomic move so that load() never reads half of it.
+	 *
+	 * @param runDurations ms per Class#method of the last run
+	 */
+	public static synchronized void update(Map<String, Long> runDurations) {
+		File file = getFile().getAbsoluteFile();
+		file.getParentFile().mkdirs();
+		File lockFile = new File(file.getPath() + ".lock");
+		try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+			Map<String, Long> durations = read(file);
+			for (Map.Entry<String, Long> entry : runDurations.entrySet()) {
+				Long previous = durations.get(entry.getKey());
+				long latest = entry.getValue();
+				durations.put(entry.getKey(), previous == null ? latest
+						: Math.round(previous * (1 - LATEST_RUN_WEIGHT) + latest * LATEST_RUN_WEIGHT));
+			}
+
+			File tmp = File.createTempFile("test-durations", ".tmp", file.getParentFile());
+			Files.write(tmp.toPath(), new Json().toJson(durations).getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("could not write the duration history : {}", file, e);
+		}
+	}
+
+	/**
+	 * expected duration of a class: sum of the history of all its methods
+	 * (tests and configuration)
+	 *
+	 * @param durations
+	 * @param className fully qualified class name
+	 * @return -1 when the class has no history
+	 */
+	public static long getClassDuration(Map<String, Long> durations, String className) {
+		long total = -1;
+		String prefix = className + "#";
+		for (Map.Entry<String, Long> entry : durations.entrySet()) {
+			if (entry.getKey().startsWith(prefix)) {
+				total = Math.max(total, 0) + entry.getValue();
+			}
+		}
+		return total;
+	}
+
+}
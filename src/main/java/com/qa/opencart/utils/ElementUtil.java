@@ -1,31 +1,37 @@
 package com.qa.opencart.utils;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoAlertPresentException;
 import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.NoSuchFrameException;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.Wait;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
+import com.qa.opencart.constants.AppConstants;
 import com.qa.opencart.errors.AppError;
 import com.qa.opencart.exceptions.ElementException;
 import com.qa.opencart.exceptions.FrameworkException;
 import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.listeners.Retry;
 import com.qa.opencart.pages.LoginPage;
 
 import io.qameta.allure.Step;
@@ -34,43 +40,85 @@ public class ElementUtil {
 
 	private WebDriver driver;
 	private Actions act;
+	private final Supplier<Actions> actionsSupplier;
 	private JavaScriptUtil jsUtil;
+	private WaitEngine waitEngine;
+
+	private final Map<By, WebElement> elementCache = new ConcurrentHashMap<By, WebElement>();
+	private static final AtomicLong cacheHits = new AtomicLong();
+	private static final AtomicLong cacheMisses = new AtomicLong();
+	private static final AtomicLong cacheStale = new AtomicLong();
 
 	private static final Logger log = LogManager.getLogger(ElementUtil.class);
 
+	// locator of the last lookup/wait of the thread, for the element screenshot of a failure
+	private static final ThreadLocal<By> lastLocator = new ThreadLocal<By>();
+
 	public ElementUtil(WebDriver driver) {
+		this(driver, new JavaScriptUtil(driver), () -> new Actions(driver));
+	}
+
+	/**
+	 * an ElementUtil using the helpers of its page context instead of its own
+	 * ones
+	 * 
+	 * @param driver
+	 * @param jsUtil
+	 * @param actions called once, on the first Actions use
+	 */
+	public ElementUtil(WebDriver driver, JavaScriptUtil jsUtil, Supplier<Actions> actions) {
 		this.driver = driver;
-		act = new Actions(driver);
-		jsUtil = new JavaScriptUtil(driver);
+		this.jsUtil = jsUtil;
+		this.actionsSupplier = actions;
+		waitEngine = WaitEngine.getWaitEngine(driver);
+	}
+
+	private Actions getActions() {
+		if (act == null) {
+			act = actionsSupplier.get();
+		}
+		return act;
 	}
 
 	public void doSendKeys(By locator, String value) {
-		log.info("entering the value : " + value + " into locator: " + locator);
+		if (log.isDebugEnabled()) {
+			log.debug("entering the value : {} into locator: {}", value, locator);
+		}
 		if (value == null) {
-			log.error("value : " + value + " is null...");
+			log.error("value : {} is null...", value);
 			throw new ElementException("===value can not be null====");
 		}
-		WebElement ele = getElement(locator);
-		ele.clear();
-		ele.sendKeys(value);
+		withCachedElement(locator, ele -> {
+			ele.clear();
+			ele.sendKeys(value);
+			return null;
+		});
 	}
 
 	public void doMultipleSendKeys(By locator, CharSequence... value) {
-		getElement(locator).sendKeys(value);
+		withCachedElement(locator, ele -> {
+			ele.sendKeys(value);
+			return null;
+		});
 	}
 
 	public void doClick(By locator) {
-		log.info("clicking on element using : " + locator);
-		getElement(locator).click();
+		if (log.isDebugEnabled()) {
+			log.debug("clicking on element using : {}", locator);
+		}
+		withCachedElement(locator, ele -> {
+			ele.click();
+			return null;
+		});
 	}
 
 	public String doElementGetText(By locator) {
-		return getElement(locator).getText();
+		return withCachedElement(locator, WebElement::getText);
 	}
 
 	public boolean isElementCheck(By locator) {
 		try {
-			return getElement(locator).isDisplayed();
+			return withCachedElement(locator, WebElement::isDisplayed);
 		} catch (NoSuchElementException e) {
 			throw new ElementException("===ELEMENT NOT FOUND===");
 		}
@@ -79,9 +127,9 @@ public class ElementUtil {
 	@Step("checking the element :{0} is displayed on the page.. ")
 	public boolean isElementDisplayed(By locator) {
 		try {
-			return getElement(locator).isDisplayed();
+			return withCachedElement(locator, WebElement::isDisplayed);
 		} catch (NoSuchElementException e) {
-			System.out.println("Element is not displayed on the page: " + locator);
+			log.info("Element is not displayed on the page: {}", locator);
 			return false;
 		}
 	}
@@ -90,7 +138,7 @@ public class ElementUtil {
 		try {
 			return element.isDisplayed();
 		} catch (NoSuchElementException e) {
-			System.out.println("Element is not displayed on the page: " + element);
+			log.info("Element is not displayed on the page: {}", element);
 			return false;
 		}
 	}
@@ -103,49 +151,187 @@ public class ElementUtil {
 	 */
 	public boolean isElementEnabled(By locator) {
 		try {
-			return getElement(locator).isEnabled();
+			return withCachedElement(locator, WebElement::isEnabled);
 		} catch (NoSuchElementException e) {
-			System.out.println("Element is not displayed on the page: " + locator);
+			log.info("Element is not displayed on the page: {}", locator);
 			return false;
 		}
 	}
 
 	public String getElementDOMAttributeValue(By locator, String attrName) {
-		return getElement(locator).getDomAttribute(attrName);
+		return withCachedElement(locator, ele -> ele.getDomAttribute(attrName));
 	}
 
 	public String getElementDOMPropertyValue(By locator, String propName) {
-		return getElement(locator).getDomProperty(propName);
+		return withCachedElement(locator, ele -> ele.getDomProperty(propName));
 	}
 
 	public WebElement getElement(By locator) {
 		WebElement element = null;
+		lastLocator.set(locator);
 		try {
 			element = driver.findElement(locator);
-			log.info("element is found using : " + locator);
-			if (Boolean.parseBoolean(DriverFactory.highlightEle)) {
-				jsUtil.flash(element);
+			if (log.isDebugEnabled()) {
+				log.debug("element is found using : {}", locator);
 			}
+			highlight(element);
 		} catch (Exception e) {
 			FrameworkException fe = new FrameworkException("invalid locator " + " : " + locator);
-			log.info("Element not found using " + locator, fe);
+			log.info("Element not found using {}", locator, fe);
+		}
+		return element;
+	}
+
+	// *******************Element cache utils*************//
+
+	/**
+	 * runs the action on the cached element of the locator (elementcache = true),
+	 * the lookup round trip is skipped when the same locator was already found on
+	 * the current document. A stale element means the document changed: the cache
+	 * is cleared and the action is retried once on a fresh lookup.
+	 * 
+	 * @param locator
+	 * @param action
+	 * @return
+	 */
+	private <T> T withCachedElement(By locator, Function<WebElement, T> action) {
+		if (!isElementCacheEnabled()) {
+			return action.apply(getElement(locator));
+		}
+		try {
+			return action.apply(getCachedElement(locator));
+		} catch (StaleElementReferenceException e) {
+			cacheStale.incrementAndGet();
+			log.info("cached element is stale, document has changed : {}", locator);
+			invalidateElementCache();
+			return action.apply(getCachedElement(locator));
+		}
+	}
+
+	private WebElement getCachedElement(By locator) {
+		WebElement element = elementCache.get(locator);
+		if (element != null) {
+			cacheHits.incrementAndGet();
+			return element;
+		}
+		cacheMisses.incrementAndGet();
+		element = getElement(locator);
+		if (element != null) {
+			elementCache.put(locator, element);
 		}
 		return element;
 	}
 
+	private void cacheElement(By locator, WebElement element) {
+		if (isElementCacheEnabled() && element != null) {
+			elementCache.put(locator, element);
+		}
+	}
+
+	private boolean isElementCacheEnabled() {
+		return Boolean.parseBoolean(DriverFactory.elementCache);
+	}
+
+	/**
+	 * drops all the cached elements, called on every page navigation by
+	 * PageContext.getReadyPage; a navigation which does not go through it is
+	 * caught by the stale element retry
+	 */
+	public void invalidateElementCache() {
+		elementCache.clear();
+	}
+
+	/**
+	 * @return the locator of the last lookup or wait on the current thread, null
+	 *         when there was none since clearLastLocator()
+	 */
+	public static By getLastLocator() {
+		return lastLocator.get();
+	}
+
+	public static void clearLastLocator() {
+		lastLocator.remove();
+	}
+
+	/**
+	 * element cache hit/miss/stale counters of all ElementUtil instances
+	 * 
+	 * @return
+	 */
+	public static String getElementCacheStats() {
+		return "element cache hits: " + cacheHits.get() + ", misses: " + cacheMisses.get() + ", stale: "
+				+ cacheStale.get();
+	}
+
+	public static long getElementCacheHits() {
+		return cacheHits.get();
+	}
+
+	public static long getElementCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	public static long getElementCacheStale() {
+		return cacheStale.get();
+	}
+
+	/**
+	 * highlights the element as per the highlight property: true (every element),
+	 * sample (a share of the elements, see highlightrate) or retry (only while a
+	 * failed test is being re-run by the retry analyzer)
+	 * 
+	 * @param element
+	 */
+	private void highlight(WebElement element) {
+		String mode = DriverFactory.highlightEle;
+		if (mode == null || element == null) {
+			return;
+		}
+		switch (mode.trim().toLowerCase()) {
+		case "true":
+			jsUtil.flash(element);
+			break;
+		case "sample":
+			if (ThreadLocalRandom.current().nextDouble() < getHighlightRate()) {
+				jsUtil.flash(element);
+			}
+			break;
+		case "retry":
+			if (isRetryRun()) {
+				jsUtil.flash(element);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private double getHighlightRate() {
+		String rate = DriverFactory.highlightRate;
+		return rate == null ? AppConstants.DEFAULT_HIGHLIGHT_RATE : Double.parseDouble(rate.trim());
+	}
+
+	private boolean isRetryRun() {
+		ITestResult result = Reporter.getCurrentTestResult();
+		if (result == null) {
+			return false;
+		}
+		IRetryAnalyzer retryAnalyzer = result.getMethod().getRetryAnalyzer(result);
+		return retryAnalyzer instanceof Retry && ((Retry) retryAnalyzer).getRetryCount() > 0;
+	}
+
 	public int getElementsCount(By locator) {
 		return getElements(locator).size();
 	}
 
 	public List<WebElement> getElements(By locator) {
+		lastLocator.set(locator);
 		return driver.findElements(locator);
 	}
 
 	public List<String> getElementsTextList(By locator) {
-		List<WebElement> eleList = getElements(locator);
 		List<String> eleTextList = new ArrayList<String>();// pc=0,vc=10; []
-		for (WebElement e : eleList) {
-			String text = e.getText();
+		for (String text : getElementsTexts(locator)) {
 			if (text.length() != 0) {
 				eleTextList.add(text);
 			}
@@ -153,34 +339,70 @@ public class ElementUtil {
 		return eleTextList;
 	}
 
+	// *******************Batched read utils*************//
+
+	/**
+	 * reads the visible text of all the elements matching the locator with one
+	 * single script execution instead of one getText() call per element
+	 * 
+	 * @param locator
+	 * @return texts in document order, empty text for the hidden elements
+	 */
+	public List<String> getElementsTexts(By locator) {
+		return jsUtil.getElementsValues(locator, "text", null);
+	}
+
+	/**
+	 * reads the given DOM attribute of all the elements matching the locator with
+	 * one single script execution
+	 * 
+	 * @param locator
+	 * @param attrName
+	 * @return
+	 */
+	public List<String> getElementsDOMAttributeValues(By locator, String attrName) {
+		return jsUtil.getElementsValues(locator, "attribute", attrName);
+	}
+
+	/**
+	 * reads the given DOM property of all the elements matching the locator with
+	 * one single script execution
+	 * 
+	 * @param locator
+	 * @param propName
+	 * @return
+	 */
+	public List<String> getElementsDOMPropertyValues(By locator, String propName) {
+		return jsUtil.getElementsValues(locator, "property", propName);
+	}
+
 	public boolean isElementExist(By locator) {
 		if (getElementsCount(locator) == 1) {
-			System.out.println("the element : " + locator + " is present on the page one time");
+			log.info("the element : {} is present on the page one time", locator);
 			return true;
 		} else {
-			System.out.println("the element : " + locator + " is not present on the page");
+			log.info("the element : {} is not present on the page", locator);
 			return false;
 		}
 	}
 
 	public boolean isElementExist(By locator, int expectedEleCount) {
 		if (getElementsCount(locator) == expectedEleCount) {
-			System.out.println("the element : " + locator + " is present on the page " + expectedEleCount + " times");
+			log.info("the element : {} is present on the page {} times", locator, expectedEleCount);
 			return true;
 		} else {
-			System.out
-					.println("the element : " + locator + " is not present on the page " + expectedEleCount + " times");
+			log.info("the element : {} is not present on the page {} times", locator, expectedEleCount);
 			return false;
 		}
 	}
 
 	public void clickElement(By locator, String eleText) {
 		List<WebElement> eleList = getElements(locator);
-		System.out.println("total number of elements: " + eleList.size());
+		log.info("total number of elements: {}", eleList.size());
 
 		for (WebElement e : eleList) {
 			String text = e.getText();
-			System.out.println(text);
+			log.debug("element text: {}", text);
 			if (text.contains(eleText)) {
 				e.click();
 				break;
@@ -188,18 +410,17 @@ public class ElementUtil {
 		}
 	}
 
-	public void doSearch(By searchLocator, String searchKey, By suggestionsLocator, String suggestionValue)
-			throws InterruptedException {
+	public void doSearch(By searchLocator, String searchKey, By suggestionsLocator, String suggestionValue) {
 
 		doSendKeys(searchLocator, searchKey);
-		Thread.sleep(4000);
+		waitForElementVisibleByMutation(suggestionsLocator, AppConstants.DEFAULT_SHORT_WAIT);
 
 		List<WebElement> suggList = getElements(suggestionsLocator);
-		System.out.println("total number of suggestions: " + suggList.size());
+		log.info("total number of suggestions: {}", suggList.size());
 
 		for (WebElement e : suggList) {
 			String text = e.getText();
-			System.out.println(text);
+			log.debug("element text: {}", text);
 			if (text.contains(suggestionValue)) {
 				e.click();
 				break;
@@ -232,7 +453,7 @@ public class ElementUtil {
 	public List<String> getDropDownValuesList(By locator) {
 		Select select = new Select(getElement(locator));
 		List<WebElement> optionsList = select.getOptions();
-		System.out.println("total number of options: " + optionsList.size());
+		log.info("total number of options: {}", optionsList.size());
 
 		List<String> optionsValueList = new ArrayList<String>();// pc=0, size=0, []
 		for (WebElement e : optionsList) {
@@ -245,7 +466,7 @@ public class ElementUtil {
 
 	public void selectDropDownValue(By locator, String value) {
 		List<WebElement> optionsList = getElements(locator);
-		System.out.println(optionsList.size());
+		log.info("total number of options: {}", optionsList.size());
 		for (WebElement e : optionsList) {
 			String text = e.getText();
 			if (text.contains(value)) {
@@ -263,44 +484,43 @@ public class ElementUtil {
 	// ****************Actions utils*****************//
 
 	private void moveToElement(By locator) {
-		act.moveToElement(getElement(locator)).perform();
+		getActions().moveToElement(getElement(locator)).perform();
 	}
 
-	public void menuSubMenuHandlingLevel2(By parentMenu, By childMenu) throws InterruptedException {
+	public void menuSubMenuHandlingLevel2(By parentMenu, By childMenu) {
 		moveToElement(parentMenu);
-		Thread.sleep(2000);
+		waitForElementVisibleByMutation(childMenu, AppConstants.DEFAULT_SHORT_WAIT);
 		doClick(childMenu);
 	}
 
-	public void menuSubMenuHandlingLevel3(By menuLevel1, By menuLevel2, By menuLevel3) throws InterruptedException {
+	public void menuSubMenuHandlingLevel3(By menuLevel1, By menuLevel2, By menuLevel3) {
 		doClick(menuLevel1);
-		Thread.sleep(1000);
+		waitForElementVisibleByMutation(menuLevel2, AppConstants.DEFAULT_SHORT_WAIT);
 		moveToElement(menuLevel2);
-		Thread.sleep(1000);
+		waitForElementVisibleByMutation(menuLevel3, AppConstants.DEFAULT_SHORT_WAIT);
 		doClick(menuLevel3);
 	}
 
-	public void menuSubMenuHandlingLevel4(By menuLevel1, By menuLevel2, By menuLevel3, By menuLevel4, String actionType)
-			throws InterruptedException {
+	public void menuSubMenuHandlingLevel4(By menuLevel1, By menuLevel2, By menuLevel3, By menuLevel4, String actionType) {
 		if (actionType.equalsIgnoreCase("click")) {
 			doClick(menuLevel1);
 		} else if (actionType.equalsIgnoreCase("mousehover")) {
 			moveToElement(menuLevel1);
 		}
-		Thread.sleep(1000);
+		waitForElementVisibleByMutation(menuLevel2, AppConstants.DEFAULT_SHORT_WAIT);
 		moveToElement(menuLevel2);
-		Thread.sleep(1000);
+		waitForElementVisibleByMutation(menuLevel3, AppConstants.DEFAULT_SHORT_WAIT);
 		moveToElement(menuLevel3);
-		Thread.sleep(1000);
+		waitForElementVisibleByMutation(menuLevel4, AppConstants.DEFAULT_SHORT_WAIT);
 		doClick(menuLevel4);
 	}
 
 	public void doActionsSendKeys(By locator, String value) {
-		act.sendKeys(getElement(locator), value).perform();
+		getActions().sendKeys(getElement(locator), value).perform();
 	}
 
 	public void doActionsClick(By locator) {
-		act.click(getElement(locator)).perform();
+		getActions().click(getElement(locator)).perform();
 	}
 
 	public void doSendKeysWithPause(By locator, String value, long pauseTime) {
@@ -311,7 +531,7 @@ public class ElementUtil {
 
 		char val[] = value.toCharArray();
 		for (char ch : val) {
-			act.sendKeys(getElement(locator), String.valueOf(ch)).pause(pauseTime).perform();
+			getActions().sendKeys(getElement(locator), String.valueOf(ch)).pause(pauseTime).perform();
 		}
 
 	}
@@ -324,7 +544,7 @@ public class ElementUtil {
 
 		char val[] = value.toCharArray();
 		for (char ch : val) {
-			act.sendKeys(getElement(locator), String.valueOf(ch)).pause(200).perform();
+			getActions().sendKeys(getElement(locator), String.valueOf(ch)).pause(200).perform();
 		}
 
 	}
@@ -340,11 +560,10 @@ public class ElementUtil {
 	 * @return
 	 */
 	public WebElement waitForElementPresence(By locator, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(locator));
-		if (Boolean.parseBoolean(DriverFactory.highlightEle)) {
-			jsUtil.flash(element);
-		}
+		lastLocator.set(locator);
+		WebElement element = waitEngine.until(ExpectedConditions.presenceOfElementLocated(locator), timeout);
+		cacheElement(locator, element);
+		highlight(element);
 		return element;
 	}
 
@@ -359,12 +578,11 @@ public class ElementUtil {
 	 */
 	@Step("waiting for element :{0} visible within the timeout: {1}")
 	public WebElement waitForElementVisible(By locator, int timeout) {
-		log.info("waiting for element using By locator: " + locator + " within time out: " + timeout);
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-		if (Boolean.parseBoolean(DriverFactory.highlightEle)) {
-			jsUtil.flash(element);
-		}
+		log.info("waiting for element using By locator: {} within time out: {}", locator, timeout);
+		lastLocator.set(locator);
+		WebElement element = waitEngine.until(ExpectedConditions.visibilityOfElementLocated(locator), timeout);
+		cacheElement(locator, element);
+		highlight(element);
 		return element;
 	}
 
@@ -377,8 +595,8 @@ public class ElementUtil {
 	 * @return
 	 */
 	public List<WebElement> waitForElementsPresence(By locator, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		return wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+		lastLocator.set(locator);
+		return waitEngine.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator), timeout);
 
 	}
 
@@ -392,8 +610,8 @@ public class ElementUtil {
 	 * @return
 	 */
 	public List<WebElement> waitForElementsVisible(By locator, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+		lastLocator.set(locator);
+		return waitEngine.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator), timeout);
 	}
 
 	/**
@@ -404,13 +622,11 @@ public class ElementUtil {
 	 * @param timeout
 	 */
 	public void clickElementWhenReady(By locator, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
+		waitEngine.until(ExpectedConditions.elementToBeClickable(locator), timeout).click();
 	}
 
 	public Alert waitForAlert(int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-		return wait.until(ExpectedConditions.alertIsPresent());
+		return waitEngine.until(ExpectedConditions.alertIsPresent(), timeout);
 	}
 
 	public String getAlertText(int timeout) {
@@ -430,12 +646,10 @@ public class ElementUtil {
 	}
 
 	public String waitForTitleContains(String fractionTitleValue, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.titleContains(fractionTitleValue));
+			waitEngine.until(ExpectedConditions.titleContains(fractionTitleValue), timeout);
 		} catch (TimeoutException e) {
-			System.out.println("expected title value : " + fractionTitleValue + " is not present");
+			log.info("expected title value : {} is not present", fractionTitleValue);
 		}
 
 		return driver.getTitle();
@@ -443,12 +657,10 @@ public class ElementUtil {
 
 	@Step("waiting for page title with expected value: {0}")
 	public String waitForTitleIs(String expectedTitleValue, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.titleIs(expectedTitleValue));
+			waitEngine.until(ExpectedConditions.titleIs(expectedTitleValue), timeout);
 		} catch (TimeoutException e) {
-			System.out.println("expected title value : " + expectedTitleValue + " is not present");
+			log.info("expected title value : {} is not present", expectedTitleValue);
 		}
 
 		return driver.getTitle();
@@ -456,48 +668,41 @@ public class ElementUtil {
 
 	@Step("waiting for page url with expected fraction value: {0}")
 	public String waitForURLContains(String fractionURLValue, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.urlContains(fractionURLValue));
+			waitEngine.until(ExpectedConditions.urlContains(fractionURLValue), timeout);
 		} catch (TimeoutException e) {
-			System.out.println("expected URL value : " + fractionURLValue + " is not present");
+			log.info("expected URL value : {} is not present", fractionURLValue);
 		}
 
 		return driver.getCurrentUrl();
 	}
 
 	public String waitForURLIs(String epxectedURLValue, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.urlToBe(epxectedURLValue));
+			waitEngine.until(ExpectedConditions.urlToBe(epxectedURLValue), timeout);
 		} catch (TimeoutException e) {
-			System.out.println("expected URL value : " + epxectedURLValue + " is not present");
+			log.info("expected URL value : {} is not present", epxectedURLValue);
 		}
 
 		return driver.getCurrentUrl();
 	}
 
 	public boolean waitForWindow(int expectedNoOfWindows, int timeout) {
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
 		try {
-			return wait.until(ExpectedConditions.numberOfWindowsToBe(expectedNoOfWindows));
+			return waitEngine.until(ExpectedConditions.numberOfWindowsToBe(expectedNoOfWindows), timeout);
 		} catch (TimeoutException e) {
-			System.out.println("expected number of windows are correct");
+			log.info("expected number of windows are correct");
 			return false;
 		}
 	}
 
 	public boolean waitForFrame(By frameLocator, int timeout) {
 
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
+			waitEngine.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator), timeout);
 			return true;
 		} catch (TimeoutException e) {
-			System.out.println("frame is not present on the page");
+			log.info("frame is not present on the page");
 			return false;
 		}
 
@@ -505,13 +710,11 @@ public class ElementUtil {
 
 	public boolean waitForFrame(int frameIndex, int timeout) {
 
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameIndex));
+			waitEngine.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameIndex), timeout);
 			return true;
 		} catch (TimeoutException e) {
-			System.out.println("frame is not present on the page");
+			log.info("frame is not present on the page");
 			return false;
 		}
 
@@ -519,50 +722,87 @@ public class ElementUtil {
 
 	public boolean waitForFrame(String frameNameOrID, int timeout) {
 
-		WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-
 		try {
-			wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameNameOrID));
+			waitEngine.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameNameOrID), timeout);
 			return true;
 		} catch (TimeoutException e) {
-			System.out.println("frame is not present on the page");
+			log.info("frame is not present on the page");
 			return false;
 		}
 
 	}
 
+	/**
+	 * waits for the element to become visible with one browser side wait (a
+	 * MutationObserver) instead of polling from the test; useful right after an
+	 * action which makes the element appear like typing into a search box with
+	 * suggestions or hovering a menu
+	 * 
+	 * @param locator
+	 * @param timeout
+	 * @return false when the element is not visible within the timeout
+	 */
+	public boolean waitForElementVisibleByMutation(By locator, int timeout) {
+		if (!(locator instanceof By.Remotable)) {
+			try {
+				waitForElementVisible(locator, timeout);
+				return true;
+			} catch (TimeoutException e) {
+				return false;
+			}
+		}
+		boolean visible = jsUtil.waitForElementVisibleByMutation(locator, timeout);
+		if (!visible) {
+			log.warn("element : {} is not visible after {} seconds", locator, timeout);
+		}
+		return visible;
+	}
+
 	// ******************FluentWait Utils************//
 
 	public WebElement waitForElementVisibleWithFluentWait(By locator, int timeout, int pollingtime) {
-		Wait<WebDriver> wait = new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
-				.pollingEvery(Duration.ofMillis(pollingtime)).ignoring(NoSuchElementException.class)
-				.ignoring(StaleElementReferenceException.class).withMessage("=====ELEMENT NOT VISIBLE ON THE PAGE====");
-
-		return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+		return waitEngine.until(ExpectedConditions.visibilityOfElementLocated(locator), timeout, pollingtime,
+				"=====ELEMENT NOT VISIBLE ON THE PAGE====");
 	}
 
 	public WebElement waitForElementPresenceWithFluentWait(By locator, int timeout, int pollingtime) {
-		Wait<WebDriver> wait = new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
-				.pollingEvery(Duration.ofMillis(pollingtime)).ignoring(NoSuchElementException.class)
-				.ignoring(StaleElementReferenceException.class).withMessage("=====ELEMENT NOT PRESENT ON THE PAGE====");
-
-		return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+		return waitEngine.until(ExpectedConditions.presenceOfElementLocated(locator), timeout, pollingtime,
+				"=====ELEMENT NOT PRESENT ON THE PAGE====");
 	}
 
 	public void waitForFrameWithFluentWait(By frameLocator, int timeout, int pollingtime) {
-		Wait<WebDriver> wait = new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
-				.pollingEvery(Duration.ofMillis(pollingtime)).ignoring(NoSuchFrameException.class)
-				.withMessage("=====FRAME NOT VISIBLE ON THE PAGE====");
-
-		wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
+		waitEngine.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator), timeout, pollingtime,
+				"=====FRAME NOT VISIBLE ON THE PAGE====");
 	}
 
 	public Alert waitForAlertWithFluentWait(int timeout, int pollingtime) {
-		Wait<WebDriver> wait = new FluentWait<WebDriver>(driver).withTimeout(Duration.ofSeconds(timeout))
-				.pollingEvery(Duration.ofMillis(pollingtime)).ignoring(NoAlertPresentException.class)
-				.withMessage("=====Alert NOT VISIBLE ON THE PAGE====");
+		return waitEngine.until(ExpectedConditions.alertIsPresent(), timeout, pollingtime,
+				"=====Alert NOT VISIBLE ON THE PAGE====");
+	}
+
+	// ******************Multi condition wait Utils************//
+
+	/**
+	 * waits until all the given conditions are true at the same time
+	 * 
+	 * @param timeout
+	 * @param conditions
+	 * @return
+	 */
+	public boolean waitForAll(int timeout, ExpectedCondition<?>... conditions) {
+		return waitEngine.untilAll(timeout, conditions);
+	}
 
-		return wait.until(ExpectedConditions.alertIsPresent());
+	/**
+	 * waits until one of the given conditions is true, e.g. success or error
+	 * message after a submit
+	 * 
+	 * @param timeout
+	 * @param conditions
+	 * @return index of the condition which was satisfied
+	 */
+	public int waitForAny(int timeout, ExpectedCondition<?>... conditions) {
+		return waitEngine.untilAny(timeout, conditions);
 	}
 
 }
@@ -1,50 +1,289 @@
 package com.qa.opencart.utils;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+
+/**
+ * test data from the excel sheets: the workbook is parsed once with the
+ * streaming (SAX) reader of POI and every sheet is kept as immutable rows (as
+ * displayed in excel, header row excluded). The parsed workbook is cached by
+ * the checksum of the file, so a changed file is parsed again and parallel
+ * data providers share the same rows without any lock after the first load.
+ *
+ * Numeric, date and boolean cells are formatted as excel displays them: a
+ * number cell 987878787777 gives "987878787777" and 123 gives "123", where the
+ * old cell.toString() gave "9.87878787777E11" and "123.0", and a date cell
+ * uses its own format instead of dd-MMM-yyyy. Text cells are unchanged.
+ */
 public class ExcelUtil {
 
 	public static final String TEST_DATA_SHEET_PATH = "./src/test/resources/testdata/OpenCartTestData.xlsx";
-	public static Workbook book;
-	public static Sheet sheet;
+
+	private static final Logger log = LogManager.getLogger(ExcelUtil.class);
+
+	// path@checksum --> sheet name --> rows
+	private static final Map<String, Map<String, List<List<String>>>> workbooks = new ConcurrentHashMap<String, Map<String, List<List<String>>>>();
 
 	public static Object[][] getTestData(String sheetName) {
-		Object data[][] = null;
+		return getTestData(TEST_DATA_SHEET_PATH, sheetName);
+	}
 
+	public static Object[][] getTestData(String path, String sheetName) {
+		List<List<String>> rows = getRows(path, sheetName);
+		Object[][] data = new Object[rows.size()][];
+		for (int i = 0; i < rows.size(); i++) {
+			data[i] = rows.get(i).toArray();
+		}
+		return data;
+	}
+
+	/**
+	 * @param path
+	 * @param sheetName
+	 * @return the data rows of the sheet (immutable, shared by all the callers)
+	 */
+	public static List<List<String>> getRows(String path, String sheetName) {
+		List<List<String>> rows = getWorkbook(path).get(sheetName);
+		if (rows == null) {
+			throw new FrameworkException(AppError.SHEET_NOT_FOUND_MESG + " : " + sheetName + " in " + path);
+		}
+		return rows;
+	}
+
+	/**
+	 * @param path
+	 * @return the data rows of every sheet by sheet name (immutable)
+	 */
+	public static Map<String, List<List<String>>> getWorkbook(String path) {
+		File file = new File(path);
+		String key = file.getAbsolutePath() + "@" + checksum(file);
+		Map<String, List<List<String>>> workbook = workbooks.get(key);
+		if (workbook != null) {
+			return workbook;
+		}
+		// the older versions of the same file are not needed anymore
+		workbooks.keySet().removeIf(cached -> cached.startsWith(file.getAbsolutePath() + "@") && !cached.equals(key));
+		// concurrent callers of the same file wait for one parse
+		return workbooks.computeIfAbsent(key, cached -> parse(file));
+	}
+
+	private static Map<String, List<List<String>>> parse(File file) {
+		long start = System.currentTimeMillis();
+		Map<String, List<List<String>>> workbook = new LinkedHashMap<String, List<List<String>>>();
+		OPCPackage pkg = null;
 		try {
-			FileInputStream ip = new FileInputStream(TEST_DATA_SHEET_PATH);
+			pkg = OPCPackage.open(file.getPath(), PackageAccess.READ);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			XSSFReader reader = new XSSFReader(pkg);
+			StylesTable styles = reader.getStylesTable();
+			DataFormatter formatter = new DataFormatter();
 
-			book = WorkbookFactory.create(ip);
-			sheet = book.getSheet(sheetName);
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					SheetRowHandler handler = new SheetRowHandler(strings, styles, formatter);
+					XMLReader xmlReader = newXMLReader();
+					xmlReader.setContentHandler(handler);
+					xmlReader.parse(new InputSource(sheet));
+					workbook.put(sheets.getSheetName(), handler.getRows());
+				}
+			}
+		} catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+			throw new FrameworkException(AppError.EXCEL_READ_MESG + " : " + file + " : " + e.getMessage());
+		} finally {
+			if (pkg != null) {
+				// read only package, nothing to save
+				pkg.revert();
+			}
+		}
+		log.info("parsed {} sheets of {} in {} ms", workbook.size(), file, System.currentTimeMillis() - start);
+		return Collections.unmodifiableMap(workbook);
+	}
 
-			data = new Object[sheet.getLastRowNum()][sheet.getRow(0).getLastCellNum()];
+	private static XMLReader newXMLReader() throws SAXException, ParserConfigurationException {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newSAXParser().getXMLReader();
+	}
 
-			for (int i = 0; i < sheet.getLastRowNum(); i++) {
+	static String checksum(File file) {
+		CRC32 crc = new CRC32();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.EXCEL_READ_MESG + " : " + file + " : " + e.getMessage());
+		}
+		return Long.toHexString(crc.getValue());
+	}
 
-				for (int j = 0; j < sheet.getRow(0).getLastCellNum(); j++) {
+	/**
+	 * SAX handler of one sheet: the first row is the header and gives the number
+	 * of columns, missing cells are empty strings. Only the cell values are read
+	 * (XSSFSheetXMLHandler of POI 3.9 creates a rich text object for every string
+	 * cell); numbers and dates are formatted as excel displays them.
+	 */
+	private static class SheetRowHandler extends DefaultHandler {
 
-					data[i][j] = sheet.getRow(i + 1).getCell(j).toString();
+		private final ReadOnlySharedStringsTable strings;
+		private final StylesTable styles;
+		private final DataFormatter formatter;
+
+		private final List<List<String>> rows = new ArrayList<List<String>>();
+		private final StringBuilder value = new StringBuilder();
+		private int columns = -1;
+		private String[] row;
+		private int column;
+		private String cellType;
+		private String cellStyle;
+		private boolean inValue;
+
+		private SheetRowHandler(ReadOnlySharedStringsTable strings, StylesTable styles, DataFormatter formatter) {
+			this.strings = strings;
+			this.styles = styles;
+			this.formatter = formatter;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String name, Attributes attributes) {
+			switch (localName) {
+			case "row":
+				row = columns < 0 ? null : new String[columns];
+				break;
+			case "c":
+				column = getColumn(attributes.getValue("r"));
+				cellType = attributes.getValue("t");
+				cellStyle = attributes.getValue("s");
+				value.setLength(0);
+				break;
+			case "v":
+			case "t":
+				// <t> of an inline string (<is><t>..</t></is>)
+				inValue = true;
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (inValue) {
+				value.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String name) {
+			switch (localName) {
+			case "v":
+			case "t":
+				inValue = false;
+				break;
+			case "c":
+				if (row == null) {
+					// header row
+					columns = Math.max(columns, column + 1);
+				} else if (column >= 0 && column < row.length) {
+					row[column] = getCellValue();
+				}
+				break;
+			case "row":
+				if (row != null) {
+					for (int i = 0; i < row.length; i++) {
+						if (row[i] == null) {
+							row[i] = "";
+						}
+					}
+					rows.add(Collections.unmodifiableList(Arrays.asList(row)));
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		private String getCellValue() {
+			String raw = value.toString();
+			if (cellType == null || "n".equals(cellType)) {
+				if (raw.isEmpty()) {
+					return raw;
 				}
+				if (cellStyle == null) {
+					return formatter.formatRawCellContents(Double.parseDouble(raw), 0, "General");
+				}
+				XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+				return formatter.formatRawCellContents(Double.parseDouble(raw), style.getDataFormat(),
+						style.getDataFormatString());
+			}
+			switch (cellType) {
+			case "s":
+				return strings.getEntryAt(Integer.parseInt(raw));
+			case "b":
+				return "1".equals(raw) ? "TRUE" : "FALSE";
+			default:
+				// inlineStr, str (formula result), e (error)
+				return raw;
 			}
+		}
 
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (InvalidFormatException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
+		/**
+		 * column index of a reference like "AB12", without the regex parsing of
+		 * CellReference (called for every cell)
+		 */
+		private int getColumn(String cellReference) {
+			if (cellReference == null) {
+				return column + 1;
+			}
+			int index = 0;
+			for (int i = 0; i < cellReference.length(); i++) {
+				char c = cellReference.charAt(i);
+				if (c < 'A' || c > 'Z') {
+					break;
+				}
+				index = index * 26 + (c - 'A' + 1);
+			}
+			return index - 1;
 		}
 
-		
-		return data;
-		
+		private List<List<String>> getRows() {
+			return Collections.unmodifiableList(rows);
+		}
 	}
 
 }
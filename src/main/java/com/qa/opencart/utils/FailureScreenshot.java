@@ -0,0 +1,127 @@
+package com.qa.opencart.utils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.utils.ScreenshotUtil.Screenshot;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+
+/**
+ * one screenshot per failed test, shared by all the reports: the first
+ * reporter (BaseTest for ChainTest or TestAllureListener for Allure) takes it
+ * and keeps it on the ITestResult, the other one reuses it.
+ *
+ * The screenshot is kept as base64 (see ScreenshotUtil for the modes):
+ * ChainTest embeds the base64 as it is, the Allure attachment is registered on
+ * the test thread and decoded/written to allure-results by a background
+ * writer. The writer queue is bounded, when it is full the test thread writes
+ * itself so a burst of failures can not pile up screenshots in memory.
+ */
+public class FailureScreenshot {
+
+	private static final String SCREENSHOT_ATTRIBUTE = "failureScreenshot";
+	// marks a failed capture so the second reporter does not try again
+	private static final Object NO_SCREENSHOT = new Object();
+
+	private static final Logger log = LogManager.getLogger(FailureScreenshot.class);
+
+	private static final ThreadPoolExecutor writer = createWriter();
+	private static final AtomicInteger pendingWrites = new AtomicInteger();
+
+	/**
+	 * @param result failed test
+	 * @param driver driver of the test thread
+	 * @return the screenshot of the failure in the configured mode
+	 *         (ScreenshotUtil), taken on the first call; null when there is no
+	 *         driver or the browser is gone
+	 */
+	public static Screenshot get(ITestResult result, WebDriver driver) {
+		synchronized (result) {
+			Object screenshot = result.getAttribute(SCREENSHOT_ATTRIBUTE);
+			if (screenshot == null && driver instanceof TakesScreenshot) {
+				try {
+					screenshot = ScreenshotUtil.capture(driver);
+				} catch (WebDriverException e) {
+					log.warn("could not take the failure screenshot of {}", result.getName(), e);
+					screenshot = NO_SCREENSHOT;
+				}
+				result.setAttribute(SCREENSHOT_ATTRIBUTE, screenshot);
+			}
+			return screenshot instanceof Screenshot ? (Screenshot) screenshot : null;
+		}
+	}
+
+	public static void attachToChainTest(ITestResult result, WebDriver driver) {
+		Screenshot screenshot = get(result, driver);
+		if (screenshot != null) {
+			ChainTestListener.embed(screenshot.getBase64(), screenshot.getMediaType());
+		}
+	}
+
+	public static void attachToAllure(ITestResult result, WebDriver driver) {
+		Screenshot screenshot = get(result, driver);
+		if (screenshot == null) {
+			return;
+		}
+		AllureLifecycle lifecycle = Allure.getLifecycle();
+		// the attachment is added to the running test here, only the file is written later
+		String source = lifecycle.prepareAttachment("Page screenshot", screenshot.getMediaType(),
+				screenshot.getExtension());
+		pendingWrites.incrementAndGet();
+		writer.execute(() -> {
+			try {
+				lifecycle.writeAttachment(source,
+						new ByteArrayInputStream(Base64.getDecoder().decode(screenshot.getBase64())));
+			} finally {
+				pendingWrites.decrementAndGet();
+			}
+		});
+	}
+
+	/**
+	 * waits for the queued screenshots, call it before the reports are generated
+	 *
+	 * @param timeoutSeconds
+	 */
+	public static void awaitWrites(long timeoutSeconds) {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+		while (pendingWrites.get() > 0) {
+			if (System.currentTimeMillis() > deadline) {
+				log.warn("{} screenshots are still being written", pendingWrites.get());
+				return;
+			}
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static ThreadPoolExecutor createWriter() {
+		AtomicInteger count = new AtomicInteger();
+		return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(AppConstants.SCREENSHOT_WRITE_QUEUE_SIZE), runnable -> {
+					Thread thread = new Thread(runnable, "screenshot-writer-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+}
@@ -0,0 +1,289 @@
+package com.qa.opencart.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.openqa.selenium.json.Json;
+
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+
+/**
+ * the http traffic of one test class in HAR 1.2 format (the format of the
+ * browser DevTools, so a recording can be opened there), with an index keyed
+ * by method, url and a hash of the request body for the replay. A key
+ * recorded several times (e.g. the account page before and after the login)
+ * keeps all its responses in the recorded order.
+ */
+public class HarArchive {
+
+	private static final String NO_BODY = "-";
+
+	private final String name;
+	private final List<HarEntry> entries = new ArrayList<HarEntry>();
+	private final Map<String, List<HarEntry>> index = new HashMap<String, List<HarEntry>>();
+
+	public HarArchive(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized void add(HarEntry entry) {
+		entries.add(entry);
+		index.computeIfAbsent(entry.getKey(), k -> new ArrayList<HarEntry>()).add(entry);
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @param key see key(method, url, body)
+	 * @return the recorded responses of the request, in the recorded order
+	 */
+	public synchronized List<HarEntry> find(String key) {
+		List<HarEntry> found = index.get(key);
+		return found == null ? Collections.<HarEntry>emptyList() : new ArrayList<HarEntry>(found);
+	}
+
+	/**
+	 * @param method
+	 * @param url
+	 * @param body   request body, may be empty
+	 * @return method url sha-256 of the body
+	 */
+	public static String key(String method, String url, byte[] body) {
+		return method.toUpperCase(Locale.ROOT) + " " + url + " " + hash(body);
+	}
+
+	private static String hash(byte[] body) {
+		if (body == null || body.length == 0) {
+			return NO_BODY;
+		}
+		try {
+			StringBuilder hex = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-256").digest(body)) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * writes the archive through a temp file, a reader never sees half of it
+	 *
+	 * @param file
+	 */
+	public synchronized void write(File file) {
+		List<Object> harEntries = new ArrayList<Object>();
+		for (HarEntry entry : entries) {
+			harEntries.add(entry.toHar());
+		}
+		Map<String, Object> creator = new LinkedHashMap<String, Object>();
+		creator.put("name", "OpenCartUIAutomation");
+		creator.put("version", "1.0");
+		Map<String, Object> log = new LinkedHashMap<String, Object>();
+		log.put("version", "1.2");
+		log.put("creator", creator);
+		log.put("entries", harEntries);
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		parent.mkdirs();
+		try {
+			File tmp = File.createTempFile(name, ".tmp", parent);
+			try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+				writer.write(new Json().toJson(Map.of("log", log)));
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new FrameworkException(AppError.HAR_MESG + " : " + file + " : " + e.getMessage());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public static HarArchive read(String name, File file) {
+		HarArchive archive = new HarArchive(name);
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			Map<String, Object> har = new Json().toType(reader, Json.MAP_TYPE);
+			Map<String, Object> log = (Map<String, Object>) har.get("log");
+			for (Object entry : (List<Object>) log.get("entries")) {
+				archive.add(HarEntry.fromHar((Map<String, Object>) entry));
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new FrameworkException(AppError.HAR_MESG + " : " + file + " : " + e.getMessage());
+		}
+		return archive;
+	}
+
+	/**
+	 * one request with its response
+	 */
+	public static class HarEntry {
+
+		private final String method;
+		private final String url;
+		private final byte[] requestBody;
+		private final int status;
+		private final List<String[]> responseHeaders;
+		private final byte[] responseBody;
+		private final long startedMillis;
+		private final long timeMillis;
+
+		/**
+		 * @param timeMillis time the network took to answer
+		 */
+		public HarEntry(String method, String url, byte[] requestBody, int status, List<String[]> responseHeaders,
+				byte[] responseBody, long startedMillis, long timeMillis) {
+			this.method = method.toUpperCase(Locale.ROOT);
+			this.url = url;
+			this.requestBody = requestBody == null ? new byte[0] : requestBody;
+			this.status = status;
+			this.responseHeaders = responseHeaders;
+			this.responseBody = responseBody == null ? new byte[0] : responseBody;
+			this.startedMillis = startedMillis;
+			this.timeMillis = timeMillis;
+		}
+
+		public String getKey() {
+			return key(method, url, requestBody);
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public List<String[]> getResponseHeaders() {
+			return responseHeaders;
+		}
+
+		public byte[] getResponseBody() {
+			return responseBody;
+		}
+
+		public long getTimeMillis() {
+			return timeMillis;
+		}
+
+		private String getMimeType() {
+			for (String[] header : responseHeaders) {
+				if ("content-type".equalsIgnoreCase(header[0])) {
+					return header[1];
+				}
+			}
+			return "application/octet-stream";
+		}
+
+		private static boolean isText(String mimeType) {
+			String type = mimeType.toLowerCase(Locale.ROOT);
+			return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+					|| type.contains("xml");
+		}
+
+		private Map<String, Object> toHar() {
+			Map<String, Object> request = new LinkedHashMap<String, Object>();
+			request.put("method", method);
+			request.put("url", url);
+			request.put("httpVersion", "HTTP/1.1");
+			request.put("cookies", List.of());
+			request.put("headers", List.of());
+			request.put("queryString", List.of());
+			if (requestBody.length > 0) {
+				Map<String, Object> postData = new LinkedHashMap<String, Object>();
+				postData.put("mimeType", "application/x-www-form-urlencoded");
+				postData.put("text", new String(requestBody, StandardCharsets.UTF_8));
+				request.put("postData", postData);
+			}
+			request.put("headersSize", -1);
+			request.put("bodySize", requestBody.length);
+
+			List<Object> headers = new ArrayList<Object>();
+			for (String[] header : responseHeaders) {
+				headers.add(Map.of("name", header[0], "value", header[1]));
+			}
+			String mimeType = getMimeType();
+			Map<String, Object> content = new LinkedHashMap<String, Object>();
+			content.put("size", responseBody.length);
+			content.put("mimeType", mimeType);
+			if (isText(mimeType)) {
+				content.put("text", new String(responseBody, StandardCharsets.UTF_8));
+			} else {
+				content.put("text", Base64.getEncoder().encodeToString(responseBody));
+				content.put("encoding", "base64");
+			}
+			Map<String, Object> response = new LinkedHashMap<String, Object>();
+			response.put("status", status);
+			response.put("statusText", "");
+			response.put("httpVersion", "HTTP/1.1");
+			response.put("cookies", List.of());
+			response.put("headers", headers);
+			response.put("content", content);
+			response.put("redirectURL", "");
+			response.put("headersSize", -1);
+			response.put("bodySize", responseBody.length);
+
+			Map<String, Object> entry = new LinkedHashMap<String, Object>();
+			entry.put("startedDateTime", Instant.ofEpochMilli(startedMillis).toString());
+			entry.put("time", timeMillis);
+			entry.put("request", request);
+			entry.put("response", response);
+			entry.put("cache", Map.of());
+			entry.put("timings", Map.of("send", 0, "wait", timeMillis, "receive", 0));
+			return entry;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static HarEntry fromHar(Map<String, Object> entry) {
+			Map<String, Object> request = (Map<String, Object>) entry.get("request");
+			Map<String, Object> response = (Map<String, Object>) entry.get("response");
+			Map<String, Object> postData = (Map<String, Object>) request.get("postData");
+			byte[] requestBody = postData == null ? new byte[0]
+					: String.valueOf(postData.get("text")).getBytes(StandardCharsets.UTF_8);
+
+			List<String[]> headers = new ArrayList<String[]>();
+			for (Object header : (List<Object>) response.get("headers")) {
+				Map<String, Object> nameValue = (Map<String, Object>) header;
+				headers.add(new String[] { String.valueOf(nameValue.get("name")), String.valueOf(nameValue.get("value")) });
+			}
+			Map<String, Object> content = (Map<String, Object>) response.get("content");
+			String text = content.get("text") == null ? "" : String.valueOf(content.get("text"));
+			byte[] responseBody = "base64".equals(content.get("encoding")) ? Base64.getDecoder().decode(text)
+					: text.getBytes(StandardCharsets.UTF_8);
+
+			return new HarEntry(String.valueOf(request.get("method")), String.valueOf(request.get("url")), requestBody,
+					((Number) response.get("status")).intValue(), headers, responseBody,
+					Instant.parse(String.valueOf(entry.get("startedDateTime"))).toEpochMilli(),
+					((Number) entry.get("time")).longValue());
+		}
+	}
+
+}
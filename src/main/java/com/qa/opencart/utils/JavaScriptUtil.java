@@ -1,9 +1,16 @@
 package com.qa.opencart.utils;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import com.qa.opencart.constants.AppConstants;
+
 /**
  * 
  * @author naveenautomationlabs
@@ -14,24 +21,116 @@ public class JavaScriptUtil {
 	private WebDriver driver;
 	private JavascriptExecutor js;
 
+	// finds the elements for a W3C locator strategy inside the page
+	private static final String FIND_ELEMENTS_SCRIPT = "function findElements(using, value) {"
+			+ " if (using === 'css selector') { return Array.prototype.slice.call(document.querySelectorAll(value)); }"
+			+ " if (using === 'tag name') { return Array.prototype.slice.call(document.getElementsByTagName(value)); }"
+			+ " if (using === 'link text' || using === 'partial link text') {"
+			+ "  return Array.prototype.filter.call(document.links, function(e) { var t = (e.innerText || '').trim();"
+			+ "   return using === 'link text' ? t === value : t.indexOf(value) >= 0; }); }"
+			+ " var found = [], snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+			+ " for (var i = 0; i < snapshot.snapshotLength; i++) { found.push(snapshot.snapshotItem(i)); }"
+			+ " return found; }";
+
+	// reads text/attribute/property of every element, text is empty for elements which are not rendered
+	private static final String READ_VALUES_SCRIPT = "function readValues(elements, mode, name) {"
+			+ " return elements.map(function(e) {"
+			+ "  if (mode === 'text') { return e.getClientRects().length === 0 ? '' : (e.innerText || '').trim(); }"
+			+ "  if (mode === 'attribute') { return e.getAttribute(name); }"
+			+ "  return e[name] === undefined || e[name] === null ? null : String(e[name]); }); }";
+
 	public JavaScriptUtil(WebDriver driver) {
 		this.driver = driver;
 		js = (JavascriptExecutor) driver;
 	}
 
+	// resolves the async script callback with true once a matching element is visible, false on timeout
+	private static final String WAIT_FOR_VISIBLE_SCRIPT = " var using = arguments[0], value = arguments[1],"
+			+ " timeoutMs = arguments[2], callback = arguments[arguments.length - 1];"
+			+ " function isVisible(e) { var rect = e.getBoundingClientRect(), style = window.getComputedStyle(e);"
+			+ "  return rect.width > 0 && rect.height > 0 && style.visibility !== 'hidden' && style.display !== 'none'; }"
+			+ " function ready() { return findElements(using, value).some(isVisible); }"
+			+ " if (ready()) { callback(true); return; }"
+			+ " var finished = false, frame, timer, observer;"
+			+ " function finish(result) { if (finished) { return; } finished = true; observer.disconnect();"
+			+ "  cancelAnimationFrame(frame); clearTimeout(timer); callback(result); }"
+			+ " observer = new MutationObserver(function() { if (ready()) { finish(true); } });"
+			+ " observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+			+ " (function check() { if (ready()) { finish(true); return; } frame = requestAnimationFrame(check); })();"
+			+ " timer = setTimeout(function() { finish(false); }, timeoutMs);";
+
+	// blinks a green overlay over the element 7 times with a css animation, the browser runs it so the test thread
+	// does not wait. The overlay is a qa-flash element on the root (no div/body locator matches it), the element
+	// itself is not touched: its class and style stay as they are for locators, assertions and mutation waits.
+	private static final String FLASH_SCRIPT = "var e = arguments[0], rect = e.getBoundingClientRect();"
+			+ " if (!document.getElementById('qa-flash-style')) {"
+			+ "  var style = document.createElement('style'); style.id = 'qa-flash-style';"
+			+ "  style.textContent = '@keyframes qa-flash { 50% { background-color: rgba(0,200,0,0.6); } }'"
+			+ "   + ' qa-flash { display: block; position: absolute; z-index: 2147483647; pointer-events: none;'"
+			+ "   + ' animation: qa-flash 40ms linear 7; }';"
+			+ "  (document.head || document.documentElement).appendChild(style); }"
+			+ " var overlay = document.createElement('qa-flash');"
+			+ " overlay.style.cssText = 'left: ' + (rect.left + window.scrollX) + 'px; top: ' + (rect.top + window.scrollY)"
+			+ "  + 'px; width: ' + rect.width + 'px; height: ' + rect.height + 'px;';"
+			+ " function done() { if (overlay.parentNode) { overlay.parentNode.removeChild(overlay); } }"
+			+ " overlay.addEventListener('animationend', done); setTimeout(done, 1000);"
+			+ " document.documentElement.appendChild(overlay);";
+
 	public void flash(WebElement element) {
-		String bgcolor = element.getCssValue("backgroundColor");//grey
-		for (int i = 0; i < 7; i++) {
-			changeColor("rgb(0,200,0)", element);// green
-			changeColor(bgcolor, element);// grey
+		js.executeScript(FLASH_SCRIPT, element);
+	}
+
+	/**
+	 * reads text, attribute or property values of all the elements matching the
+	 * locator in a single round trip. Locators which can not be resolved inside the
+	 * page (e.g. ByChained) are found first and passed to the script.
+	 * 
+	 * @param locator
+	 * @param mode    text, attribute or property
+	 * @param name    attribute/property name, ignored for text
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public List<String> getElementsValues(By locator, String mode, String name) {
+		Object values;
+		if (locator instanceof By.Remotable) {
+			By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+			values = js.executeScript(FIND_ELEMENTS_SCRIPT + READ_VALUES_SCRIPT
+					+ " return readValues(findElements(arguments[0], arguments[1]), arguments[2], arguments[3]);",
+					params.using(), String.valueOf(params.value()), mode, name);
+		} else {
+			values = js.executeScript(READ_VALUES_SCRIPT + " return readValues(arguments[0], arguments[1], arguments[2]);",
+					driver.findElements(locator), mode, name);
+		}
+		return values == null ? new ArrayList<String>() : (List<String>) values;
+	}
+
+	/**
+	 * waits inside the browser until an element matching the locator is visible.
+	 * A MutationObserver resolves as soon as the DOM changes bring the element in,
+	 * and a per frame check covers css only changes like :hover sub menus. There is
+	 * only one round trip, no polling from the test side.
+	 * 
+	 * @param locator
+	 * @param timeout in seconds
+	 * @return false when the element did not show up within the timeout
+	 */
+	public boolean waitForElementVisibleByMutation(By locator, int timeout) {
+		By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+		// a longer wait needs a longer script timeout, only for this script
+		Duration previousTimeout = null;
+		if (timeout >= AppConstants.DEFAULT_SCRIPT_TIMEOUT) {
+			previousTimeout = driver.manage().timeouts().getScriptTimeout();
+			driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(timeout + 1));
 		}
-	}
-
-	private void changeColor(String color, WebElement element) {
-		js.executeScript("arguments[0].style.backgroundColor = '" + color + "'", element);
 		try {
-			Thread.sleep(20);
-		} catch (InterruptedException e) {
+			Object visible = js.executeAsyncScript(FIND_ELEMENTS_SCRIPT + WAIT_FOR_VISIBLE_SCRIPT, params.using(),
+					String.valueOf(params.value()), timeout * 1000);
+			return Boolean.TRUE.equals(visible);
+		} finally {
+			if (previousTimeout != null) {
+				driver.manage().timeouts().scriptTimeout(previousTimeout);
+			}
 		}
 	}
 
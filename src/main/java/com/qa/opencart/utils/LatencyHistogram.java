@@ -0,0 +1,120 @@
+package com.qa.opencart.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HDR style latency histogram in microseconds: values below 128 us have their
+ * own bucket, above that every power of two is split into 64 linear buckets (max
+ * 1.6% error), up to ~19 hours. Recording is lock free and allocation free, so
+ * it can be called on every WebDriver command.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 64;
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+	private static final int BUCKETS = LINEAR_LIMIT + 30 * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalMicros = new AtomicLong();
+	private final AtomicLong maxMicros = new AtomicLong();
+
+	public void recordNanos(long nanos) {
+		record(Math.max(0, nanos / 1000));
+	}
+
+	public void record(long micros) {
+		counts.incrementAndGet(getBucket(micros));
+		totalCount.incrementAndGet();
+		totalMicros.addAndGet(micros);
+		maxMicros.accumulateAndGet(micros, Math::max);
+	}
+
+	/**
+	 * adds all the values of the other histogram to this one
+	 *
+	 * @param other
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = other.counts.get(i);
+			if (count > 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+		totalCount.addAndGet(other.totalCount.get());
+		totalMicros.addAndGet(other.totalMicros.get());
+		maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	public long getTotalMicros() {
+		return totalMicros.get();
+	}
+
+	public long getMaxMicros() {
+		return maxMicros.get();
+	}
+
+	public long getMeanMicros() {
+		long count = totalCount.get();
+		return count == 0 ? 0 : totalMicros.get() / count;
+	}
+
+	/**
+	 * value at the given percentile (0-100), the upper bound of its bucket and
+	 * never above the recorded max
+	 *
+	 * @param percentile
+	 * @return
+	 */
+	public long getPercentileMicros(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(i), maxMicros.get());
+			}
+		}
+		return maxMicros.get();
+	}
+
+	static int getBucket(long micros) {
+		if (micros < LINEAR_LIMIT) {
+			return (int) micros;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(micros) - 6;
+		int index = LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((micros >> shift) - SUB_BUCKETS);
+		return Math.min(index, BUCKETS - 1);
+	}
+
+	static long getBucketUpperBound(int bucket) {
+		if (bucket < LINEAR_LIMIT) {
+			return bucket;
+		}
+		int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "count: " + getCount() + ", p50: " + format(getPercentileMicros(50)) + ", p90: "
+				+ format(getPercentileMicros(90)) + ", p99: " + format(getPercentileMicros(99)) + ", max: "
+				+ format(getMaxMicros()) + ", total: " + format(getTotalMicros());
+	}
+
+	private static String format(long micros) {
+		return micros < 1000 ? micros + " us" : String.format("%.1f ms", micros / 1000.0);
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.qa.opencart.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.pages.ReadinessProbe;
+
+/**
+ * application level page readiness for the eager and none page load
+ * strategies (pageloadstrategy = eager | none): after a navigation the page
+ * object is handed over once its ReadinessProbe is satisfied, instead of once
+ * every image, font and script of the page is loaded. With the normal strategy
+ * the browser already waited for the load event and nothing is done here.
+ *
+ * Time saved per navigation: when a page is ready its time since the start of
+ * the navigation is taken from the browser (performance.now()), and a load
+ * listener keeps the time of the load event in the sessionStorage; it is read
+ * back on the next readiness check, so the saved time is load - ready of the
+ * previous page, measured by the browser itself.
+ */
+public class PageReadiness {
+
+	private static final String READY_SCRIPT = "var page = arguments[0];"
+			+ "var ready = performance.now();"
+			+ "var previous = sessionStorage.getItem('ocPageReadiness');"
+			+ "sessionStorage.removeItem('ocPageReadiness');"
+			+ "if (window.ocPageReady) { return [ready, -1, previous, false]; }"
+			+ "window.ocPageReady = true;"
+			+ "var nav = performance.getEntriesByType('navigation')[0];"
+			+ "if (document.readyState === 'complete' && nav && nav.loadEventEnd > 0) {"
+			+ "  return [ready, nav.loadEventEnd, previous, true]; }"
+			+ "window.addEventListener('load', function() {"
+			+ "  sessionStorage.setItem('ocPageReadiness', page + '|' + ready + '|' + performance.now()); });"
+			+ "return [ready, -1, previous, true];";
+
+	// pages without a probe: the document is parsed (what eager waits for)
+	private static final ExpectedCondition<Boolean> DOCUMENT_PARSED = new ExpectedCondition<Boolean>() {
+		@Override
+		public Boolean apply(WebDriver driver) {
+			return !"loading".equals(((JavascriptExecutor) driver).executeScript("return document.readyState;"));
+		}
+
+		@Override
+		public String toString() {
+			return "document parsed";
+		}
+	};
+
+	private static final Map<String, ReadinessStats> metrics = new ConcurrentHashMap<String, ReadinessStats>();
+
+	private static final Logger log = LogManager.getLogger(PageReadiness.class);
+
+	public static boolean isEnabled() {
+		String strategy = DriverFactory.pageLoadStrategy;
+		return strategy != null && !"normal".equalsIgnoreCase(strategy.trim());
+	}
+
+	/**
+	 * waits until the page object is usable, a no-op with the normal page load
+	 * strategy. A probe which is not satisfied in time is logged only: the page
+	 * methods still wait for their own elements.
+	 *
+	 * @param driver
+	 * @param page
+	 */
+	public static void await(WebDriver driver, Object page) {
+		if (!isEnabled()) {
+			return;
+		}
+		String pageName = page.getClass().getSimpleName();
+		ExpectedCondition<?> probe = page instanceof ReadinessProbe ? ((ReadinessProbe) page).readinessProbe()
+				: DOCUMENT_PARSED;
+		try {
+			WaitEngine.getWaitEngine(driver).until(probe, AppConstants.DEFAULT_MEDIUM_WAIT);
+		} catch (TimeoutException e) {
+			log.warn("{} is not ready after {} seconds : {}", pageName, AppConstants.DEFAULT_MEDIUM_WAIT, probe);
+			return;
+		}
+		record(driver, pageName);
+	}
+
+	private static void record(WebDriver driver, String pageName) {
+		List<?> timing;
+		try {
+			timing = (List<?>) ((JavascriptExecutor) driver).executeScript(READY_SCRIPT, pageName);
+		} catch (WebDriverException | ClassCastException e) {
+			log.debug("no navigation timing for {}", pageName, e);
+			return;
+		}
+		if (timing == null || timing.size() < 4) {
+			return;
+		}
+		double ready = ((Number) timing.get(0)).doubleValue();
+		double load = ((Number) timing.get(1)).doubleValue();
+		if (timing.get(2) != null) {
+			// load event of the previous page, after this check had returned it
+			String[] previous = String.valueOf(timing.get(2)).split("\\|");
+			if (previous.length == 3) {
+				getStats(previous[0]).addLoad(Double.parseDouble(previous[1]), Double.parseDouble(previous[2]));
+			}
+		}
+		if (Boolean.TRUE.equals(timing.get(3))) {
+			getStats(pageName).addReady(ready);
+			log.info("{} ready {} ms after the navigation started", pageName, Math.round(ready));
+			if (load >= 0) {
+				getStats(pageName).addLoad(ready, load);
+			}
+		}
+	}
+
+	private static ReadinessStats getStats(String pageName) {
+		return metrics.computeIfAbsent(pageName, k -> new ReadinessStats());
+	}
+
+	/**
+	 * readiness and saved time per page object for the whole run
+	 *
+	 * @return
+	 */
+	public static Map<String, ReadinessStats> getMetrics() {
+		return new TreeMap<String, ReadinessStats>(metrics);
+	}
+
+	public static List<String> getMetricsSummary() {
+		List<String> summary = new ArrayList<String>();
+		for (Map.Entry<String, ReadinessStats> entry : getMetrics().entrySet()) {
+			summary.add(entry.getKey() + " --> " + entry.getValue());
+		}
+		return summary;
+	}
+
+	public static void resetMetrics() {
+		metrics.clear();
+	}
+
+	public static class ReadinessStats {
+
+		private long navigations;
+		private double totalReadyMillis;
+		private long loads;
+		private double totalLoadMillis;
+		private double totalSavedMillis;
+
+		private synchronized void addReady(double readyMillis) {
+			navigations++;
+			totalReadyMillis += readyMillis;
+		}
+
+		private synchronized void addLoad(double readyMillis, double loadMillis) {
+			loads++;
+			totalLoadMillis += loadMillis;
+			totalSavedMillis += Math.max(0, loadMillis - readyMillis);
+		}
+
+		public synchronized long getNavigations() {
+			return navigations;
+		}
+
+		public synchronized long getAverageReadyMillis() {
+			return navigations == 0 ? 0 : Math.round(totalReadyMillis / navigations);
+		}
+
+		public synchronized long getAverageLoadMillis() {
+			return loads == 0 ? 0 : Math.round(totalLoadMillis / loads);
+		}
+
+		/**
+		 * @return load event - ready time, averaged over the navigations whose
+		 *         load event was seen
+		 */
+		public synchronized long getAverageSavedMillis() {
+			return loads == 0 ? 0 : Math.round(totalSavedMillis / loads);
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "navigations: " + navigations + ", avg ready: " + getAverageReadyMillis() + " ms, avg load: "
+					+ getAverageLoadMillis() + " ms, avg saved: " + getAverageSavedMillis() + " ms per navigation ("
+					+ loads + " load events seen)";
+		}
+	}
+
+}
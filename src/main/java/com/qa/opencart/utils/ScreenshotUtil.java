@@ -0,0 +1,199 @@
+package com.qa.opencart.utils;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.factory.DriverFactory;
+
+/**
+ * screenshot in the mode of the config properties:
+ *
+ * screenshotmode = full | element : element takes only the element of the last
+ * locator ElementUtil used on the thread (the full page when it is not there)
+ *
+ * screenshotscale = 0.5 : downscale, 1 keeps the browser size
+ *
+ * screenshotformat = png | jpeg | webp : webp needs an ImageIO webp plugin on
+ * the classpath, jpeg is written without it
+ *
+ * screenshotquality = 0.7 : jpeg/webp quality from 0 to 1
+ *
+ * png at scale 1 is the browser image as it is, nothing is decoded.
+ */
+public class ScreenshotUtil {
+
+	private static final Logger log = LogManager.getLogger(ScreenshotUtil.class);
+
+	public static Screenshot capture(WebDriver driver) {
+		return capture(driver, DriverFactory.screenshotMode, getScale(), getFormat(), getQuality());
+	}
+
+	/**
+	 * @param driver
+	 * @param mode    full or element
+	 * @param scale   0..1
+	 * @param format  png, jpeg or webp
+	 * @param quality 0..1 for jpeg/webp
+	 * @return
+	 */
+	public static Screenshot capture(WebDriver driver, String mode, double scale, String format, float quality) {
+		String base64 = null;
+		if ("element".equalsIgnoreCase(mode)) {
+			base64 = captureElement(driver);
+		}
+		if (base64 == null) {
+			base64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+		}
+		if (scale >= 1 && "png".equals(format)) {
+			return new Screenshot(base64, "image/png", "png");
+		}
+
+		try {
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+			if (scale < 1) {
+				image = scale(image, scale);
+			}
+			if ("png".equals(format)) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				ImageIO.write(image, "png", out);
+				return new Screenshot(Base64.getEncoder().encodeToString(out.toByteArray()), "image/png", "png");
+			}
+			String writerFormat = "webp".equals(format) && ImageIO.getImageWritersByFormatName("webp").hasNext()
+					? "webp"
+					: "jpeg";
+			byte[] bytes = encode(toRgb(image), writerFormat, quality);
+			return new Screenshot(Base64.getEncoder().encodeToString(bytes), "image/" + writerFormat,
+					"webp".equals(writerFormat) ? "webp" : "jpg");
+		} catch (IOException | RuntimeException e) {
+			log.warn("could not convert the screenshot to {} at scale {}, the browser png is kept", format, scale, e);
+			return new Screenshot(base64, "image/png", "png");
+		}
+	}
+
+	private static String captureElement(WebDriver driver) {
+		By locator = ElementUtil.getLastLocator();
+		if (locator == null) {
+			return null;
+		}
+		try {
+			return driver.findElement(locator).getScreenshotAs(OutputType.BASE64);
+		} catch (WebDriverException e) {
+			// the failing element is not on the page, the full page tells more
+			log.info("no element screenshot for {}, taking the full page", locator);
+			return null;
+		}
+	}
+
+	private static BufferedImage scale(BufferedImage image, double scale) {
+		int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+		int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+		BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.drawImage(image, 0, 0, width, height, null);
+		graphics.dispose();
+		return scaled;
+	}
+
+	// jpeg has no alpha channel
+	private static BufferedImage toRgb(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			return image;
+		}
+		BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = rgb.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+		return rgb;
+	}
+
+	private static byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+		ImageWriter writer = writers.next();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(ios);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				if (param.getCompressionType() == null) {
+					param.setCompressionType(param.getCompressionTypes()[0]);
+				}
+				param.setCompressionQuality(quality);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+	private static double getScale() {
+		String scale = DriverFactory.screenshotScale;
+		return scale == null ? 1 : Math.min(1, Double.parseDouble(scale.trim()));
+	}
+
+	private static String getFormat() {
+		String format = DriverFactory.screenshotFormat;
+		if (format == null) {
+			return "png";
+		}
+		format = format.trim().toLowerCase();
+		return "jpg".equals(format) ? "jpeg" : format;
+	}
+
+	private static float getQuality() {
+		String quality = DriverFactory.screenshotQuality;
+		return quality == null ? AppConstants.DEFAULT_SCREENSHOT_QUALITY : Float.parseFloat(quality.trim());
+	}
+
+	/**
+	 * base64 image with its media type, as embedded in the reports
+	 */
+	public static class Screenshot {
+
+		private final String base64;
+		private final String mediaType;
+		private final String extension;
+
+		private Screenshot(String base64, String mediaType, String extension) {
+			this.base64 = base64;
+			this.mediaType = mediaType;
+			this.extension = extension;
+		}
+
+		public String getBase64() {
+			return base64;
+		}
+
+		public String getMediaType() {
+			return mediaType;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+package com.qa.opencart.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.factory.DriverFactory;
+
+/**
+ * caches the authenticated state (cookies + local storage) of an account after
+ * one real login, so that the next browsers can start already logged in. The
+ * snapshot is kept in memory and on disk with a TTL, keyed by the environment,
+ * the application host and the account: a session of qa is never injected
+ * into stage. The snapshots hold auth cookies: the directory and the files
+ * are readable by the owner only.
+ */
+public class SessionUtil {
+
+	// out of target/ so that mvn clean keeps the sessions within their TTL
+	private static final String SESSION_PATH = "./.build-cache/sessions/";
+
+	private static final Map<String, SessionSnapshot> sessions = new ConcurrentHashMap<String, SessionSnapshot>();
+	private static final Map<String, Object> accountLocks = new ConcurrentHashMap<String, Object>();
+
+	private static final Logger log = LogManager.getLogger(SessionUtil.class);
+
+	public static boolean isSessionCacheEnabled() {
+		return Boolean.parseBoolean(DriverFactory.sessionCache);
+	}
+
+	/**
+	 * lock per account, used so that parallel classes do only one real login for
+	 * the same account
+	 *
+	 * @param username
+	 * @return
+	 */
+	public static Object getAccountLock(String username) {
+		return accountLocks.computeIfAbsent(username, key -> new Object());
+	}
+
+	/**
+	 * injects the cached cookies and local storage into the driver. The driver
+	 * has to be on the application domain already (the login page).
+	 *
+	 * @param driver
+	 * @param username
+	 * @return false when there is no valid snapshot for the account
+	 */
+	public static boolean restoreSession(WebDriver driver, String username) {
+		SessionSnapshot snapshot = getSnapshot(getSessionKey(username));
+		if (snapshot == null) {
+			return false;
+		}
+
+		for (Cookie cookie : snapshot.cookies) {
+			try {
+				driver.manage().addCookie(cookie);
+			} catch (WebDriverException e) {
+				// domain cookies (.host) are rejected by some drivers, retry as host-only
+				driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), cookie.getPath(),
+						cookie.getExpiry()));
+			}
+		}
+		if (!snapshot.localStorage.isEmpty()) {
+			((JavascriptExecutor) driver).executeScript(
+					"var items = arguments[0]; for (var key in items) { window.localStorage.setItem(key, items[key]); }",
+					snapshot.localStorage);
+		}
+		log.info("session restored for {} with {} cookies", username, snapshot.cookies.size());
+		return true;
+	}
+
+	/**
+	 * captures cookies and local storage of the logged in driver
+	 *
+	 * @param driver
+	 * @param username
+	 */
+	@SuppressWarnings("unchecked")
+	public static void saveSession(WebDriver driver, String username) {
+		Object storage = ((JavascriptExecutor) driver).executeScript("var items = {};"
+				+ " for (var i = 0; i < window.localStorage.length; i++) {"
+				+ " var key = window.localStorage.key(i); items[key] = window.localStorage.getItem(key); }"
+				+ " return items;");
+
+		SessionSnapshot snapshot = new SessionSnapshot();
+		snapshot.cookies = new HashSet<Cookie>(driver.manage().getCookies());
+		snapshot.localStorage = storage instanceof Map ? new HashMap<String, String>((Map<String, String>) storage)
+				: new HashMap<String, String>();
+		snapshot.createdAt = System.currentTimeMillis();
+
+		String key = getSessionKey(username);
+		sessions.put(key, snapshot);
+		writeSnapshot(key, snapshot);
+		log.info("session saved for {} with {} cookies", username, snapshot.cookies.size());
+	}
+
+	/**
+	 * removes the snapshot of the account, used when the app does not accept the
+	 * injected session any more
+	 *
+	 * @param username
+	 */
+	public static void invalidateSession(String username) {
+		log.info("cached session expired for {}", username);
+		removeSnapshot(getSessionKey(username));
+	}
+
+	// env name, host:port of the application url and username
+	private static String getSessionKey(String username) {
+		String env = System.getProperty("env", "qa").trim().toLowerCase();
+		String host = DriverFactory.appUrl;
+		if (host != null) {
+			try {
+				String authority = URI.create(host.trim()).getAuthority();
+				host = authority == null ? host.trim() : authority.toLowerCase();
+			} catch (IllegalArgumentException e) {
+				host = host.trim();
+			}
+		}
+		return env + " " + host + " " + username;
+	}
+
+	private static void removeSnapshot(String key) {
+		sessions.remove(key);
+		getSessionFile(key).delete();
+	}
+
+	private static SessionSnapshot getSnapshot(String key) {
+		SessionSnapshot snapshot = sessions.get(key);
+		if (snapshot == null) {
+			snapshot = readSnapshot(key);
+			if (snapshot != null) {
+				sessions.put(key, snapshot);
+			}
+		}
+		if (snapshot != null && snapshot.isExpired(getSessionTTLMillis())) {
+			log.info("cached session expired for {}", key);
+			removeSnapshot(key);
+			return null;
+		}
+		return snapshot;
+	}
+
+	private static long getSessionTTLMillis() {
+		String ttl = DriverFactory.sessionTTL;
+		int minutes = ttl == null ? AppConstants.DEFAULT_SESSION_TTL : Integer.parseInt(ttl.trim());
+		return minutes * 60 * 1000L;
+	}
+
+	private static SessionSnapshot readSnapshot(String key) {
+		File file = getSessionFile(key);
+		if (!file.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+			return (SessionSnapshot) in.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			log.warn("could not read the session snapshot : {}", file, e);
+			return null;
+		}
+	}
+
+	private static void writeSnapshot(String key, SessionSnapshot snapshot) {
+		File file = getSessionFile(key);
+		try {
+			File dir = file.getParentFile();
+			dir.mkdirs();
+			restrictToOwner(dir.toPath(), true);
+			// the temp file is restricted before the cookies are written into it
+			Path tmp = Files.createTempFile(dir.toPath(), "session", ".tmp");
+			restrictToOwner(tmp, false);
+			try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tmp))) {
+				out.writeObject(snapshot);
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("could not write the session snapshot : {}", file, e);
+		}
+	}
+
+	private static void restrictToOwner(Path path, boolean directory) throws IOException {
+		if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			Files.setPosixFilePermissions(path,
+					PosixFilePermissions.fromString(directory ? "rwx------" : "rw-------"));
+			return;
+		}
+		File file = path.toFile();
+		file.setReadable(false, false);
+		file.setReadable(true, true);
+		file.setWritable(false, false);
+		file.setWritable(true, true);
+		if (directory) {
+			file.setExecutable(false, false);
+			file.setExecutable(true, true);
+		}
+	}
+
+	private static File getSessionFile(String key) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			StringBuilder name = new StringBuilder();
+			for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+				name.append(String.format("%02x", b));
+			}
+			return new File(SESSION_PATH + name + ".session");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class SessionSnapshot implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Set<Cookie> cookies;
+		private Map<String, String> localStorage;
+		private long createdAt;
+
+		private boolean isExpired(long ttlMillis) {
+			long now = System.currentTimeMillis();
+			if (now - createdAt > ttlMillis) {
+				return true;
+			}
+			for (Cookie cookie : cookies) {
+				Date expiry = cookie.getExpiry();
+				if (expiry != null && expiry.getTime() < now) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.qa.opencart.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * splits units (test classes or methods) with an expected duration into K
+ * shards of about the same total time: longest unit first, always into the
+ * shard with the smallest total (LPT). The plan is deterministic for the same
+ * history, so every machine/fork computes the same split.
+ */
+public class ShardPlanner {
+
+	private final List<List<String>> shards = new ArrayList<List<String>>();
+	private final long[] loads;
+
+	private ShardPlanner(int total) {
+		loads = new long[total];
+		for (int i = 0; i < total; i++) {
+			shards.add(new ArrayList<String>());
+		}
+	}
+
+	/**
+	 * @param unitDurations expected ms per unit, units without history should get
+	 *                      an estimate before (see {@link #withEstimates})
+	 * @param total         number of shards
+	 * @return
+	 */
+	public static ShardPlanner plan(Map<String, Long> unitDurations, int total) {
+		if (total < 1) {
+			throw new IllegalArgumentException("shard total must be at least 1 : " + total);
+		}
+		List<Map.Entry<String, Long>> units = new ArrayList<Map.Entry<String, Long>>(unitDurations.entrySet());
+		// longest first, name as tie breaker to keep the plan stable
+		units.sort(Comparator.comparing((Map.Entry<String, Long> unit) -> unit.getValue()).reversed()
+				.thenComparing(Map.Entry::getKey));
+
+		ShardPlanner planner = new ShardPlanner(total);
+		for (Map.Entry<String, Long> unit : units) {
+			int lightest = 0;
+			for (int i = 1; i < total; i++) {
+				if (planner.loads[i] < planner.loads[lightest]) {
+					lightest = i;
+				}
+			}
+			planner.shards.get(lightest).add(unit.getKey());
+			planner.loads[lightest] += unit.getValue();
+		}
+		return planner;
+	}
+
+	/**
+	 * fills the units without history (negative duration) with the median of the
+	 * known ones, or the default when nothing is known yet
+	 *
+	 * @param unitDurations
+	 * @param defaultDuration
+	 * @return
+	 */
+	public static Map<String, Long> withEstimates(Map<String, Long> unitDurations, long defaultDuration) {
+		List<Long> known = new ArrayList<Long>();
+		for (long duration : unitDurations.values()) {
+			if (duration >= 0) {
+				known.add(duration);
+			}
+		}
+		Collections.sort(known);
+		long estimate = known.isEmpty() ? defaultDuration : known.get(known.size() / 2);
+
+		Map<String, Long> estimated = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, Long> entry : unitDurations.entrySet()) {
+			estimated.put(entry.getKey(), entry.getValue() >= 0 ? entry.getValue() : estimate);
+		}
+		return estimated;
+	}
+
+	public List<String> getShard(int index) {
+		return Collections.unmodifiableList(shards.get(index));
+	}
+
+	public long getLoad(int index) {
+		return loads[index];
+	}
+
+	public int getTotal() {
+		return loads.length;
+	}
+
+	/**
+	 * expected duration of the slowest shard
+	 *
+	 * @return
+	 */
+	public long getMakespan() {
+		long max = 0;
+		for (long load : loads) {
+			max = Math.max(max, load);
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < loads.length; i++) {
+			sb.append("shard ").append(i).append(" --> ").append(loads[i]).append(" ms ").append(shards.get(i))
+					.append('\n');
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,343 @@
+package com.qa.opencart.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.qa.opencart.errors.AppError;
+import com.qa.opencart.exceptions.FrameworkException;
+import com.qa.opencart.utils.TestDataTable.ColumnType;
+
+/**
+ * all the test data files (.xlsx and .csv) of ./src/test/resources/testdata in
+ * one place: the first run parses them (ExcelUtil, CsvUtil) and writes a
+ * compact binary snapshot to ./.build-cache/testdata.snapshot (or
+ * -Dtestdata.snapshot=path), where mvn clean does not wipe it; the next runs
+ * load the snapshot as long as the checksums of the source files are
+ * unchanged, so POI is not on the critical path anymore.
+ *
+ * Tables are served by name: the sheet name for excel ("product") and the
+ * file name for csv ("register.csv").
+ */
+public class TestDataRepository {
+
+	public static final String TEST_DATA_PATH = "./src/test/resources/testdata/";
+	public static final String DEFAULT_SNAPSHOT_PATH = "./.build-cache/testdata.snapshot";
+
+	private static final int MAGIC = 0x4F435444;// OCTD
+	private static final int VERSION = 1;
+
+	private static final Logger log = LogManager.getLogger(TestDataRepository.class);
+
+	private static TestDataRepository defaultRepository;
+
+	private final File sourceDir;
+	private final File snapshotFile;
+	private Map<String, TestDataTable> tables;
+	private boolean snapshotReused;
+
+	public TestDataRepository(File sourceDir, File snapshotFile) {
+		this.sourceDir = sourceDir;
+		this.snapshotFile = snapshotFile;
+	}
+
+	public static synchronized TestDataRepository getDefault() {
+		if (defaultRepository == null) {
+			defaultRepository = new TestDataRepository(new File(TEST_DATA_PATH),
+					new File(System.getProperty("testdata.snapshot", DEFAULT_SNAPSHOT_PATH)));
+		}
+		return defaultRepository;
+	}
+
+	/**
+	 * @param name sheet name or csv file name
+	 * @return the rows as text for a data provider
+	 */
+	public static Object[][] getTestData(String name) {
+		return getDefault().getTable(name).getTestData();
+	}
+
+	public TestDataTable getTable(String name) {
+		TestDataTable table = getTables().get(name);
+		if (table == null) {
+			throw new FrameworkException(AppError.TEST_DATA_NOT_FOUND_MESG + " : " + name + " in " + sourceDir);
+		}
+		return table;
+	}
+
+	public synchronized Map<String, TestDataTable> getTables() {
+		if (tables == null) {
+			tables = load();
+		}
+		return tables;
+	}
+
+	/**
+	 * @return true when the tables came from the snapshot of a previous run
+	 */
+	public synchronized boolean isSnapshotReused() {
+		getTables();
+		return snapshotReused;
+	}
+
+	private Map<String, TestDataTable> load() {
+		long start = System.currentTimeMillis();
+		Map<String, String> checksums = getSourceChecksums();
+		if (snapshotFile.exists()) {
+			try {
+				Map<String, TestDataTable> snapshot = readSnapshot(checksums);
+				if (snapshot != null) {
+					snapshotReused = true;
+					log.info("loaded {} test data tables from {} in {} ms", snapshot.size(), snapshotFile,
+							System.currentTimeMillis() - start);
+					return snapshot;
+				}
+			} catch (IOException | RuntimeException e) {
+				log.warn("could not read the test data snapshot, it is compiled again : {}", snapshotFile, e);
+			}
+		}
+
+		Map<String, TestDataTable> compiled = compile(checksums.keySet());
+		writeSnapshot(checksums, compiled);
+		log.info("compiled {} test data tables of {} into {} in {} ms", compiled.size(), sourceDir, snapshotFile,
+				System.currentTimeMillis() - start);
+		return compiled;
+	}
+
+	/**
+	 * @return file name --> checksum of the .xlsx and .csv files, sorted by name
+	 */
+	private Map<String, String> getSourceChecksums() {
+		File[] files = sourceDir.listFiles((dir, fileName) -> !fileName.startsWith("~$")
+				&& (fileName.endsWith(".xlsx") || fileName.endsWith(".csv")));
+		if (files == null) {
+			throw new FrameworkException(AppError.TEST_DATA_NOT_FOUND_MESG + " : " + sourceDir);
+		}
+		Arrays.sort(files);
+		Map<String, String> checksums = new LinkedHashMap<String, String>();
+		for (File file : files) {
+			checksums.put(file.getName(), ExcelUtil.checksum(file));
+		}
+		return checksums;
+	}
+
+	private Map<String, TestDataTable> compile(Iterable<String> fileNames) {
+		Map<String, TestDataTable> compiled = new LinkedHashMap<String, TestDataTable>();
+		for (String fileName : fileNames) {
+			File file = new File(sourceDir, fileName);
+			if (fileName.endsWith(".xlsx")) {
+				for (Map.Entry<String, List<List<String>>> sheet : ExcelUtil.getWorkbook(file.getPath()).entrySet()) {
+					compiled.put(sheet.getKey(), toTable(sheet.getKey(), sheet.getValue()));
+				}
+			} else {
+				List<List<String>> rows = new ArrayList<List<String>>();
+				for (Iterator<Object[]> it = CsvUtil.csvFileIterator(file.getPath()); it.hasNext();) {
+					rows.add(Arrays.asList((String[]) it.next()));
+				}
+				compiled.put(fileName, toTable(fileName, rows));
+			}
+		}
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	private TestDataTable toTable(String name, List<List<String>> textRows) {
+		int columns = 0;
+		for (List<String> row : textRows) {
+			columns = Math.max(columns, row.size());
+		}
+		List<ColumnType> types = new ArrayList<ColumnType>();
+		for (int j = 0; j < columns; j++) {
+			List<String> values = new ArrayList<String>();
+			for (List<String> row : textRows) {
+				if (j < row.size()) {
+					values.add(row.get(j));
+				}
+			}
+			types.add(TestDataTable.detectType(values));
+		}
+		List<List<Object>> rows = new ArrayList<List<Object>>();
+		for (List<String> textRow : textRows) {
+			Object[] row = new Object[textRow.size()];
+			for (int j = 0; j < row.length; j++) {
+				row[j] = TestDataTable.toValue(textRow.get(j), types.get(j));
+			}
+			rows.add(Collections.unmodifiableList(Arrays.asList(row)));
+		}
+		return new TestDataTable(name, types, rows);
+	}
+
+	/**
+	 * layout: magic, version, the source files with their checksums, then per
+	 * table: name, column types, the strings of the table once (dictionary) and
+	 * the rows (long/double/boolean values, dictionary index for strings)
+	 */
+	private void writeSnapshot(Map<String, String> checksums, Map<String, TestDataTable> compiled) {
+		File parent = snapshotFile.getAbsoluteFile().getParentFile();
+		parent.mkdirs();
+		try {
+			File tmp = File.createTempFile("testdata", ".tmp", parent);
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(checksums.size());
+				for (Map.Entry<String, String> entry : checksums.entrySet()) {
+					writeString(out, entry.getKey());
+					writeString(out, entry.getValue());
+				}
+				out.writeInt(compiled.size());
+				for (TestDataTable table : compiled.values()) {
+					writeTable(out, table);
+				}
+			}
+			// a parallel fork reads either the old or the new snapshot, never half of it
+			Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("could not write the test data snapshot : {}", snapshotFile, e);
+		}
+	}
+
+	private void writeTable(DataOutputStream out, TestDataTable table) throws IOException {
+		writeString(out, table.getName());
+		List<ColumnType> types = table.getColumnTypes();
+		out.writeInt(types.size());
+		for (ColumnType type : types) {
+			out.writeByte(type.ordinal());
+		}
+
+		Map<String, Integer> dictionary = new LinkedHashMap<String, Integer>();
+		for (int i = 0; i < table.getRowCount(); i++) {
+			for (int j = 0; j < table.getRow(i).size(); j++) {
+				if (types.get(j) == ColumnType.STRING) {
+					dictionary.putIfAbsent((String) table.getRow(i).get(j), dictionary.size());
+				}
+			}
+		}
+		out.writeInt(dictionary.size());
+		for (String value : dictionary.keySet()) {
+			writeString(out, value);
+		}
+
+		out.writeInt(table.getRowCount());
+		for (int i = 0; i < table.getRowCount(); i++) {
+			List<Object> row = table.getRow(i);
+			out.writeInt(row.size());
+			for (int j = 0; j < row.size(); j++) {
+				switch (types.get(j)) {
+				case LONG:
+					out.writeLong((Long) row.get(j));
+					break;
+				case DOUBLE:
+					out.writeDouble((Double) row.get(j));
+					break;
+				case BOOLEAN:
+					out.writeBoolean((Boolean) row.get(j));
+					break;
+				default:
+					out.writeInt(dictionary.get(row.get(j)));
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the tables, or null when the snapshot was compiled from other
+	 *         source files
+	 */
+	private Map<String, TestDataTable> readSnapshot(Map<String, String> checksums) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(snapshotFile.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			int sourceCount = in.readInt();
+			Map<String, String> snapshotChecksums = new LinkedHashMap<String, String>();
+			for (int i = 0; i < sourceCount; i++) {
+				snapshotChecksums.put(readString(in), readString(in));
+			}
+			if (!snapshotChecksums.equals(checksums)) {
+				log.info("test data changed since the last snapshot : {}", sourceDir);
+				return null;
+			}
+
+			int tableCount = in.readInt();
+			Map<String, TestDataTable> snapshot = new LinkedHashMap<String, TestDataTable>();
+			for (int i = 0; i < tableCount; i++) {
+				TestDataTable table = readTable(in);
+				snapshot.put(table.getName(), table);
+			}
+			return Collections.unmodifiableMap(snapshot);
+		}
+	}
+
+	private TestDataTable readTable(DataInputStream in) throws IOException {
+		String name = readString(in);
+		ColumnType[] allTypes = ColumnType.values();
+		List<ColumnType> types = new ArrayList<ColumnType>();
+		int columns = in.readInt();
+		for (int j = 0; j < columns; j++) {
+			types.add(allTypes[in.readByte()]);
+		}
+
+		String[] dictionary = new String[in.readInt()];
+		for (int k = 0; k < dictionary.length; k++) {
+			dictionary[k] = readString(in);
+		}
+
+		int rowCount = in.readInt();
+		List<List<Object>> rows = new ArrayList<List<Object>>(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			Object[] row = new Object[in.readInt()];
+			for (int j = 0; j < row.length; j++) {
+				switch (types.get(j)) {
+				case LONG:
+					row[j] = in.readLong();
+					break;
+				case DOUBLE:
+					row[j] = in.readDouble();
+					break;
+				case BOOLEAN:
+					row[j] = in.readBoolean();
+					break;
+				default:
+					row[j] = dictionary[in.readInt()];
+					break;
+				}
+			}
+			rows.add(Collections.unmodifiableList(Arrays.asList(row)));
+		}
+		return new TestDataTable(name, types, rows);
+	}
+
+	// writeUTF is limited to 64 KB
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.qa.opencart.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * one sheet or csv file of the TestDataRepository: immutable rows with a type
+ * per column. A column gets a type only when every value of it converts both
+ * ways without change (e.g. "0123" stays a STRING), so getTestData() always
+ * gives back the text of the source file.
+ */
+public class TestDataTable {
+
+	public enum ColumnType {
+		STRING, LONG, DOUBLE, BOOLEAN
+	}
+
+	private final String name;
+	private final List<ColumnType> columnTypes;
+	private final List<List<Object>> rows;
+
+	TestDataTable(String name, List<ColumnType> columnTypes, List<List<Object>> rows) {
+		this.name = name;
+		this.columnTypes = Collections.unmodifiableList(columnTypes);
+		this.rows = Collections.unmodifiableList(rows);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<ColumnType> getColumnTypes() {
+		return columnTypes;
+	}
+
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	/**
+	 * @param row
+	 * @return the typed values of the row (String, Long, Double or Boolean)
+	 */
+	public List<Object> getRow(int row) {
+		return rows.get(row);
+	}
+
+	public String getString(int row, int column) {
+		return String.valueOf(rows.get(row).get(column));
+	}
+
+	public long getLong(int row, int column) {
+		return (Long) rows.get(row).get(column);
+	}
+
+	public double getDouble(int row, int column) {
+		return ((Number) rows.get(row).get(column)).doubleValue();
+	}
+
+	public boolean getBoolean(int row, int column) {
+		return (Boolean) rows.get(row).get(column);
+	}
+
+	/**
+	 * @return all the rows as text, the data provider format of ExcelUtil and
+	 *         CsvUtil
+	 */
+	public Object[][] getTestData() {
+		Object[][] data = new Object[rows.size()][];
+		for (int i = 0; i < rows.size(); i++) {
+			List<Object> row = rows.get(i);
+			data[i] = new Object[row.size()];
+			for (int j = 0; j < row.size(); j++) {
+				data[i][j] = String.valueOf(row.get(j));
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * @param values all the values of one column
+	 * @return the narrowest type every value converts to and back unchanged
+	 */
+	static ColumnType detectType(List<String> values) {
+		if (values.isEmpty()) {
+			return ColumnType.STRING;
+		}
+		boolean isLong = true;
+		boolean isDouble = true;
+		boolean isBoolean = true;
+		for (String value : values) {
+			isBoolean = isBoolean && ("true".equals(value) || "false".equals(value));
+			isLong = isLong && isLong(value);
+			isDouble = isDouble && isDouble(value);
+		}
+		if (isBoolean) {
+			return ColumnType.BOOLEAN;
+		}
+		if (isLong) {
+			return ColumnType.LONG;
+		}
+		return isDouble ? ColumnType.DOUBLE : ColumnType.STRING;
+	}
+
+	static Object toValue(String value, ColumnType type) {
+		switch (type) {
+		case LONG:
+			return Long.parseLong(value);
+		case DOUBLE:
+			return Double.parseDouble(value);
+		case BOOLEAN:
+			return Boolean.parseBoolean(value);
+		default:
+			return value;
+		}
+	}
+
+	private static boolean isLong(String value) {
+		try {
+			return Long.toString(Long.parseLong(value)).equals(value);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static boolean isDouble(String value) {
+		try {
+			return Double.toString(Double.parseDouble(value)).equals(value);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+package com.qa.opencart.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.qa.opencart.constants.AppConstants;
+
+/**
+ * one wait engine per driver, used by all the waitFor* methods of ElementUtil.
+ * It polls fast first and backs off later (10, 20, 40 ... ms up to 500 ms), so a
+ * condition which is true after 50 ms does not cost a full 500 ms poll, and it
+ * records the time to satisfy every condition.
+ */
+public class WaitEngine {
+
+	// weak keys: the engine of a driver which is quit some other way goes with the driver
+	private static final Map<WebDriver, WaitEngine> engines = Collections
+			.synchronizedMap(new WeakHashMap<WebDriver, WaitEngine>());
+	private static final Map<String, WaitStats> metrics = new ConcurrentHashMap<String, WaitStats>();
+
+	private static final Logger log = LogManager.getLogger(WaitEngine.class);
+
+	// a strong reference from the value would keep the weak key alive
+	private final WeakReference<WebDriver> driver;
+
+	private WaitEngine(WebDriver driver) {
+		this.driver = new WeakReference<WebDriver>(driver);
+	}
+
+	/**
+	 * this is used to get the cached wait engine of the driver
+	 *
+	 * @param driver
+	 * @return
+	 */
+	public static WaitEngine getWaitEngine(WebDriver driver) {
+		return engines.computeIfAbsent(driver, WaitEngine::new);
+	}
+
+	/**
+	 * drops the cached engine once the driver is quit
+	 *
+	 * @param driver
+	 */
+	public static void removeWaitEngine(WebDriver driver) {
+		engines.remove(driver);
+	}
+
+	public <T> T until(ExpectedCondition<T> condition, int timeout) {
+		return until(condition, timeout, AppConstants.DEFAULT_MAX_POLLING_TIME, null);
+	}
+
+	/**
+	 * waits until the condition returns a non null value (or true for boolean
+	 * conditions). NotFoundException and StaleElementReferenceException are
+	 * ignored while polling.
+	 *
+	 * @param condition
+	 * @param timeout        in seconds
+	 * @param maxPollingTime the back-off stops growing at this value (ms)
+	 * @param message        timeout message, the condition is used when null
+	 * @return
+	 */
+	public <T> T until(Function<? super WebDriver, T> condition, int timeout, long maxPollingTime, String message) {
+		String key = condition.toString();
+		long start = System.currentTimeMillis();
+		long end = start + timeout * 1000L;
+		long pollingTime = AppConstants.DEFAULT_MIN_POLLING_TIME;
+		int polls = 0;
+		RuntimeException lastException = null;
+
+		while (true) {
+			polls++;
+			try {
+				T value = condition.apply(driver.get());
+				if (value != null && (!(value instanceof Boolean) || Boolean.TRUE.equals(value))) {
+					record(key, System.currentTimeMillis() - start, polls, false);
+					return value;
+				}
+				lastException = null;
+			} catch (NotFoundException | StaleElementReferenceException e) {
+				lastException = e;
+			}
+
+			long remaining = end - System.currentTimeMillis();
+			if (remaining <= 0) {
+				record(key, System.currentTimeMillis() - start, polls, true);
+				String timeoutMessage = (message == null ? "Expected condition failed: waiting for " + key : message)
+						+ " (tried for " + timeout + " second(s) with " + polls + " polls)";
+				throw new TimeoutException(timeoutMessage, lastException);
+			}
+
+			sleep(Math.min(pollingTime, remaining));
+			pollingTime = Math.min(pollingTime * 2, maxPollingTime);
+		}
+	}
+
+	/**
+	 * waits until all the conditions are satisfied in the same poll
+	 *
+	 * @param timeout
+	 * @param conditions
+	 * @return
+	 */
+	public boolean untilAll(int timeout, ExpectedCondition<?>... conditions) {
+		return until(new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply(WebDriver driver) {
+				for (ExpectedCondition<?> condition : conditions) {
+					Object value = condition.apply(driver);
+					if (value == null || Boolean.FALSE.equals(value)) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public String toString() {
+				return "all of " + Arrays.toString(conditions);
+			}
+		}, timeout);
+	}
+
+	/**
+	 * waits until any one of the conditions is satisfied
+	 *
+	 * @param timeout
+	 * @param conditions
+	 * @return index of the first satisfied condition
+	 */
+	public int untilAny(int timeout, ExpectedCondition<?>... conditions) {
+		return until(new ExpectedCondition<Integer>() {
+			@Override
+			public Integer apply(WebDriver driver) {
+				for (int i = 0; i < conditions.length; i++) {
+					try {
+						Object value = conditions[i].apply(driver);
+						if (value != null && !Boolean.FALSE.equals(value)) {
+							return i;
+						}
+					} catch (NotFoundException | StaleElementReferenceException e) {
+						// try the next condition
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public String toString() {
+				return "any of " + Arrays.toString(conditions);
+			}
+		}, timeout);
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TimeoutException("interrupted while waiting", e);
+		}
+	}
+
+	private static void record(String key, long millis, int polls, boolean timedOut) {
+		metrics.computeIfAbsent(key, k -> new WaitStats()).add(millis, polls, timedOut);
+		if (timedOut) {
+			log.warn("wait timed out after {} ms : {}", millis, key);
+		}
+	}
+
+	/**
+	 * time to satisfy per condition (locator) for the whole run
+	 *
+	 * @return
+	 */
+	public static Map<String, WaitStats> getMetrics() {
+		return new TreeMap<String, WaitStats>(metrics);
+	}
+
+	public static List<String> getMetricsSummary() {
+		List<String> summary = new ArrayList<String>();
+		for (Map.Entry<String, WaitStats> entry : getMetrics().entrySet()) {
+			summary.add(entry.getKey() + " --> " + entry.getValue());
+		}
+		return summary;
+	}
+
+	public static void resetMetrics() {
+		metrics.clear();
+	}
+
+	public static class WaitStats {
+
+		private long count;
+		private long timeouts;
+		private long polls;
+		private long totalMillis;
+		private long maxMillis;
+
+		private synchronized void add(long millis, int polls, boolean timedOut) {
+			count++;
+			this.polls += polls;
+			totalMillis += millis;
+			maxMillis = Math.max(maxMillis, millis);
+			if (timedOut) {
+				timeouts++;
+			}
+		}
+
+		public synchronized long getCount() {
+			return count;
+		}
+
+		public synchronized long getTimeouts() {
+			return timeouts;
+		}
+
+		public synchronized long getAverageMillis() {
+			return count == 0 ? 0 : totalMillis / count;
+		}
+
+		public synchronized long getMaxMillis() {
+			return maxMillis;
+		}
+
+		public synchronized long getAveragePolls() {
+			return count == 0 ? 0 : polls / count;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "waits: " + count + ", timeouts: " + timeouts + ", avg: " + getAverageMillis() + " ms, max: "
+					+ maxMillis + " ms, avg polls: " + getAveragePolls();
+		}
+	}
+
+}
@@ -1,43 +1,61 @@
 package com.qa.opencart.base;
 
+import java.lang.reflect.Method;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
 import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.annotations.LoadAllResources;
 import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.factory.HarInterceptor;
+import com.qa.opencart.factory.NetworkBlocker;
+import com.qa.opencart.listeners.CommandLatencyListener;
 import com.qa.opencart.pages.AccountsPage;
 import com.qa.opencart.pages.CommonsPage;
 import com.qa.opencart.pages.LoginPage;
+import com.qa.opencart.pages.PageContext;
 import com.qa.opencart.pages.ProductInfoPage;
 import com.qa.opencart.pages.RegisterPage;
 import com.qa.opencart.pages.SearchResultsPage;
+import com.qa.opencart.utils.ElementUtil;
+import com.qa.opencart.utils.FailureScreenshot;
 
+import io.qameta.allure.Allure;
 import io.qameta.allure.Description;
 
 //@Listeners(ChainTestListener.class)
 //@Listeners({ChainTestListener.class, TestAllureListener.class})
+/**
+ * thread confined base test: every running test method owns a driver (kept in
+ * DriverFactory.tlDriver) and its own page objects (PageContext), so the tests
+ * can run with parallel="methods" and @DataProvider(parallel = true). A method
+ * takes an idle driver of the class or launches a new one, and gives it back
+ * after its @AfterMethod; TestNG starts new worker threads for every parallel
+ * data provider, so drivers are not kept per thread. The drivers are quit
+ * after the &lt;test&gt;.
+ */
 public class BaseTest {
 
-	protected WebDriver driver;
 	protected Properties prop;
-	DriverFactory df;
-	
-	protected LoginPage loginPage;
-	protected AccountsPage accPage;
-	protected SearchResultsPage searchResultsPage;
-	protected ProductInfoPage productInfoPage;
-	protected RegisterPage registerPage;
-	protected CommonsPage commonsPage;
+	protected DriverFactory df;
 
-	
-	@Description("launch the browser: {0} and url")
+	// drivers created for the test methods of this class, and the ones not in use
+	private final Set<WebDriver> threadDrivers = ConcurrentHashMap.newKeySet();
+	private final Queue<WebDriver> idleDrivers = new ConcurrentLinkedQueue<WebDriver>();
+
+	@Description("init the config for the browser: {0}")
 	@Parameters({"browser"})
 	@BeforeTest
 	public void setUp(@Optional("chrome") String browserName) {
@@ -47,32 +65,133 @@ public class BaseTest {
 			if(browserName!=null) {
 				prop.setProperty("browser", browserName);
 			}
-		
-		driver = df.initDriver(prop);
-		loginPage = new LoginPage(driver);
-		commonsPage = new CommonsPage(driver);
 	}
-	
-	
-	@AfterMethod // will be running after each @test method
+
+	@Description("take an idle driver or launch the browser and url for the current thread")
+	@BeforeMethod(alwaysRun = true)
+	public void threadSetUp(Method method) {
+		WebDriver driver = idleDrivers.poll();
+		if (driver != null) {
+			DriverFactory.tlDriver.set(driver);
+		} else {
+			driver = createDriver();
+			DriverFactory.tlDriver.set(driver);
+			threadDrivers.add(driver);
+			threadSetup();
+		}
+		// fast page profile: @LoadAllResources tests get the blocked requests back
+		NetworkBlocker.forTest(driver, method.isAnnotationPresent(LoadAllResources.class));
+		// harmode = record/replay: one har archive per test class
+		HarInterceptor.forTestClass(driver, getClass().getSimpleName());
+		ElementUtil.clearLastLocator();
+		CommandLatencyListener.startTest();
+	}
+
+	/**
+	 * runs once on every new driver before its first test method, the per driver
+	 * replacement of a @BeforeClass setup (login, go to a page)
+	 */
+	protected void threadSetup() {
+	}
+
+	/**
+	 * launches the driver of the current thread, it is bound to the thread by
+	 * threadSetUp
+	 * 
+	 * @return
+	 */
+	protected WebDriver createDriver() {
+		return df.initDriver(prop);
+	}
+
+	protected WebDriver getDriver() {
+		return DriverFactory.getDriver();
+	}
+
+	// the landing page of every driver, it may still be loading (eager/none page load strategy)
+	protected LoginPage getLoginPage() {
+		return PageContext.get(getDriver()).getReadyPage(LoginPage.class);
+	}
+
+	protected AccountsPage getAccPage() {
+		return getPage(AccountsPage.class);
+	}
+
+	protected SearchResultsPage getSearchResultsPage() {
+		return getPage(SearchResultsPage.class);
+	}
+
+	protected ProductInfoPage getProductInfoPage() {
+		return getPage(ProductInfoPage.class);
+	}
+
+	protected RegisterPage getRegisterPage() {
+		return getPage(RegisterPage.class);
+	}
+
+	protected CommonsPage getCommonsPage() {
+		return getPage(CommonsPage.class);
+	}
+
+	private <T> T getPage(Class<T> pageClass) {
+		return PageContext.get(getDriver()).getPage(pageClass);
+	}
+
+	/**
+	 * runs after the @AfterMethod of the test class: attaches the failure
+	 * screenshot and the command latency, then gives the driver back for the next
+	 * test method and clears the thread locals of this worker thread
+	 *
+	 * @param result
+	 */
+	@AfterMethod(alwaysRun = true)
+	public void threadTearDown(ITestResult result) {
+		WebDriver driver = getDriver();
+		try {
+			attachScreenshot(result);
+			attachCommandLatency();
+		} finally {
+			DriverFactory.tlDriver.remove();
+			PageContext.remove();
+			if (driver != null && threadDrivers.contains(driver)) {
+				idleDrivers.offer(driver);
+			}
+		}
+	}
+
+	// will be running after each @test method
 	public void attachScreenshot(ITestResult result) {
 		
 		if (!result.isSuccess()) {// only for failure test cases -- true
-			ChainTestListener.embed(DriverFactory.getScreenshotFile(), "image/png");
+			// same capture as the Allure attachment of TestAllureListener
+			FailureScreenshot.attachToChainTest(result, getDriver());
 		}
 
 		//ChainTestListener.embed(DriverFactory.getScreenshotFile(), "image/png");
 
 	}
+
+	// only has data with commandmetrics = true
+	public void attachCommandLatency() {
+		String summary = CommandLatencyListener.finishTest();
+		if (!summary.isEmpty()) {
+			ChainTestListener.log(summary);
+			Allure.addAttachment("WebDriver command latency", "text/plain", summary);
+		}
+	}
 	
 
 	
 	
-	@Description("closing the browser...")
+	@Description("closing the browsers...")
 	@AfterTest
 	public void tearDown() {
-		driver.quit();
+		for (WebDriver driver : threadDrivers) {
+			df.quitDriver(prop, driver);
+		}
+		threadDrivers.clear();
+		idleDrivers.clear();
+		HarInterceptor.saveRecordings(prop);
 	}
 
 }
-
@@ -0,0 +1,78 @@
+package com.qa.opencart.base;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * in-memory drivers and elements for the tests which run without a browser:
+ * only the commands given as handlers (by method name) are answered, any other
+ * command fails with UnsupportedOperationException unless an ANY handler is
+ * given. hashCode, equals and toString are answered by identity, so a stub can
+ * be a map key (wait engines, page contexts, pools).
+ */
+public final class StubDriver {
+
+	/**
+	 * handler used for the commands which have no handler of their own
+	 */
+	public static final String ANY = "*";
+
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 * @param args the arguments of the command, null when it has none
+		 * @return the answer of the command
+		 */
+		Object handle(Object[] args) throws Throwable;
+	}
+
+	private StubDriver() {
+	}
+
+	/**
+	 * @param handlers         answer per command name
+	 * @param extraInterfaces  implemented on top of WebDriver and
+	 *                         JavascriptExecutor (TakesScreenshot, HasCdp...)
+	 * @return
+	 */
+	public static WebDriver of(Map<String, Handler> handlers, Class<?>... extraInterfaces) {
+		Class<?>[] interfaces = new Class<?>[extraInterfaces.length + 2];
+		interfaces[0] = WebDriver.class;
+		interfaces[1] = JavascriptExecutor.class;
+		System.arraycopy(extraInterfaces, 0, interfaces, 2, extraInterfaces.length);
+		return (WebDriver) stub(interfaces, "stub driver", handlers);
+	}
+
+	/**
+	 * @param handlers answer per command name
+	 * @return
+	 */
+	public static WebElement element(Map<String, Handler> handlers) {
+		return (WebElement) stub(new Class<?>[] { WebElement.class }, "stub element", handlers);
+	}
+
+	private static Object stub(Class<?>[] interfaces, String name, Map<String, Handler> handlers) {
+		return Proxy.newProxyInstance(StubDriver.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return name;
+			default:
+				Handler handler = handlers.getOrDefault(method.getName(), handlers.get(ANY));
+				if (handler == null) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+				return handler.handle(args);
+			}
+		});
+	}
+
+}
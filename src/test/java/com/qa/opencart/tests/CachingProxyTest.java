@@ -0,0 +1,201 @@
+package com.qa.opencart.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.factory.CachingProxy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 4 browsers (http clients) loading the same pages 5 times through the caching
+ * proxy, against a local stand-in server answering every request after 50 ms:
+ * every static asset must be fetched once from the server, the pages (no-store)
+ * every time.
+ */
+public class CachingProxyTest {
+
+	private static final Logger log = LogManager.getLogger(CachingProxyTest.class);
+
+	private static final int BROWSERS = 4;
+	private static final int PAGE_LOADS = 5;
+	private static final long SERVER_LATENCY_MILLIS = 50;
+
+	private static final String PAGE = "/index.php?route=account/login";
+	private static final String[] ASSETS = { "/catalog/view/theme/default/stylesheet/stylesheet.css",
+			"/catalog/view/javascript/jquery/jquery-2.1.1.min.js", "/image/catalog/opencart-logo.png" };
+
+	private final Map<String, AtomicInteger> serverRequests = new ConcurrentHashMap<String, AtomicInteger>();
+	private HttpServer server;
+	private String baseUrl;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::serve);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private void serve(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().toString();
+		serverRequests.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+		try {
+			Thread.sleep(SERVER_LATENCY_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] body;
+		if (path.endsWith(".css")) {
+			exchange.getResponseHeaders().add("Content-Type", "text/css");
+			body = new byte[40 * 1024];
+		} else if (path.endsWith(".js")) {
+			exchange.getResponseHeaders().add("Content-Type", "application/javascript");
+			body = new byte[90 * 1024];
+		} else if (path.endsWith(".png") || path.startsWith("/asset")) {
+			exchange.getResponseHeaders().add("Content-Type", "image/png");
+			body = new byte[path.startsWith("/asset") || path.startsWith("/disk") ? 10 * 1024 : 120 * 1024];
+		} else {
+			exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+			exchange.getResponseHeaders().add("Cache-Control", "no-store");
+			body = "<html><body>Account Login</body></html>".getBytes();
+		}
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	@Test
+	public void sharedAssetCacheTest() throws Exception {
+		long directMillis = loadPages(null);
+		serverRequests.clear();
+
+		CachingProxy proxy = new CachingProxy(64 * 1024 * 1024);
+		try {
+			long proxyMillis = loadPages(proxy);
+			for (String asset : ASSETS) {
+				Assert.assertEquals(serverRequests.get(asset).get(), 1, asset);
+			}
+			Assert.assertEquals(serverRequests.get(PAGE).get(), BROWSERS * PAGE_LOADS);
+
+			int assetRequests = BROWSERS * PAGE_LOADS * ASSETS.length;
+			Assert.assertEquals(proxy.getHits(), assetRequests - ASSETS.length);
+			Assert.assertEquals(proxy.getBytesSaved(), (BROWSERS * PAGE_LOADS - 1) * (40 + 90 + 120) * 1024L);
+			String result = BROWSERS + " browsers x " + PAGE_LOADS + " page loads --> direct: " + directMillis
+					+ " ms, through the caching proxy: " + proxyMillis + " ms, " + proxy;
+			log.info(result);
+			ChainTestListener.log(result);
+		} finally {
+			proxy.stop();
+		}
+	}
+
+	@Test
+	public void lruEvictionTest() throws Exception {
+		CachingProxy proxy = new CachingProxy(100 * 1024);
+		try {
+			HttpClient browser = newBrowser(proxy);
+			for (int i = 0; i < 20; i++) {
+				get(browser, "/asset" + i + ".png");
+			}
+			// the last assets are still cached, the first ones were evicted
+			get(browser, "/asset19.png");
+			get(browser, "/asset0.png");
+			Assert.assertEquals(proxy.getHits(), 1);
+			Assert.assertTrue(proxy.getCachedBytes() <= 100 * 1024, String.valueOf(proxy.getCachedBytes()));
+			Assert.assertEquals(serverRequests.get("/asset0.png").get(), 2);
+		} finally {
+			proxy.stop();
+		}
+	}
+
+	@Test
+	public void diskCacheTest() throws Exception {
+		CachingProxy proxy = new CachingProxy(100 * 1024, 1024 * 1024);
+		try {
+			HttpClient browser = newBrowser(proxy);
+			for (int i = 0; i < 20; i++) {
+				get(browser, "/disk" + i + ".png");
+			}
+			// pushed out of memory, served from disk and not fetched again
+			HttpResponse<byte[]> response = get(browser, "/disk0.png");
+			Assert.assertEquals(response.statusCode(), 200);
+			Assert.assertEquals(response.body().length, 10 * 1024);
+			Assert.assertEquals(response.headers().firstValue("Content-Type").orElse(""), "image/png");
+			Assert.assertEquals(serverRequests.get("/disk0.png").get(), 1);
+			Assert.assertEquals(proxy.getHits(), 1);
+			Assert.assertEquals(proxy.getDiskHits(), 1);
+			Assert.assertTrue(proxy.getCachedBytes() <= 100 * 1024, String.valueOf(proxy.getCachedBytes()));
+			Assert.assertTrue(proxy.getDiskCachedBytes() > 0);
+		} finally {
+			proxy.stop();
+		}
+	}
+
+	private long loadPages(CachingProxy proxy) throws Exception {
+		ExecutorService browsers = Executors.newFixedThreadPool(BROWSERS);
+		List<Future<?>> runs = new ArrayList<Future<?>>();
+		long start = System.currentTimeMillis();
+		for (int b = 0; b < BROWSERS; b++) {
+			runs.add(browsers.submit(() -> {
+				HttpClient browser = newBrowser(proxy);
+				for (int i = 0; i < PAGE_LOADS; i++) {
+					Assert.assertEquals(get(browser, PAGE).statusCode(), 200);
+					for (String asset : ASSETS) {
+						Assert.assertEquals(get(browser, asset).statusCode(), 200);
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> run : runs) {
+			run.get();
+		}
+		browsers.shutdown();
+		return System.currentTimeMillis() - start;
+	}
+
+	private HttpClient newBrowser(CachingProxy proxy) {
+		HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+		if (proxy != null) {
+			builder.proxy(ProxySelector.of(new InetSocketAddress("127.0.0.1", proxy.getPort())));
+		}
+		return builder.build();
+	}
+
+	private HttpResponse<byte[]> get(HttpClient browser, String path) throws Exception {
+		return browser.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.qa.opencart.tests;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.listeners.CommandLatencyListener;
+
+/**
+ * cost of the command latency recording per WebDriver command (findElement +
+ * click) on a stub driver: raw driver, decorated driver without listener and
+ * decorated driver with the latency listener (commandmetrics = true). A real
+ * command round trip takes milliseconds.
+ */
+public class CommandLatencyOverheadBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(CommandLatencyOverheadBenchmarkTest.class);
+
+	private static final int COMMANDS = 100_000;
+
+	private final By locator = By.id("input-email");
+
+	// click() answers null
+	private final WebElement element = StubDriver.element(Map.of(StubDriver.ANY, args -> null));
+
+	private final WebDriver driver = StubDriver.of(Map.of("findElement", args -> element));
+
+	@Test
+	public void commandLatencyOverheadBenchmarkTest() {
+		WebDriver decoratedDriver = new EventFiringDecorator<WebDriver>(new CommandLatencyListener()).decorate(driver);
+
+		long rawNanos = measure("raw driver", driver);
+		long noopNanos = measure("decorated driver, no listener",
+				new EventFiringDecorator<WebDriver>(new WebDriverListener() {
+				}).decorate(driver));
+		CommandLatencyListener.startTest();
+		long decoratedNanos = measure("decorated driver", decoratedDriver);
+		String summary = CommandLatencyListener.finishTest();
+
+		log.info(summary);
+		String overhead = "overhead per command --> decorator: " + (noopNanos - rawNanos) / 2 + " ns, recording: "
+				+ (decoratedNanos - noopNanos) / 2 + " ns";
+		log.info(overhead);
+		ChainTestListener.log(overhead);
+		Assert.assertTrue(summary.contains("findElement"));
+		Assert.assertTrue(summary.contains("element.click"));
+	}
+
+	private long measure(String name, WebDriver driver) {
+		for (int i = 0; i < COMMANDS / 10; i++) {
+			driver.findElement(locator).click();// warm up
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < COMMANDS; i++) {
+			driver.findElement(locator).click();
+		}
+		long nanosPerIteration = (System.nanoTime() - start) / COMMANDS;
+
+		String result = name + " --> findElement + click: " + nanosPerIteration + " ns";
+		log.info(result);
+		ChainTestListener.log(result);
+		return nanosPerIteration;
+	}
+
+}
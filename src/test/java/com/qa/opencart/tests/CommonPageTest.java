@@ -14,20 +14,20 @@ public class CommonPageTest extends BaseTest{
 	@Test
 	public void checkCommonElementsOnLoginPageTest() {
 		SoftAssert softAssert = new SoftAssert();
-		softAssert.assertTrue(commonsPage.isLogoExist());
-		softAssert.assertTrue(commonsPage.isSearchFieldExist());		
-		List<String> footerList = commonsPage.footerLinksExist();
+		softAssert.assertTrue(getCommonsPage().isLogoExist());
+		softAssert.assertTrue(getCommonsPage().isSearchFieldExist());		
+		List<String> footerList = getCommonsPage().footerLinksExist();
 		softAssert.assertEquals(footerList.size(), AppConstants.DEFAULT_FOOTER_LINKS_COUNT);
 		softAssert.assertAll();
 	}
 	
 	@Test
 	public void checkCommonElementsOnAccountsPageTest() {
-		loginPage.doLogin(prop.getProperty("username"), prop.getProperty("password"));
+		getLoginPage().doLogin(prop.getProperty("username"), prop.getProperty("password"));
 		SoftAssert softAssert = new SoftAssert();
-		softAssert.assertTrue(commonsPage.isLogoExist());
-		softAssert.assertTrue(commonsPage.isSearchFieldExist());		
-		List<String> footerList = commonsPage.footerLinksExist();
+		softAssert.assertTrue(getCommonsPage().isLogoExist());
+		softAssert.assertTrue(getCommonsPage().isSearchFieldExist());		
+		List<String> footerList = getCommonsPage().footerLinksExist();
 		softAssert.assertEquals(footerList.size(), AppConstants.DEFAULT_FOOTER_LINKS_COUNT);
 		softAssert.assertAll();
 	}
@@ -0,0 +1,122 @@
+package com.qa.opencart.tests;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.opencsv.CSVReader;
+import com.qa.opencart.utils.CsvUtil;
+
+/**
+ * a generated csv of 500k rows consumed like a data provider: readAll() into
+ * an Object[][] (the csvData way) and the lazy CsvUtil iterator. Prints the
+ * time to the first row, the total time and the peak heap of each.
+ */
+public class CsvStreamingBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(CsvStreamingBenchmarkTest.class);
+
+	private static final int ROWS = 500_000;
+	private static final String BENCHMARK_CSV_PATH = "./target/testdata/benchmark-500k.csv";
+
+	@BeforeClass
+	public void createCsv() throws Exception {
+		File file = new File(BENCHMARK_CSV_PATH);
+		file.getParentFile().mkdirs();
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for (int i = 0; i < ROWS; i++) {
+				writer.write("first" + i + ",last" + i + "," + (9878780000L + i) + ",pass@" + i + ","
+						+ (i % 2 == 0 ? "yes" : "no"));
+				writer.newLine();
+			}
+		}
+	}
+
+	@Test
+	public void csvStreamingBenchmarkTest() throws Exception {
+		long readAllPeak = measure("readAll", () -> {
+			try (CSVReader reader = new CSVReader(new FileReader(BENCHMARK_CSV_PATH))) {
+				List<String[]> rows = reader.readAll();
+				Object[][] data = rows.toArray(new Object[rows.size()][]);
+				return Arrays.asList(data).iterator();
+			}
+		});
+		long iteratorPeak = measure("lazy iterator", () -> CsvUtil.csvFileIterator(BENCHMARK_CSV_PATH));
+
+		Assert.assertTrue(iteratorPeak < readAllPeak, "iterator peak heap: " + iteratorPeak + " readAll: " + readAllPeak);
+	}
+
+	@Test
+	public void csvIteratorRowsTest() {
+		Iterator<Object[]> rows = CsvUtil.csvIterator("register");
+		Assert.assertTrue(rows.hasNext());
+		Assert.assertEquals(rows.next(),
+				new Object[] { "harpreet", "automation", "987878787777", "harpreet@123", "yes" });
+		Assert.assertFalse(rows.hasNext());
+	}
+
+	private long measure(String name, RowSource source) throws Exception {
+		usedHeap();
+		long heapBefore = usedHeap();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			pool.resetPeakUsage();
+		}
+		long start = System.nanoTime();
+
+		Iterator<Object[]> rows = source.open();
+		Object[] first = rows.next();
+		long firstRowMillis = (System.nanoTime() - start) / 1_000_000;
+		int count = 1;
+		while (rows.hasNext()) {
+			rows.next();
+			count++;
+		}
+
+		long totalMillis = (System.nanoTime() - start) / 1_000_000;
+		long peakMb = (peakHeap() - heapBefore) / (1024 * 1024);
+		Assert.assertEquals(count, ROWS);
+		Assert.assertEquals(first[0], "first0");
+
+		String result = name + " --> first row after " + firstRowMillis + " ms, " + count + " rows in " + totalMillis
+				+ " ms, peak heap: " + peakMb + " MB";
+		log.info(result);
+		ChainTestListener.log(result);
+		return peakMb;
+	}
+
+	private long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	private interface RowSource {
+		Iterator<Object[]> open() throws Exception;
+	}
+
+}
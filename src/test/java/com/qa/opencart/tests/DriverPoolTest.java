@@ -0,0 +1,93 @@
+package com.qa.opencart.tests;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.factory.DriverPool;
+import com.qa.opencart.factory.OptionsManager;
+
+/**
+ * the driver pool on stub drivers: one pool per browser profile, a dead idle
+ * driver is replaced on lease, the drivers which were never given back are
+ * quit on shutdown
+ */
+public class DriverPoolTest {
+
+	private final AtomicInteger quitCount = new AtomicInteger();
+
+	private WebDriver createStubDriver(AtomicBoolean alive) {
+		return StubDriver.of(Map.of("getWindowHandles", args -> {
+			if (!alive.get()) {
+				throw new NoSuchSessionException("browser crashed");
+			}
+			return Set.of("window");
+		}, "quit", args -> {
+			quitCount.incrementAndGet();
+			return null;
+		}));
+	}
+
+	@Test
+	public void poolPerProfileTest() {
+		Properties plain = new Properties();
+		plain.setProperty("browser", "Chrome");
+		plain.setProperty("headless", "true");
+		Properties fastPage = new Properties();
+		fastPage.putAll(plain);
+		fastPage.setProperty("fastpage", "true");
+		fastPage.setProperty("harmode", "record");
+
+		String plainKey = OptionsManager.getProfileKey(plain);
+		String fastPageKey = OptionsManager.getProfileKey(fastPage);
+		Assert.assertNotEquals(plainKey, fastPageKey);
+		Assert.assertEquals(plainKey, OptionsManager.getProfileKey((Properties) plain.clone()));
+
+		DriverPool plainPool = DriverPool.getPool("chrome", plainKey, 2);
+		Assert.assertSame(DriverPool.getPool("chrome", plainKey, 2), plainPool);
+		Assert.assertNotSame(DriverPool.getPool("chrome", fastPageKey, 2), plainPool);
+		Assert.assertEquals(plainPool.getBrowserName(), "chrome");
+	}
+
+	@Test
+	public void deadIdleDriverIsReplacedTest() throws InterruptedException {
+		DriverPool pool = DriverPool.getPool("chrome", "chrome dead-idle-driver-test", 1);
+		AtomicBoolean firstAlive = new AtomicBoolean(true);
+		Assert.assertEquals(pool.prewarm(() -> createStubDriver(firstAlive), 1), 1);
+		for (int i = 0; i < 100 && pool.getIdleCount() == 0; i++) {
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(pool.getIdleCount(), 1);
+
+		firstAlive.set(false);
+		AtomicBoolean secondAlive = new AtomicBoolean(true);
+		WebDriver driver = pool.lease(() -> createStubDriver(secondAlive), 5);
+		driver.getWindowHandles();
+		Assert.assertEquals(pool.getDiscardedCount(), 1);
+		Assert.assertEquals(pool.getPoolSize(), 1);
+		Assert.assertEquals(pool.getLeasedCount(), 1);
+	}
+
+	@Test(dependsOnMethods = "deadIdleDriverIsReplacedTest")
+	public void leasedDriversAreQuitOnShutdownTest() {
+		DriverPool pool = DriverPool.getPool("chrome", "chrome leased-shutdown-test", 2);
+		pool.lease(() -> createStubDriver(new AtomicBoolean(true)), 5);
+		pool.lease(() -> createStubDriver(new AtomicBoolean(true)), 5);
+		quitCount.set(0);
+
+		// no release: the tests which leased them never gave them back
+		DriverPool.shutdownAll();
+		Assert.assertEquals(pool.getLeasedCount(), 0);
+		// these two and the live one left leased by deadIdleDriverIsReplacedTest
+		Assert.assertEquals(quitCount.get(), 3);
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.qa.opencart.tests;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.pages.AccountsPage;
+import com.qa.opencart.pages.PageContext;
+import com.qa.opencart.utils.ElementUtil;
+
+/**
+ * the element cache of the page context on a stub driver: a locator is looked
+ * up once per page, a navigation through the page context drops the elements
+ * of the previous page, a cached element gone stale is looked up again
+ */
+public class ElementCacheTest {
+
+	private static final By HEADER = By.cssSelector("div#content h2");
+
+	private final AtomicInteger lookups = new AtomicInteger();
+
+	private String elementCache;
+	private String highlight;
+	private String pageLoadStrategy;
+
+	// the document the stub driver is on, its elements go stale once it is replaced
+	private final AtomicInteger document = new AtomicInteger();
+
+	private final WebDriver driver = StubDriver.of(Map.of("findElement", args -> {
+		lookups.incrementAndGet();
+		return createElement(document.get());
+	}));
+
+	private WebElement createElement(int elementDocument) {
+		return StubDriver.element(Map.of("getText", args -> {
+			if (elementDocument != document.get()) {
+				throw new StaleElementReferenceException("element is not attached to the page document");
+			}
+			return "My Account";
+		}));
+	}
+
+	@BeforeMethod
+	public void enableElementCache() {
+		elementCache = DriverFactory.elementCache;
+		highlight = DriverFactory.highlightEle;
+		pageLoadStrategy = DriverFactory.pageLoadStrategy;
+		DriverFactory.elementCache = "true";
+		DriverFactory.highlightEle = null;
+		DriverFactory.pageLoadStrategy = "normal";
+		lookups.set(0);
+		document.set(0);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void restore() {
+		DriverFactory.elementCache = elementCache;
+		DriverFactory.highlightEle = highlight;
+		DriverFactory.pageLoadStrategy = pageLoadStrategy;
+		PageContext.remove();
+	}
+
+	@Test
+	public void navigationInvalidatesCacheTest() {
+		PageContext context = PageContext.get(driver);
+		ElementUtil eleUtil = context.getElementUtil();
+
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(lookups.get(), 1);
+
+		// a navigation method hands over its next page through getReadyPage
+		context.getReadyPage(AccountsPage.class);
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(lookups.get(), 2);
+	}
+
+	@Test
+	public void staleElementIsLookedUpAgainTest() {
+		ElementUtil eleUtil = PageContext.get(driver).getElementUtil();
+		long hits = ElementUtil.getElementCacheHits();
+		long misses = ElementUtil.getElementCacheMisses();
+		long stale = ElementUtil.getElementCacheStale();
+
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(ElementUtil.getElementCacheMisses() - misses, 1);
+		Assert.assertEquals(ElementUtil.getElementCacheHits() - hits, 1);
+
+		// the page reloads without going through the page context
+		document.incrementAndGet();
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(lookups.get(), 2);
+		Assert.assertEquals(ElementUtil.getElementCacheStale() - stale, 1);
+		Assert.assertEquals(ElementUtil.getElementCacheHits() - hits, 2);
+		Assert.assertEquals(ElementUtil.getElementCacheMisses() - misses, 2);
+		Assert.assertTrue(ElementUtil.getElementCacheStats().contains("stale: " + ElementUtil.getElementCacheStale()),
+				ElementUtil.getElementCacheStats());
+
+		// the fresh element is cached again
+		Assert.assertEquals(eleUtil.doElementGetText(HEADER), "My Account");
+		Assert.assertEquals(lookups.get(), 2);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.qa.opencart.tests;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.BaseTest;
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.utils.ElementUtil;
+
+/**
+ * compares per element getText() with the batched single script read: number of
+ * WebDriver commands and latency, on the footer links and the product meta data
+ */
+public class ElementTextBenchmarkTest extends BaseTest {
+
+	private static final Logger log = LogManager.getLogger(ElementTextBenchmarkTest.class);
+
+	private static final int ITERATIONS = 5;
+
+	private final By footerLinks = By.cssSelector("footer li a");
+	private final By productMetaData = By.xpath("(//div[@id='content']//ul[@class='list-unstyled'])[1]/li");
+
+	private final AtomicInteger commandCount = new AtomicInteger();
+	private WebDriver countingDriver;
+	private ElementUtil countingEleUtil;
+
+	@Override
+	protected void threadSetup() {
+		countingDriver = new EventFiringDecorator<WebDriver>(new WebDriverListener() {
+			@Override
+			public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+				commandCount.incrementAndGet();
+			}
+
+			@Override
+			public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+				commandCount.incrementAndGet();
+			}
+		}).decorate(getDriver());
+		countingEleUtil = new ElementUtil(countingDriver);
+	}
+
+	@Test(priority = 1)
+	public void footerLinksTextBenchmarkTest() {
+		List<String> perElementTexts = benchmark("footer links per element", () -> getTextPerElement(footerLinks));
+		List<String> batchedTexts = benchmark("footer links batched", () -> countingEleUtil.getElementsTexts(footerLinks));
+
+		Assert.assertEquals(batchedTexts.size(), AppConstants.DEFAULT_FOOTER_LINKS_COUNT);
+		Assert.assertEquals(batchedTexts, perElementTexts);
+	}
+
+	@Test(priority = 2)
+	public void productMetaDataTextBenchmarkTest() {
+		getLoginPage().doLoginWithSession(prop.getProperty("username"), prop.getProperty("password"))
+				.doSearch("macbook").selectProduct("MacBook Pro").getProductHeader();
+
+		List<String> perElementTexts = benchmark("product meta data per element",
+				() -> getTextPerElement(productMetaData));
+		List<String> batchedTexts = benchmark("product meta data batched",
+				() -> countingEleUtil.getElementsTexts(productMetaData));
+
+		Assert.assertEquals(batchedTexts, perElementTexts);
+	}
+
+	private List<String> getTextPerElement(By locator) {
+		List<String> texts = new ArrayList<String>();
+		for (WebElement e : countingDriver.findElements(locator)) {
+			texts.add(e.getText());
+		}
+		return texts;
+	}
+
+	private List<String> benchmark(String name, Supplier<List<String>> reader) {
+		List<String> texts = reader.get();// warm up
+
+		commandCount.set(0);
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			texts = reader.get();
+		}
+		long avgMicros = (System.nanoTime() - start) / ITERATIONS / 1000;
+		int avgCommands = commandCount.get() / ITERATIONS;
+
+		String result = name + " --> elements: " + texts.size() + ", commands: " + avgCommands + ", latency: "
+				+ avgMicros + " us";
+		log.info(result);
+		ChainTestListener.log(result);
+		return texts;
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.utils.ExcelUtil;
+
+/**
+ * loads a generated sheet of 100k rows with the old way (POI user model,
+ * parsed on every data provider call) and with ExcelUtil (streaming parse
+ * once, cached rows), and prints the time, the allocated bytes and the heap
+ * kept by the loaded data. Also checks that parallel callers get the same
+ * rows.
+ */
+public class ExcelLoaderBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(ExcelLoaderBenchmarkTest.class);
+
+	private static final int ROWS = 100_000;
+	private static final String SHEET_NAME = "register";
+	private static final String BENCHMARK_SHEET_PATH = "./target/testdata/benchmark-100k.xlsx";
+
+	@BeforeClass
+	public void createSheet() throws Exception {
+		File file = new File(BENCHMARK_SHEET_PATH);
+		file.getParentFile().mkdirs();
+		SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+		Sheet sheet = workbook.createSheet(SHEET_NAME);
+		String[] header = { "firstname", "lastname", "telephone", "password", "subscribe" };
+		Row headerRow = sheet.createRow(0);
+		for (int j = 0; j < header.length; j++) {
+			headerRow.createCell(j).setCellValue(header[j]);
+		}
+		for (int i = 1; i <= ROWS; i++) {
+			Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue("first" + i);
+			row.createCell(1).setCellValue("last" + i);
+			row.createCell(2).setCellValue(String.valueOf(7878780000L + i));
+			row.createCell(3).setCellValue("pass@" + i);
+			row.createCell(4).setCellValue(i % 2 == 0 ? "yes" : "no");
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			workbook.write(out);
+		}
+		workbook.dispose();
+	}
+
+	@Test
+	public void excelLoaderBenchmarkTest() throws Exception {
+		Object[][] legacy = measure("user model (every call)", () -> getTestDataUserModel(BENCHMARK_SHEET_PATH));
+		Object[][] streaming = measure("streaming (first call)", () -> ExcelUtil.getTestData(BENCHMARK_SHEET_PATH, SHEET_NAME));
+		Object[][] cached = measure("streaming (cached call)", () -> ExcelUtil.getTestData(BENCHMARK_SHEET_PATH, SHEET_NAME));
+
+		Assert.assertEquals(streaming.length, ROWS);
+		Assert.assertEquals(cached.length, ROWS);
+		Assert.assertEquals(streaming[ROWS - 1], legacy[ROWS - 1]);
+		Assert.assertEquals(cached[0], new Object[] { "first1", "last1", "7878780001", "pass@1", "no" });
+	}
+
+	@Test
+	public void concurrentCallersShareTheRowsTest() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<List<String>>>> results = new ArrayList<Future<List<List<String>>>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> ExcelUtil.getRows(ExcelUtil.TEST_DATA_SHEET_PATH, "product")));
+			}
+			List<List<String>> first = results.get(0).get();
+			for (Future<List<List<String>>> result : results) {
+				Assert.assertSame(result.get(), first);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Object[][] measure(String name, Callable<Object[][]> loader) throws Exception {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long heapBefore = usedHeap();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			pool.resetPeakUsage();
+		}
+		long bytes = threadBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+
+		Object[][] data = loader.call();
+
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		long allocatedMb = (threadBean.getThreadAllocatedBytes(threadId) - bytes) / (1024 * 1024);
+		long peakMb = (peakHeap() - heapBefore) / (1024 * 1024);
+		long retainedMb = (usedHeap() - heapBefore) / (1024 * 1024);
+		String result = name + " --> " + data.length + " rows in " + millis + " ms, allocated: " + allocatedMb
+				+ " MB, peak heap: " + peakMb + " MB, heap kept: " + retainedMb + " MB";
+		log.info(result);
+		ChainTestListener.log(result);
+		return data;
+	}
+
+	private long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	/**
+	 * the loader before the cache: user model workbook, parsed on every call
+	 */
+	private Object[][] getTestDataUserModel(String path) throws Exception {
+		try (InputStream ip = new FileInputStream(path)) {
+			Workbook book = WorkbookFactory.create(ip);
+			Sheet sheet = book.getSheet(SHEET_NAME);
+			Object[][] data = new Object[sheet.getLastRowNum()][sheet.getRow(0).getLastCellNum()];
+			for (int i = 0; i < sheet.getLastRowNum(); i++) {
+				for (int j = 0; j < sheet.getRow(0).getLastCellNum(); j++) {
+					data[i][j] = sheet.getRow(i + 1).getCell(j).toString();
+				}
+			}
+			return data;
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.qa.opencart.utils.ExcelUtil;
+
+/**
+ * the data provider values of the streaming ExcelUtil against the old loader
+ * (POI user model, cell.toString()): the same for the text cells of
+ * OpenCartTestData.xlsx, as displayed in excel for numeric, date and boolean
+ * cells where the old loader gave the raw double or its own date format
+ */
+public class ExcelUtilTest {
+
+	private static final Calendar BIRTHDATE = new GregorianCalendar(2024, Calendar.MARCH, 5);
+
+	@Test
+	public void testDataSheetsAsBeforeTest() throws Exception {
+		for (String sheetName : new String[] { "register", "product" }) {
+			Object[][] legacy = getTestDataUserModel(ExcelUtil.TEST_DATA_SHEET_PATH, sheetName);
+			Assert.assertEquals(ExcelUtil.getTestData(sheetName), legacy, sheetName);
+		}
+		Assert.assertEquals(ExcelUtil.getTestData("register")[0],
+				new Object[] { "harpreet", "kaur", "7878789898", "harpreet@123", "yes" });
+	}
+
+	@Test
+	public void numericDateBooleanCellsTest() throws Exception {
+		File file = File.createTempFile("celltypes", ".xlsx");
+		try {
+			try (OutputStream out = new FileOutputStream(file)) {
+				createCellTypesWorkbook().write(out);
+			}
+			// the old loader wrote dates with the default locale
+			String legacyDate = new SimpleDateFormat("dd-MMM-yyyy").format(BIRTHDATE.getTime());
+			Assert.assertEquals(getTestDataUserModel(file.getPath(), "types")[0],
+					new Object[] { "9.87878787777E11", "123.0", "12.5", legacyDate, "TRUE", "FALSE" });
+			Assert.assertEquals(ExcelUtil.getTestData(file.getPath(), "types")[0],
+					new Object[] { "987878787777", "123", "12.5", "05-03-2024", "TRUE", "FALSE" });
+		} finally {
+			file.delete();
+		}
+	}
+
+	// a phone number, an integer, a decimal, a dd-mm-yyyy date and two booleans
+	private Workbook createCellTypesWorkbook() {
+		XSSFWorkbook book = new XSSFWorkbook();
+		Sheet sheet = book.createSheet("types");
+		Row header = sheet.createRow(0);
+		String[] names = { "phone", "quantity", "price", "birthdate", "newsletter", "terms" };
+		for (int i = 0; i < names.length; i++) {
+			header.createCell(i).setCellValue(names[i]);
+		}
+		Row row = sheet.createRow(1);
+		row.createCell(0).setCellValue(987878787777d);
+		row.createCell(1).setCellValue(123d);
+		row.createCell(2).setCellValue(12.5d);
+		CellStyle dateStyle = book.createCellStyle();
+		dateStyle.setDataFormat(book.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+		Cell dateCell = row.createCell(3);
+		dateCell.setCellValue(BIRTHDATE.getTime());
+		dateCell.setCellStyle(dateStyle);
+		row.createCell(4).setCellValue(true);
+		row.createCell(5).setCellValue(false);
+		return book;
+	}
+
+	/**
+	 * the loader before the streaming reader
+	 */
+	private Object[][] getTestDataUserModel(String path, String sheetName) throws Exception {
+		try (InputStream ip = new FileInputStream(path)) {
+			Workbook book = WorkbookFactory.create(ip);
+			Sheet sheet = book.getSheet(sheetName);
+			Object[][] data = new Object[sheet.getLastRowNum()][sheet.getRow(0).getLastCellNum()];
+			for (int i = 0; i < sheet.getLastRowNum(); i++) {
+				for (int j = 0; j < sheet.getRow(0).getLastCellNum(); j++) {
+					data[i][j] = sheet.getRow(i + 1).getCell(j).toString();
+				}
+			}
+			return data;
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.qa.opencart.tests;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+import org.testng.internal.TestResult;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.utils.FailureScreenshot;
+
+/**
+ * a burst of failures on 4 threads, ChainTest (BaseTest.attachScreenshot) and
+ * Allure (TestAllureListener) both attaching the screenshot of every failure
+ * on a stub driver: the browser must be asked once per failure only, and all
+ * the Allure files are written by the background writer.
+ */
+public class FailureScreenshotTest {
+
+	private static final Logger log = LogManager.getLogger(FailureScreenshotTest.class);
+
+	private static final int FAILURES = 40;
+	private static final String PNG_BASE64 = Base64.getEncoder().encodeToString(new byte[64 * 1024]);
+
+	private final AtomicInteger screenshotCount = new AtomicInteger();
+
+	@Test
+	public void oneScreenshotPerFailureTest() throws Exception {
+		WebDriver driver = createStubDriver();
+		ExecutorService testThreads = Executors.newFixedThreadPool(4);
+		List<Future<?>> failures = new ArrayList<Future<?>>();
+
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < FAILURES; i++) {
+			ITestResult result = TestResult.newEmptyTestResult();
+			failures.add(testThreads.submit(() -> {
+				// the reporters of one test run on its thread, in any order
+				FailureScreenshot.attachToAllure(result, driver);
+				FailureScreenshot.attachToChainTest(result, driver);
+				Assert.assertNotNull(FailureScreenshot.get(result, driver));
+			}));
+		}
+		for (Future<?> failure : failures) {
+			failure.get();
+		}
+		long testThreadMillis = System.currentTimeMillis() - start;
+		FailureScreenshot.awaitWrites(30);
+		long millis = System.currentTimeMillis() - start;
+		testThreads.shutdown();
+
+		Assert.assertEquals(screenshotCount.get(), FAILURES);
+		String summary = FAILURES + " failures --> " + screenshotCount.get() + " screenshots, test threads done in "
+				+ testThreadMillis + " ms, all written in " + millis + " ms";
+		log.info(summary);
+		ChainTestListener.log(summary);
+	}
+
+	private WebDriver createStubDriver() {
+		return StubDriver.of(Map.of("getScreenshotAs", args -> {
+			screenshotCount.incrementAndGet();
+			return ((OutputType<?>) args[0]).convertFromBase64Png(PNG_BASE64);
+		}), TakesScreenshot.class);
+	}
+
+}
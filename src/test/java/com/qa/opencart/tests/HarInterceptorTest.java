@@ -0,0 +1,190 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.factory.HarInterceptor;
+import com.qa.opencart.utils.HarArchive;
+
+/**
+ * the traffic of a search and product page journey recorded from a network
+ * answering every request after 50 ms, then replayed from the har archive with
+ * the network gone (harreplaymiss = notfound): same answers, no request on the
+ * network.
+ */
+public class HarInterceptorTest {
+
+	private static final Logger log = LogManager.getLogger(HarInterceptorTest.class);
+
+	private static final long NETWORK_LATENCY_MILLIS = 50;
+	private static final String BASE = "https://naveenautomationlabs.com/opencart/index.php?route=";
+	private static final String SEARCH = BASE + "product/search&search=macbook";
+	private static final String PRODUCT = BASE + "product/product&product_id=45";
+	private static final String LOGIN = BASE + "account/login";
+	private static final String IMAGE = "https://naveenautomationlabs.com/opencart/image/cache/macbook_pro_1.jpg";
+
+	private final AtomicInteger networkRequests = new AtomicInteger();
+	private File harDir;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+		harDir = Files.createTempDirectory("har").toFile();
+		HarInterceptor.reset();
+		networkRequests.set(0);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void cleanUp() {
+		for (File file : harDir.listFiles()) {
+			file.delete();
+		}
+		harDir.delete();
+		HarInterceptor.reset();
+	}
+
+	// the application: the login page answers differently once logged in
+	private HttpResponse network(HttpRequest request) {
+		int count = networkRequests.incrementAndGet();
+		try {
+			Thread.sleep(NETWORK_LATENCY_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		String body = Contents.utf8String(request.getContent());
+		HttpResponse response = new HttpResponse().setStatus(200);
+		if (request.getUri().endsWith(".jpg")) {
+			byte[] image = new byte[2048];
+			for (int i = 0; i < image.length; i++) {
+				image[i] = (byte) i;
+			}
+			return response.addHeader("Content-Type", "image/jpeg").setContent(Contents.bytes(image));
+		}
+		response.addHeader("Content-Type", "text/html; charset=utf-8").addHeader("Content-Encoding", "gzip");
+		if (request.getUri().equals(LOGIN) && request.getMethod() == HttpMethod.POST) {
+			return response.setContent(Contents.utf8String(
+					body.contains("password=Test1234") ? "<h2>My Account</h2>" : "<div class=\"alert\">No match</div>"));
+		}
+		return response.setContent(Contents.utf8String("<h1>" + request.getUri() + "</h1> request " + count));
+	}
+
+	private HttpRequest post(String url, String form) {
+		HttpRequest request = new HttpRequest(HttpMethod.POST, url);
+		request.setContent(Contents.utf8String(form));
+		return request;
+	}
+
+	@Test
+	public void recordAndReplayTest() {
+		long recordMillis = journey(new HarInterceptor(false, true, harDir), "SearchTest");
+		Assert.assertEquals(networkRequests.get(), 6);
+		Properties prop = new Properties();
+		prop.setProperty("harmode", "record");
+		prop.setProperty("hardir", harDir.getPath());
+		HarInterceptor.saveRecordings(prop);
+		Assert.assertTrue(new File(harDir, "SearchTest.har").isFile());
+
+		HarInterceptor.reset();
+		networkRequests.set(0);
+		HarInterceptor replayer = new HarInterceptor(true, false, harDir);
+		HttpHandler replay = replayer.andFinally(request -> {
+			throw new AssertionError("network used in replay for " + request.getUri());
+		});
+		replayer.setTestClass("SearchTest");
+		long start = System.currentTimeMillis();
+		Assert.assertEquals(Contents.utf8String(replay.execute(new HttpRequest(HttpMethod.GET, SEARCH)).getContent()),
+				"<h1>" + SEARCH + "</h1> request 1");
+		HttpResponse image = replay.execute(new HttpRequest(HttpMethod.GET, IMAGE));
+		Assert.assertEquals(Contents.bytes(image.getContent())[255], (byte) 255);
+		Assert.assertEquals(image.getHeader("Content-Type"), "image/jpeg");
+		// keyed by the body hash: a failed and a good login are two different requests
+		Assert.assertTrue(Contents.utf8String(replay.execute(post(LOGIN, "email=a&password=Test1234")).getContent())
+				.contains("My Account"));
+		Assert.assertTrue(Contents.utf8String(replay.execute(post(LOGIN, "email=a&password=wrong")).getContent())
+				.contains("No match"));
+		// the product page loaded twice comes back in the recorded order
+		HttpResponse firstProduct = replay.execute(new HttpRequest(HttpMethod.GET, PRODUCT));
+		Assert.assertNull(firstProduct.getHeader("Content-Encoding"));
+		Assert.assertTrue(Contents.utf8String(firstProduct.getContent()).endsWith("request 5"));
+		Assert.assertTrue(
+				Contents.utf8String(replay.execute(new HttpRequest(HttpMethod.GET, PRODUCT)).getContent())
+						.endsWith("request 6"));
+		long replayMillis = System.currentTimeMillis() - start;
+
+		Assert.assertEquals(replay.execute(post(LOGIN, "email=a&password=other")).getStatus(), 404);
+		Assert.assertEquals(networkRequests.get(), 0);
+		Assert.assertEquals(HarInterceptor.getReplayHits(), 6);
+		Assert.assertEquals(HarInterceptor.getReplayMisses(), 1);
+
+		String result = "6 requests --> recorded from the network: " + recordMillis + " ms, replayed: " + replayMillis
+				+ " ms, " + HarInterceptor.getSummary();
+		log.info(result);
+		ChainTestListener.log(result);
+		Assert.assertTrue(replayMillis < recordMillis, result);
+	}
+
+	@Test
+	public void harArchiveTest() {
+		HarInterceptor recorder = new HarInterceptor(false, true, harDir);
+		journey(recorder, "ProductInfoTest");
+		// the same page with the same answer is recorded once
+		recorder.andFinally(this::network).execute(new HttpRequest(HttpMethod.GET, IMAGE));
+		Properties prop = new Properties();
+		prop.setProperty("harmode", "record");
+		prop.setProperty("hardir", harDir.getPath());
+		HarInterceptor.saveRecordings(prop);
+
+		HarArchive archive = HarArchive.read("ProductInfoTest", new File(harDir, "ProductInfoTest.har"));
+		Assert.assertEquals(archive.size(), 6);
+		List<HarArchive.HarEntry> product = archive.find(HarArchive.key("get", PRODUCT, new byte[0]));
+		Assert.assertEquals(product.size(), 2);
+		Assert.assertTrue(product.get(0).getTimeMillis() >= NETWORK_LATENCY_MILLIS);
+		Assert.assertEquals(archive.find(HarArchive.key("POST", LOGIN, "email=a&password=wrong".getBytes())).size(), 1);
+		Assert.assertTrue(archive.find(HarArchive.key("POST", LOGIN, "email=b".getBytes())).isEmpty());
+
+		String har = readHar(new File(harDir, "ProductInfoTest.har"));
+		Assert.assertTrue(har.contains("\"version\": \"1.2\""), har);
+		Assert.assertTrue(har.contains("\"encoding\": \"base64\""));
+		Assert.assertTrue(har.contains("\"postData\""));
+	}
+
+	// search, product image, a good and a failed login, the product page twice
+	private long journey(HarInterceptor recorder, String testClass) {
+		recorder.setTestClass(testClass);
+		HttpHandler browser = recorder.andFinally(this::network);
+		long start = System.currentTimeMillis();
+		browser.execute(new HttpRequest(HttpMethod.GET, SEARCH));
+		browser.execute(new HttpRequest(HttpMethod.GET, IMAGE));
+		browser.execute(post(LOGIN, "email=a&password=Test1234"));
+		browser.execute(post(LOGIN, "email=a&password=wrong"));
+		browser.execute(new HttpRequest(HttpMethod.GET, PRODUCT));
+		browser.execute(new HttpRequest(HttpMethod.GET, PRODUCT));
+		return System.currentTimeMillis() - start;
+	}
+
+	private String readHar(File file) {
+		try {
+			return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+}
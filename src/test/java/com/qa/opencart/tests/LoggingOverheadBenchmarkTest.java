@@ -0,0 +1,91 @@
+package com.qa.opencart.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.utils.ElementUtil;
+
+/**
+ * logging cost per WebDriver command (ElementUtil.doClick) on a stub driver:
+ * with the per command logs on (debug, async appender) and off (info, the
+ * level guards skip the message formatting)
+ */
+public class LoggingOverheadBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(LoggingOverheadBenchmarkTest.class);
+
+	private static final int COMMANDS = 2_000;
+
+	private final Level originalLevel = LogManager.getLogger(ElementUtil.class).getLevel();
+	private final By locator = By.id("input-email");
+
+	// click() answers null
+	private final WebElement element = StubDriver.element(Map.of(StubDriver.ANY, args -> null));
+
+	private final WebDriver driver = StubDriver.of(Map.of("findElement", args -> element));
+
+	@Test
+	public void loggingOverheadBenchmarkTest() {
+		// an earlier UI test in the JVM may have left highlight/elementcache on
+		String highlight = DriverFactory.highlightEle;
+		String elementCache = DriverFactory.elementCache;
+		DriverFactory.highlightEle = null;
+		DriverFactory.elementCache = null;
+		try {
+			ElementUtil eleUtil = new ElementUtil(driver);
+
+			long debugBytes = measure("per command logs on (debug)", Level.DEBUG, () -> eleUtil.doClick(locator));
+			long infoBytes = measure("per command logs off (info)", Level.INFO, () -> eleUtil.doClick(locator));
+
+			Assert.assertTrue(infoBytes <= debugBytes);
+		} finally {
+			DriverFactory.highlightEle = highlight;
+			DriverFactory.elementCache = elementCache;
+		}
+	}
+
+	@AfterClass
+	public void restoreLevel() {
+		Configurator.setLevel(ElementUtil.class.getName(), originalLevel);
+	}
+
+	private long measure(String name, Level level, Runnable command) {
+		Configurator.setLevel(ElementUtil.class.getName(), level);
+		for (int i = 0; i < COMMANDS / 10; i++) {
+			command.run();// warm up
+		}
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long bytes = threadBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < COMMANDS; i++) {
+			command.run();
+		}
+
+		long nanosPerCommand = (System.nanoTime() - start) / COMMANDS;
+		long bytesPerCommand = (threadBean.getThreadAllocatedBytes(threadId) - bytes) / COMMANDS;
+		String result = name + " --> allocated: " + bytesPerCommand + " bytes/command, time: " + nanosPerCommand
+				+ " ns/command";
+		log.info(result);
+		ChainTestListener.log(result);
+		return bytesPerCommand;
+	}
+
+}
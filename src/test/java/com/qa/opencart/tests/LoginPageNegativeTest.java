@@ -10,7 +10,7 @@ public class LoginPageNegativeTest extends BaseTest {
 	
 	
 	
-	@DataProvider
+	@DataProvider(parallel = true)
 	public Object[][] getNegativeLoginData() {
 		return new Object[][] {
 			{"testselelettttt@gmail.com", "test@123"},
@@ -24,7 +24,7 @@ public class LoginPageNegativeTest extends BaseTest {
 
 	@Test(dataProvider = "getNegativeLoginData")
 	public void negativeLoginTest(String invalidUN, String invalidPWD) {
-		Assert.assertTrue(loginPage.doLoginWithInvalidCredentails(invalidUN, invalidPWD));
+		Assert.assertTrue(getLoginPage().doLoginWithInvalidCredentails(invalidUN, invalidPWD));
 	}
 
 }
@@ -6,6 +6,7 @@ import org.testng.annotations.Test;
 import com.aventstack.chaintest.plugins.ChainTestListener;
 import com.qa.opencart.base.BaseTest;
 import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.pages.AccountsPage;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
@@ -27,7 +28,7 @@ public class LoginPageTest extends BaseTest {
 	@Severity(SeverityLevel.MINOR)
 	@Test
 	public void loginPageTitleTest() {
-		String actTitle = loginPage.getLoginPageTitle();
+		String actTitle = getLoginPage().getLoginPageTitle();
 		ChainTestListener.log("login page tite: "+ actTitle);
 		Assert.assertEquals(actTitle, AppConstants.LOGIN_PAGE_TITLE);
 	}
@@ -37,7 +38,7 @@ public class LoginPageTest extends BaseTest {
 	@Severity(SeverityLevel.NORMAL)
 	@Test
 	public void loginPageURLTest() {
-		String actURL = loginPage.getLoginPageURL();
+		String actURL = getLoginPage().getLoginPageURL();
 		ChainTestListener.log("login page url: "+ actURL);
 		Assert.assertTrue(actURL.contains(AppConstants.LOGIN_PAGE_FRACTION_URL));
 	}
@@ -47,7 +48,7 @@ public class LoginPageTest extends BaseTest {
 	@Severity(SeverityLevel.CRITICAL)
 	@Test
 	public void isForgotPwdLinkExistTest() {
-		Assert.assertTrue(loginPage.isForgotPwdLinkExist());
+		Assert.assertTrue(getLoginPage().isForgotPwdLinkExist());
 	}
 
 	@Description("login page header test....")
@@ -55,7 +56,7 @@ public class LoginPageTest extends BaseTest {
 	@Severity(SeverityLevel.MINOR)
 	@Test
 	public void isLoginPageHeaderExistTest() {
-		Assert.assertTrue(loginPage.isheaderExist());
+		Assert.assertTrue(getLoginPage().isheaderExist());
 	}
 
 	@Description("user is able to login to app with the correct credentials....")
@@ -63,7 +64,7 @@ public class LoginPageTest extends BaseTest {
 	@Severity(SeverityLevel.BLOCKER)
 	@Test(priority = Integer.MAX_VALUE)
 	public void loginTest() {
-		accPage = loginPage.doLogin(prop.getProperty("username"), prop.getProperty("password"));
+		AccountsPage accPage = getLoginPage().doLogin(prop.getProperty("username"), prop.getProperty("password"));
 		Assert.assertTrue(accPage.isLogoutLinkExist());
 	}
 	
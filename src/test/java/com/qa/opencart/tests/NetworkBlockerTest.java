@@ -0,0 +1,74 @@
+package com.qa.opencart.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.factory.NetworkBlocker;
+
+/**
+ * the fast page profile on a stub DevTools driver: the blocked url patterns
+ * sent to the browser, and a @LoadAllResources test lifting them only for
+ * itself.
+ */
+public class NetworkBlockerTest {
+
+	private static final Logger log = LogManager.getLogger(NetworkBlockerTest.class);
+
+	private final List<String> cdpCommands = new ArrayList<String>();
+
+	@Test
+	public void blockedUrlsTest() {
+		List<String> patterns = NetworkBlocker.getBlockedUrls(fastPageProp());
+		Assert.assertTrue(patterns.contains("*.png*"));
+		Assert.assertTrue(patterns.contains("*.woff2*"));
+		Assert.assertTrue(patterns.contains("*googletagmanager.com*"));
+		Assert.assertFalse(patterns.contains("*.css*"), "stylesheets are not blocked by default");
+	}
+
+	@Test
+	public void loadAllResourcesTest() {
+		WebDriver driver = createStubDriver();
+		NetworkBlocker.block(driver, fastPageProp());
+		NetworkBlocker.forTest(driver, false);
+		NetworkBlocker.forTest(driver, true);
+		NetworkBlocker.forTest(driver, true);
+		NetworkBlocker.forTest(driver, false);
+		NetworkBlocker.remove(driver);
+
+		String summary = "DevTools commands --> " + cdpCommands;
+		log.info(summary);
+		ChainTestListener.log(summary);
+		Assert.assertEquals(cdpCommands.get(0), "Network.enable");
+		Assert.assertEquals(cdpCommands.size(), 4, "the state is sent only when it changes");
+		Assert.assertTrue(cdpCommands.get(2).endsWith("[]"), cdpCommands.get(2));
+		Assert.assertTrue(cdpCommands.get(3).contains("*.png*"), cdpCommands.get(3));
+	}
+
+	private Properties fastPageProp() {
+		Properties prop = new Properties();
+		prop.setProperty("fastpage", "true");
+		prop.setProperty("blockresources", "image,font,media");
+		prop.setProperty("blockurls", "*googletagmanager.com*, *facebook.net*");
+		return prop;
+	}
+
+	private WebDriver createStubDriver() {
+		return StubDriver.of(Map.of("executeCdpCommand", args -> {
+			Object urls = ((Map<?, ?>) args[1]).get("urls");
+			cdpCommands.add(urls == null ? (String) args[0] : args[0] + " " + urls);
+			return null;
+		}), HasCdp.class);
+	}
+
+}
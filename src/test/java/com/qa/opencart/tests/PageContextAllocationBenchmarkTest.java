@@ -0,0 +1,96 @@
+package com.qa.opencart.tests;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.interactions.Actions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.pages.AccountsPage;
+import com.qa.opencart.pages.LoginPage;
+import com.qa.opencart.pages.PageContext;
+import com.qa.opencart.pages.ProductInfoPage;
+import com.qa.opencart.pages.SearchResultsPage;
+import com.qa.opencart.utils.ElementUtil;
+
+/**
+ * allocation per data provider row (login -> accounts -> search -> product
+ * page) when every page builds its own ElementUtil/Actions versus the shared
+ * page context; runs without a browser on a stub driver
+ */
+public class PageContextAllocationBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(PageContextAllocationBenchmarkTest.class);
+
+	private static final int ROWS = 100_000;
+
+	private final WebDriver driver = StubDriver.of(Map.of());
+
+	@Test
+	public void pageAllocationBenchmarkTest() {
+		long beforeBytes = measure("new helpers per page", () -> {
+			for (Class<?> page : new Class<?>[] { LoginPage.class, AccountsPage.class, SearchResultsPage.class,
+					ProductInfoPage.class }) {
+				// what every page constructor/navigation used to allocate
+				new ElementUtil(driver);
+				new Actions(driver);
+			}
+			new LoginPage(driver);
+			new AccountsPage(driver);
+			new SearchResultsPage(driver);
+			new ProductInfoPage(driver);
+		});
+
+		long afterBytes = measure("shared page context", () -> {
+			PageContext context = PageContext.get(driver);
+			context.getPage(LoginPage.class);
+			context.getPage(AccountsPage.class);
+			context.getPage(SearchResultsPage.class);
+			context.getPage(ProductInfoPage.class);
+		});
+
+		PageContext.remove();
+		Assert.assertTrue(afterBytes < beforeBytes);
+	}
+
+	private long measure(String name, Runnable row) {
+		for (int i = 0; i < ROWS / 10; i++) {
+			row.run();// warm up
+		}
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long gcCount = getGcCount();
+		long bytes = threadBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < ROWS; i++) {
+			row.run();
+		}
+
+		long nanosPerRow = (System.nanoTime() - start) / ROWS;
+		long bytesPerRow = (threadBean.getThreadAllocatedBytes(threadId) - bytes) / ROWS;
+		String result = name + " --> allocated: " + bytesPerRow + " bytes/row, time: " + nanosPerRow
+				+ " ns/row, gc runs: " + (getGcCount() - gcCount);
+		log.info(result);
+		ChainTestListener.log(result);
+		return bytesPerRow;
+	}
+
+	private long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gcBean.getCollectionCount());
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.qa.opencart.tests;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.pages.LoginPage;
+import com.qa.opencart.pages.PageContext;
+import com.qa.opencart.pages.SearchResultsPage;
+import com.qa.opencart.utils.PageReadiness.ReadinessStats;
+import com.qa.opencart.utils.PageReadiness;
+
+/**
+ * eager page load strategy on a stub browser: every page is usable (probe
+ * element rendered) 150 ms after the navigation started and fires its load
+ * event after 1200 ms. The page objects must be handed over once their probe
+ * is satisfied, and the saved time per navigation reported.
+ */
+public class PageReadinessTest {
+
+	private static final Logger log = LogManager.getLogger(PageReadinessTest.class);
+
+	private static final long READY_MILLIS = 150;
+	private static final long LOAD_MILLIS = 1200;
+
+	private long navigationStart;
+	private By readyLocator;
+	private String pendingLoad;
+	private int scriptCalls;
+
+	@AfterMethod
+	public void reset() {
+		DriverFactory.pageLoadStrategy = null;
+		PageReadiness.resetMetrics();
+		PageContext.remove();
+		pendingLoad = null;
+		scriptCalls = 0;
+	}
+
+	@Test
+	public void normalStrategyIsNoOpTest() {
+		DriverFactory.pageLoadStrategy = "normal";
+		WebDriver driver = createStubDriver();
+		navigate(By.id("input-email"));
+		PageContext.get(driver).getReadyPage(LoginPage.class);
+		Assert.assertEquals(scriptCalls, 0);
+		Assert.assertTrue(PageReadiness.getMetrics().isEmpty());
+	}
+
+	@Test
+	public void eagerNavigationTimeSavedTest() {
+		DriverFactory.pageLoadStrategy = "eager";
+		WebDriver driver = createStubDriver();
+		PageContext context = PageContext.get(driver);
+
+		long start = System.currentTimeMillis();
+		navigate(By.id("input-email"));
+		context.getReadyPage(LoginPage.class);
+		long loginMillis = System.currentTimeMillis() - start;
+		// same document again: probed, not counted as a navigation
+		context.getReadyPage(LoginPage.class);
+		// the search page is opened after the login page load event
+		sleepUntilLoaded();
+		start = System.currentTimeMillis();
+		navigate(By.cssSelector("div.product-thumb"));
+		context.getReadyPage(SearchResultsPage.class);
+		long searchMillis = System.currentTimeMillis() - start;
+
+		ReadinessStats login = PageReadiness.getMetrics().get("LoginPage");
+		ReadinessStats search = PageReadiness.getMetrics().get("SearchResultsPage");
+		for (String summary : PageReadiness.getMetricsSummary()) {
+			log.info("page readiness: {}", summary);
+			ChainTestListener.log(summary);
+		}
+		String result = "eager --> login page handed over after " + loginMillis + " ms, search results after "
+				+ searchMillis + " ms, normal would wait for the load event: " + LOAD_MILLIS + " ms";
+		log.info(result);
+		ChainTestListener.log(result);
+
+		Assert.assertTrue(loginMillis < LOAD_MILLIS && searchMillis < LOAD_MILLIS, result);
+		Assert.assertEquals(login.getNavigations(), 1);
+		Assert.assertEquals(search.getNavigations(), 1);
+		Assert.assertEquals(login.getAverageLoadMillis(), LOAD_MILLIS);
+		Assert.assertEquals(login.getAverageSavedMillis(), LOAD_MILLIS - login.getAverageReadyMillis(), 1,
+				login.toString());
+	}
+
+	private void navigate(By probeLocator) {
+		navigationStart = System.currentTimeMillis();
+		readyLocator = probeLocator;
+	}
+
+	private void sleepUntilLoaded() {
+		try {
+			Thread.sleep(Math.max(0, navigationStart + LOAD_MILLIS + 50 - System.currentTimeMillis()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long now() {
+		return System.currentTimeMillis() - navigationStart;
+	}
+
+	// the READY_SCRIPT of PageReadiness on this page: ready time, load time, load of the previous page, new document
+	private Object readyScript(String page) {
+		scriptCalls++;
+		double ready = now();
+		String previous = null;
+		if (pendingLoad != null && !pendingLoad.endsWith("@" + navigationStart)) {
+			previous = pendingLoad.substring(0, pendingLoad.lastIndexOf('@'));
+			pendingLoad = null;
+		}
+		if (pendingLoad != null) {
+			return Arrays.asList(ready, -1L, null, false);
+		}
+		pendingLoad = page + "|" + ready + "|" + LOAD_MILLIS + "@" + navigationStart;
+		return Arrays.asList(ready, -1L, previous, true);
+	}
+
+	private WebDriver createStubDriver() {
+		WebElement element = StubDriver.element(Map.of("isDisplayed", args -> true, "isEnabled", args -> true,
+				StubDriver.ANY, args -> "stub element"));
+		return StubDriver.of(Map.of("findElement", args -> {
+			if (args[0].equals(readyLocator) && now() >= READY_MILLIS) {
+				return element;
+			}
+			throw new NoSuchElementException(String.valueOf(args[0]));
+		}, "executeScript", args -> {
+			Object[] scriptArgs = (Object[]) args[1];
+			return readyScript(String.valueOf(scriptArgs[0]));
+		}));
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.qa.opencart.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.BaseTest;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.constants.AppConstants;
+
+/**
+ * runs a data driven BaseTest class with two parallel data provider methods on
+ * 1 to 8 threads; the browser is replaced by a stub driver with a fixed command
+ * latency. Checks that no driver is used by two test methods at the same time,
+ * that the second method reuses the drivers of the first one (TestNG starts new
+ * threads for it), that all the drivers are quit, and reports the speed up.
+ */
+public class ParallelScalingBenchmarkTest {
+
+	private static final int ROWS = 16;
+	private static final long COMMAND_LATENCY = 30;
+
+	private static final Set<WebDriver> busyDrivers = ConcurrentHashMap.newKeySet();
+	private static final Set<WebDriver> sharedDrivers = ConcurrentHashMap.newKeySet();
+	private static final AtomicInteger createdCount = new AtomicInteger();
+	private static final AtomicInteger quitCount = new AtomicInteger();
+
+	private static final Logger log = LogManager.getLogger(ParallelScalingBenchmarkTest.class);
+
+	@Test
+	public void parallelScalingBenchmarkTest() {
+		long singleThreadMillis = 0;
+		run(1);// warm up
+
+		for (int threads : new int[] { 1, 2, 4, 8 }) {
+			sharedDrivers.clear();
+			createdCount.set(0);
+			quitCount.set(0);
+
+			long millis = run(threads);
+
+			Assert.assertTrue(sharedDrivers.isEmpty(), "driver used by two test methods at once: " + sharedDrivers);
+			// the methods run one after the other, each on its own data provider threads
+			Assert.assertTrue(createdCount.get() <= threads, "drivers created: " + createdCount.get());
+			Assert.assertEquals(quitCount.get(), createdCount.get());
+
+			if (threads == 1) {
+				singleThreadMillis = millis;
+			}
+			double speedUp = (double) singleThreadMillis / millis;
+			String result = String.format("threads: %d --> %d rows in %d ms, drivers: %d, speed up: %.1fx", threads,
+					ROWS * 2, millis, createdCount.get(), speedUp);
+			log.info(result);
+			ChainTestListener.log(result);
+		}
+	}
+
+	private long run(int threads) {
+		XmlSuite suite = new XmlSuite();
+		suite.setName("Scaling Suite " + threads);
+		suite.setParallel(XmlSuite.ParallelMode.NONE);
+		suite.setDataProviderThreadCount(threads);
+
+		XmlTest test = new XmlTest(suite);
+		test.setName("Scaling Test " + threads);
+		test.setXmlClasses(Collections.singletonList(new XmlClass(StubLoginPageTest.class)));
+
+		TestNG testNG = new TestNG();
+		testNG.setUseDefaultListeners(false);
+		testNG.setVerbose(0);
+		testNG.setXmlSuites(new ArrayList<XmlSuite>(Collections.singletonList(suite)));
+
+		long start = System.currentTimeMillis();
+		testNG.run();
+		long millis = System.currentTimeMillis() - start;
+
+		Assert.assertFalse(testNG.hasFailure(), "scaling run failed with " + threads + " threads");
+		return millis;
+	}
+
+	private static WebDriver createStubDriver() {
+		createdCount.incrementAndGet();
+		return StubDriver.of(Map.of("getTitle", args -> {
+			Thread.sleep(COMMAND_LATENCY);
+			return AppConstants.LOGIN_PAGE_TITLE;
+		}, "quit", args -> {
+			quitCount.incrementAndGet();
+			return null;
+		}));
+	}
+
+	public static class StubLoginPageTest extends BaseTest {
+
+		@Override
+		protected WebDriver createDriver() {
+			return createStubDriver();
+		}
+
+		@DataProvider(parallel = true)
+		public Object[][] getRows() {
+			List<Object[]> rows = new ArrayList<Object[]>();
+			for (int i = 0; i < ROWS; i++) {
+				rows.add(new Object[] { i });
+			}
+			return rows.toArray(new Object[0][]);
+		}
+
+		@Test(dataProvider = "getRows")
+		public void loginPageTitleTest(int row) {
+			assertLoginPageTitle();
+		}
+
+		@Test(dataProvider = "getRows", priority = 1)
+		public void loginPageTitleAgainTest(int row) {
+			assertLoginPageTitle();
+		}
+
+		private void assertLoginPageTitle() {
+			WebDriver driver = getDriver();
+			if (!busyDrivers.add(driver)) {
+				sharedDrivers.add(driver);
+			}
+			try {
+				Assert.assertEquals(getLoginPage().getLoginPageTitle(), AppConstants.LOGIN_PAGE_TITLE);
+			} finally {
+				busyDrivers.remove(driver);
+			}
+		}
+	}
+
+}
@@ -3,25 +3,27 @@ package com.qa.opencart.tests;
 import java.util.Map;
 
 import org.testng.Assert;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.testng.asserts.SoftAssert;
 
+import com.qa.opencart.annotations.LoadAllResources;
 import com.qa.opencart.base.BaseTest;
-import com.qa.opencart.utils.ExcelUtil;
+import com.qa.opencart.pages.ProductInfoPage;
+import com.qa.opencart.pages.SearchResultsPage;
+import com.qa.opencart.utils.TestDataRepository;
 
 public class ProductInfoTest extends BaseTest{
 	
-	//BT(chrome+url) --> BC(login) --> @Test
+	//BT(config) --> thread setup(chrome+url+login) --> @Test
 	
-	@BeforeClass
-	public void prodInfoSetup() {
-		accPage = loginPage.doLogin(prop.getProperty("username"), prop.getProperty("password"));
+	@Override
+	protected void threadSetup() {
+		getLoginPage().doLoginWithSession(prop.getProperty("username"), prop.getProperty("password"));
 	}	
 	
 	
-	@DataProvider
+	@DataProvider(parallel = true)
 	public Object[][] getProducts() {
 		return new Object[][] {
 			{"macbook", "MacBook Pro"},
@@ -32,23 +34,23 @@ public class ProductInfoTest extends BaseTest{
 	}
 	
 	
-	@DataProvider
+	@DataProvider(parallel = true)
 	public Object[][] getProductTestData() {
-		return  ExcelUtil.getTestData("product");
+		return TestDataRepository.getTestData("product");
 	}
 	
 	
 		
 	@Test(dataProvider = "getProductTestData")
 	public void productHeaderTest(String searchKey, String productName) {
-		searchResultsPage = accPage.doSearch(searchKey);
-		productInfoPage = searchResultsPage.selectProduct(productName);
+		SearchResultsPage searchResultsPage = getAccPage().doSearch(searchKey);
+		ProductInfoPage productInfoPage = searchResultsPage.selectProduct(productName);
 		String actHeader = productInfoPage.getProductHeader();
 		Assert.assertEquals(actHeader, productName);
 	}
 
 	
-	@DataProvider
+	@DataProvider(parallel = true)
 	public Object[][] getProductImages() {
 		return new Object[][] {
 			{"macbook", "MacBook Pro", 4},
@@ -58,10 +60,11 @@ public class ProductInfoTest extends BaseTest{
 	}
 	
 	
+	@LoadAllResources
 	@Test(dataProvider = "getProductImages")
 	public void productImagesCountTest(String searchKey, String productName, int imageCount) {
-		searchResultsPage = accPage.doSearch(searchKey);
-		productInfoPage = searchResultsPage.selectProduct(productName);
+		SearchResultsPage searchResultsPage = getAccPage().doSearch(searchKey);
+		ProductInfoPage productInfoPage = searchResultsPage.selectProduct(productName);
 		int actImagesCount = productInfoPage.getProductImages();
 		Assert.assertEquals(actImagesCount, imageCount);
 	}
@@ -76,8 +79,8 @@ public class ProductInfoTest extends BaseTest{
 	
 	@Test
 	public void productInfoTest() {
-		searchResultsPage = accPage.doSearch("macbook");
-		productInfoPage = searchResultsPage.selectProduct("MacBook Pro");
+		SearchResultsPage searchResultsPage = getAccPage().doSearch("macbook");
+		ProductInfoPage productInfoPage = searchResultsPage.selectProduct("MacBook Pro");
 		Map<String, String> productDataMap = productInfoPage.getProductData();
 		
 		SoftAssert softAssert = new SoftAssert();
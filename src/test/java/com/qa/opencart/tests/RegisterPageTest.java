@@ -1,22 +1,23 @@
 package com.qa.opencart.tests;
 
+import java.util.Iterator;
+
 import org.testng.Assert;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.qa.opencart.base.BaseTest;
 import com.qa.opencart.utils.CsvUtil;
-import com.qa.opencart.utils.ExcelUtil;
 import com.qa.opencart.utils.StringUtils;
+import com.qa.opencart.utils.TestDataRepository;
 
 public class RegisterPageTest extends BaseTest{
 	
-	//BT(chrome+login url) --> BC(move to register page) --> @Test
+	//BT(config) --> thread setup(chrome+login url+move to register page) --> @Test
 	
-	@BeforeClass
-	public void goToRegisterPage() {
-		registerPage = loginPage.navigateToRegisterPage();
+	@Override
+	protected void threadSetup() {
+		getLoginPage().navigateToRegisterPage();
 	}
 	
 	
@@ -32,20 +33,20 @@ public class RegisterPageTest extends BaseTest{
 	
 	@DataProvider
 	public Object[][] getRegSheetData() {
-		return ExcelUtil.getTestData("register");
+		return TestDataRepository.getTestData("register");
 	}
 	
 	
-	@DataProvider
-	public Object[][] getRegCSVData() {
-		return CsvUtil.csvData("register");
+	@DataProvider(parallel = true)
+	public Iterator<Object[]> getRegCSVData() {
+		return CsvUtil.csvIterator("register");
 	}
 	
 	
 	@Test(dataProvider = "getRegCSVData")
 	public void registerTest(String firstName, String lastName, String telephone, String password, String subscribe) {
 		Assert.assertTrue
-		(registerPage.userRegister(firstName, lastName, StringUtils.getRandomEMail(), telephone, password, subscribe));
+		(getRegisterPage().userRegister(firstName, lastName, StringUtils.getRandomEMail(), telephone, password, subscribe));
 	}
 	
 
@@ -0,0 +1,127 @@
+package com.qa.opencart.tests;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.base.StubDriver;
+import com.qa.opencart.utils.ElementUtil;
+import com.qa.opencart.utils.ScreenshotUtil.Screenshot;
+import com.qa.opencart.utils.ScreenshotUtil;
+
+/**
+ * size and time of a failure screenshot in every ScreenshotUtil mode, on a stub
+ * driver returning a 1920x1080 page like png (product images and text on a
+ * gradient) and a 400x300 element
+ */
+public class ScreenshotModesBenchmarkTest {
+
+	private static final Logger log = LogManager.getLogger(ScreenshotModesBenchmarkTest.class);
+
+	private static final int RUNS = 10;
+
+	private String pagePng;
+	private String elementPng;
+
+	@BeforeClass
+	public void createImages() throws Exception {
+		pagePng = createPng(1920, 1080);
+		elementPng = createPng(400, 300);
+	}
+
+	@Test
+	public void screenshotModesBenchmarkTest() {
+		WebDriver driver = createStubDriver();
+		new ElementUtil(driver).getElements(By.id("input-email"));// last locator of the thread
+
+		int full = measure("full png", driver, "full", 1, "png", 0.7f);
+		int scaled = measure("full png, scale 0.5", driver, "full", 0.5, "png", 0.7f);
+		int jpeg = measure("full jpeg 0.7", driver, "full", 1, "jpeg", 0.7f);
+		int scaledJpeg = measure("full jpeg 0.7, scale 0.5", driver, "full", 0.5, "jpeg", 0.7f);
+		int webp = measure("full webp 0.7 (jpeg without plugin)", driver, "full", 1, "webp", 0.7f);
+		int element = measure("element png", driver, "element", 1, "png", 0.7f);
+
+		// jpeg against png depends on the page: smaller with images, bigger on plain text
+		Assert.assertTrue(scaled < full);
+		Assert.assertTrue(scaledJpeg < jpeg);
+		Assert.assertTrue(webp <= jpeg);
+		Assert.assertTrue(element < full);
+	}
+
+	private int measure(String name, WebDriver driver, String mode, double scale, String format, float quality) {
+		Screenshot screenshot = ScreenshotUtil.capture(driver, mode, scale, format, quality);// warm up
+		long start = System.nanoTime();
+		for (int i = 0; i < RUNS; i++) {
+			screenshot = ScreenshotUtil.capture(driver, mode, scale, format, quality);
+		}
+		long millis = (System.nanoTime() - start) / RUNS / 1_000_000;
+		int kb = screenshot.getBase64().length() / 1024;
+		String result = name + " --> " + screenshot.getMediaType() + ", " + kb + " KB base64, " + millis
+				+ " ms/screenshot";
+		log.info(result);
+		ChainTestListener.log(result);
+		return screenshot.getBase64().length();
+	}
+
+	private String createPng(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int y = 0; y < height; y++) {
+			graphics.setColor(new Color(230, 235, 240 - y * 40 / height));
+			graphics.drawLine(0, y, width, y);
+		}
+		Random random = new Random(42);
+		// product images: noisy photo like blocks
+		for (int x = 20; x + 300 < width; x += 320) {
+			for (int py = 0; py < 240 && 60 + py < height; py++) {
+				for (int px = 0; px < 300; px++) {
+					int shade = 30 + (px + py) / 4 + random.nextInt(40);
+					image.setRGB(x + px, 60 + py, new Color(shade, shade / 2 + 40, 200 - shade / 2).getRGB());
+				}
+			}
+		}
+		// product names and prices
+		graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+		for (int y = 340; y < height; y += 22) {
+			graphics.setColor(new Color(random.nextInt(80), random.nextInt(80), random.nextInt(160)));
+			StringBuilder line = new StringBuilder();
+			for (int i = 0; i < 60; i++) {
+				line.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+			}
+			graphics.drawString(line.toString(), 20, y);
+		}
+		graphics.dispose();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return Base64.getEncoder().encodeToString(out.toByteArray());
+	}
+
+	private WebDriver createStubDriver() {
+		WebElement element = StubDriver.element(
+				Map.of("getScreenshotAs", args -> ((OutputType<?>) args[0]).convertFromBase64Png(elementPng)));
+		return StubDriver.of(Map.of("getScreenshotAs", args -> ((OutputType<?>) args[0]).convertFromBase64Png(pagePng),
+				"findElement", args -> element, "findElements", args -> Collections.singletonList(element)),
+				TakesScreenshot.class);
+	}
+
+}
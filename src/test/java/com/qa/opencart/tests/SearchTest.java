@@ -1,24 +1,25 @@
 package com.qa.opencart.tests;
 
 import org.testng.Assert;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.qa.opencart.base.BaseTest;
+import com.qa.opencart.pages.ProductInfoPage;
+import com.qa.opencart.pages.SearchResultsPage;
 
 public class SearchTest extends BaseTest {
 
-	// BT(chrome+url) -> BC(login) --> @Test
+	// BT(config) -> thread setup(chrome+url+login) --> @Test
 
-	@BeforeClass
-	public void searchSetup() {
-		accPage = loginPage.doLogin(prop.getProperty("username"), prop.getProperty("password"));
+	@Override
+	protected void threadSetup() {
+		getLoginPage().doLoginWithSession(prop.getProperty("username"), prop.getProperty("password"));
 	}
 
 	@Test
 	public void searchTest() {
-		searchResultsPage = accPage.doSearch("macbook");
-		productInfoPage = searchResultsPage.selectProduct("MacBook Pro");
+		SearchResultsPage searchResultsPage = getAccPage().doSearch("macbook");
+		ProductInfoPage productInfoPage = searchResultsPage.selectProduct("MacBook Pro");
 		String actHeader = productInfoPage.getProductHeader();
 		Assert.assertEquals(actHeader, "MacBook Pro");
 	}
@@ -0,0 +1,113 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.qa.opencart.utils.DurationHistory;
+import com.qa.opencart.utils.ShardPlanner;
+
+public class ShardPlannerTest {
+
+	@Test
+	public void balancedShardsTest() {
+		Map<String, Long> durations = new LinkedHashMap<String, Long>();
+		durations.put("LoginPageTest", 20000L);
+		durations.put("AccountsPageTest", 15000L);
+		durations.put("SearchTest", 10000L);
+		durations.put("ProductInfoTest", 90000L);
+		durations.put("RegisterPageTest", 60000L);
+		durations.put("CommonPageTest", 25000L);
+
+		ShardPlanner plan = ShardPlanner.plan(durations, 2);
+
+		// 220 s in total, the best split is 110 s + 110 s, longest first gives 115 s + 105 s
+		Assert.assertEquals(plan.getMakespan(), 115000L);
+		List<String> allUnits = new ArrayList<String>(plan.getShard(0));
+		allUnits.addAll(plan.getShard(1));
+		Assert.assertEquals(allUnits.size(), durations.size());
+		Assert.assertTrue(allUnits.containsAll(durations.keySet()));
+	}
+
+	@Test
+	public void unknownDurationsGetTheMedianTest() {
+		Map<String, Long> durations = new LinkedHashMap<String, Long>();
+		durations.put("LoginPageTest", 10000L);
+		durations.put("SearchTest", 30000L);
+		durations.put("NewTest", -1L);
+
+		Map<String, Long> estimated = ShardPlanner.withEstimates(durations, 5000L);
+		Assert.assertEquals(estimated.get("NewTest").longValue(), 30000L);
+		Assert.assertEquals(ShardPlanner.withEstimates(Map.of("NewTest", -1L), 5000L).get("NewTest").longValue(),
+				5000L);
+	}
+
+	@Test
+	public void samePlanOnEveryShardTest() {
+		Map<String, Long> durations = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < 20; i++) {
+			durations.put("Test" + i, 1000L * (i % 4));
+		}
+		Assert.assertEquals(ShardPlanner.plan(durations, 3).toString(), ShardPlanner.plan(durations, 3).toString());
+	}
+
+	@Test
+	public void forksShareTheHistoryTest() throws Exception {
+		File dir = Files.createTempDirectory("durations").toFile();
+		File history = new File(dir, "test-durations.json");
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		try {
+			// 3 forks, each merging its own methods into the same file
+			List<Process> forks = new ArrayList<Process>();
+			for (int fork = 0; fork < 3; fork++) {
+				forks.add(new ProcessBuilder(java, "-Ddurations=" + history.getPath(), "-cp",
+						System.getProperty("java.class.path"), HistoryFork.class.getName(), "Fork" + fork)
+						.inheritIO().start());
+			}
+			for (Process fork : forks) {
+				Assert.assertTrue(fork.waitFor(60, TimeUnit.SECONDS));
+				Assert.assertEquals(fork.exitValue(), 0);
+			}
+
+			String durations = System.getProperty("durations");
+			System.setProperty("durations", history.getPath());
+			try {
+				Map<String, Long> merged = DurationHistory.load();
+				Assert.assertEquals(merged.size(), 3 * HistoryFork.UPDATES, merged.toString());
+			} finally {
+				if (durations == null) {
+					System.clearProperty("durations");
+				} else {
+					System.setProperty("durations", durations);
+				}
+			}
+		} finally {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+
+	/**
+	 * one surefire fork writing its durations, one method per update
+	 */
+	public static class HistoryFork {
+
+		static final int UPDATES = 20;
+
+		public static void main(String[] args) {
+			for (int i = 0; i < UPDATES; i++) {
+				DurationHistory.update(Map.of(args[0] + "Test#test" + i, 1000L));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.constants.AppConstants;
+import com.qa.opencart.factory.DriverFactory;
+import com.qa.opencart.factory.StandInServer;
+
+/**
+ * the pages of the stand-in server, checked with the locators of the page
+ * objects: a customer logs in, searches and opens a product like the UI tests
+ * do, and the latency injected in every page is measured.
+ */
+public class StandInServerTest {
+
+	private static final Logger log = LogManager.getLogger(StandInServerTest.class);
+
+	private static final long PAGE_LATENCY = 100;
+
+	private StandInServer server;
+
+	@BeforeClass
+	public void startServer() {
+		server = new StandInServer(new File(StandInServer.DEFAULT_PAGES_PATH), 0, PAGE_LATENCY, 0);
+		server.addAccount("customer@opencart.test", "Test1234");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void localEnvTest() {
+		String env = System.getProperty("env");
+		System.setProperty("env", "local");
+		try {
+			Properties prop = new DriverFactory().initProp();
+			Assert.assertTrue(prop.getProperty("url").startsWith("http://127.0.0.1:"), prop.getProperty("url"));
+			Assert.assertTrue(prop.getProperty("url").contains(AppConstants.LOGIN_PAGE_FRACTION_URL));
+		} finally {
+			if (env == null) {
+				System.clearProperty("env");
+			} else {
+				System.setProperty("env", env);
+			}
+		}
+	}
+
+	@Test
+	public void customerJourneyTest() throws Exception {
+		HttpClient browser = HttpClient.newBuilder().cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NORMAL).build();
+
+		long start = System.currentTimeMillis();
+		String login = get(browser, server.getLoginUrl());
+		long pageMillis = System.currentTimeMillis() - start;
+		Assert.assertTrue(login.contains("<title>" + AppConstants.LOGIN_PAGE_TITLE + "</title>"));
+		Assert.assertTrue(login.contains("id=\"input-email\""));
+		Assert.assertEquals(count(login, "<footer>.*?</footer>", "<li><a "), AppConstants.DEFAULT_FOOTER_LINKS_COUNT);
+
+		String failed = post(browser, "account/login", "email=customer%40opencart.test&password=wrong");
+		Assert.assertTrue(failed.contains("alert alert-danger alert-dismissible"));
+		Assert.assertTrue(failed.contains(AppConstants.LOGIN_INVALID_CREDS_MESSG));
+
+		String account = post(browser, "account/login", "email=customer%40opencart.test&password=Test1234");
+		Assert.assertTrue(account.contains("<title>" + AppConstants.ACC_PAGE_TITLE + "</title>"));
+		for (String header : AppConstants.expectedAccPageHeadersList) {
+			Assert.assertTrue(account.contains("<h2>" + header + "</h2>"), header);
+		}
+		Assert.assertTrue(account.contains(">Logout</a>"));
+
+		String search = get(browser, server.getBaseUrl() + "index.php?route=product/search&search=macbook");
+		Assert.assertEquals(count(search, ".*", "class=\"product-thumb\""), 3);
+		Assert.assertTrue(search.contains(">MacBook Pro</a></h4>"));
+
+		String product = get(browser, server.getBaseUrl() + "index.php?route=product/product&product_id=45");
+		Assert.assertTrue(product.contains("<h1>MacBook Pro</h1>"));
+		Assert.assertEquals(count(product, "<ul class=\"thumbnails\">.*?</ul>", "<img "), 4);
+		Assert.assertTrue(product.contains("<li>Product Code: Product 18</li>"));
+		Assert.assertTrue(product.contains("<h2>$2,000.00</h2>"));
+
+		String empty = get(browser, server.getBaseUrl() + "index.php?route=product/search&search=nothing");
+		Assert.assertTrue(empty.contains("There is no product that matches the search criteria."));
+
+		String result = "stand-in server --> " + server.getPageRequests() + " pages, login page in " + pageMillis
+				+ " ms with " + PAGE_LATENCY + " ms injected latency";
+		log.info(result);
+		ChainTestListener.log(result);
+		Assert.assertTrue(pageMillis >= PAGE_LATENCY, result);
+	}
+
+	@Test
+	public void registerTest() throws Exception {
+		HttpClient browser = HttpClient.newBuilder().cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NORMAL).build();
+		String register = get(browser, server.getBaseUrl() + "index.php?route=account/register");
+		Assert.assertTrue(register.contains("id=\"input-firstname\""));
+		Assert.assertEquals(count(register, ".*", "<label class=\"radio-inline\"><input type=\"radio\""), 2);
+
+		String success = post(browser, "account/register",
+				"firstname=ratul&lastname=saha&email=ratul%40opencart.test&telephone=987&password=ratul%40123"
+						+ "&confirm=ratul%40123&newsletter=0&agree=1");
+		Assert.assertTrue(success.contains("<h1>" + AppConstants.USER_REGISTER_SUCCESS_MESSG + "</h1>"));
+
+		String logout = get(browser, server.getBaseUrl() + "index.php?route=account/logout");
+		Assert.assertTrue(logout.contains(">Register</a>"));
+		String account = post(browser, "account/login", "email=ratul%40opencart.test&password=ratul%40123");
+		Assert.assertTrue(account.contains("<h2>My Orders</h2>"));
+	}
+
+	private String get(HttpClient browser, String url) throws Exception {
+		HttpResponse<String> response = browser.send(HttpRequest.newBuilder(URI.create(url)).build(),
+				HttpResponse.BodyHandlers.ofString());
+		Assert.assertEquals(response.statusCode(), 200, url);
+		return response.body();
+	}
+
+	private String post(HttpClient browser, String route, String form) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "index.php?route=" + route))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form)).build();
+		HttpResponse<String> response = browser.send(request, HttpResponse.BodyHandlers.ofString());
+		Assert.assertEquals(response.statusCode(), 200, route);
+		return response.body();
+	}
+
+	// occurrences of text in the first part of the page matching the section regex
+	private int count(String page, String section, String text) {
+		Matcher matcher = Pattern.compile(section, Pattern.DOTALL).matcher(page);
+		Assert.assertTrue(matcher.find(), section);
+		String part = matcher.group();
+		int count = 0;
+		for (int i = part.indexOf(text); i >= 0; i = part.indexOf(text, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.aventstack.chaintest.plugins.ChainTestListener;
+import com.qa.opencart.utils.ExcelUtil;
+import com.qa.opencart.utils.TestDataRepository;
+import com.qa.opencart.utils.TestDataTable;
+import com.qa.opencart.utils.TestDataTable.ColumnType;
+
+/**
+ * compiles a copy of the testdata folder into a snapshot, reloads it and
+ * changes a source file: the snapshot must be reused only while the sources
+ * are unchanged and give the same rows as ExcelUtil
+ */
+public class TestDataRepositoryTest {
+
+	private static final Logger log = LogManager.getLogger(TestDataRepositoryTest.class);
+
+	private File sourceDir;
+	private File snapshotFile;
+
+	@BeforeMethod
+	public void copyTestData() throws IOException {
+		sourceDir = Files.createTempDirectory("testdata").toFile();
+		for (File file : new File(TestDataRepository.TEST_DATA_PATH).listFiles()) {
+			Files.copy(file.toPath(), new File(sourceDir, file.getName()).toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		snapshotFile = new File(sourceDir, "snapshot/testdata.snapshot");
+	}
+
+	@Test
+	public void snapshotReusedWhileSourcesUnchangedTest() {
+		long start = System.nanoTime();
+		TestDataRepository first = new TestDataRepository(sourceDir, snapshotFile);
+		Object[][] compiled = first.getTable("product").getTestData();
+		long compileMicros = (System.nanoTime() - start) / 1000;
+		Assert.assertFalse(first.isSnapshotReused());
+		Assert.assertTrue(snapshotFile.exists());
+
+		start = System.nanoTime();
+		TestDataRepository second = new TestDataRepository(sourceDir, snapshotFile);
+		Object[][] loaded = second.getTable("product").getTestData();
+		long loadMicros = (System.nanoTime() - start) / 1000;
+		Assert.assertTrue(second.isSnapshotReused());
+
+		Assert.assertEquals(loaded, compiled);
+		Assert.assertEquals(loaded, ExcelUtil.getTestData("product"));
+		Assert.assertEquals(second.getTable("register").getTestData(), ExcelUtil.getTestData("register"));
+
+		String result = "test data compiled in " + compileMicros + " µs, snapshot loaded in " + loadMicros
+				+ " µs (" + snapshotFile.length() + " bytes)";
+		log.info(result);
+		ChainTestListener.log(result);
+	}
+
+	@Test
+	public void snapshotCompiledAgainWhenSourceChangesTest() throws IOException {
+		new TestDataRepository(sourceDir, snapshotFile).getTables();
+		Files.write(new File(sourceDir, "register.csv").toPath(),
+				"\nratul,shaha,987878787766,ratul@123,no".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		TestDataRepository repository = new TestDataRepository(sourceDir, snapshotFile);
+		Assert.assertFalse(repository.isSnapshotReused());
+		Assert.assertEquals(repository.getTable("register.csv").getRowCount(), 2);
+	}
+
+	@Test
+	public void typedColumnsTest() {
+		new TestDataRepository(sourceDir, snapshotFile).getTables();
+		TestDataTable register = new TestDataRepository(sourceDir, snapshotFile).getTable("register.csv");
+
+		Assert.assertEquals(register.getColumnTypes(), Arrays.asList(ColumnType.STRING, ColumnType.STRING,
+				ColumnType.LONG, ColumnType.STRING, ColumnType.STRING));
+		Assert.assertEquals(register.getLong(0, 2), 987878787777L);
+		Assert.assertEquals(register.getTestData()[0][2], "987878787777");
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.qa.opencart.tests;
+
+import java.io.File;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qa.opencart.listeners.TimingProfilerListener;
+
+/**
+ * feeds the timing profiler the invocations of one thread: a test with its
+ * @AfterMethod, then an @AfterClass, then an @AfterMethod without a test before
+ * it (its test was never invoked). Only the first @AfterMethod is the teardown
+ * of the test.
+ */
+public class TimingProfilerListenerTest {
+
+	private static final String SUITE = "Timing Profiler Suite";
+	private static final long TEARDOWN_MILLIS = 200;
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void teardownIsChargedOnceTest() throws Exception {
+		File dir = Files.createTempDirectory("durations").toFile();
+		File durations = new File(dir, "test-durations.json");
+		String previousDurations = System.getProperty("durations");
+		System.setProperty("durations", durations.getPath());
+		try {
+			TimingProfilerListener listener = new TimingProfilerListener();
+			invoke(listener, "firstTest", "test", 0);
+			invoke(listener, "tearDown", "afterMethod", TEARDOWN_MILLIS);
+			invoke(listener, "tearDownClass", "afterClass", 0);
+			invoke(listener, "tearDown", "afterMethod", TEARDOWN_MILLIS);
+			listener.onFinish(getSuite());
+		} finally {
+			if (previousDurations == null) {
+				System.clearProperty("durations");
+			} else {
+				System.setProperty("durations", previousDurations);
+			}
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+
+		Map<String, Object> timing;
+		try (Reader reader = Files.newBufferedReader(
+				new File("./target/timing/timing-Timing_Profiler_Suite.json").toPath(), StandardCharsets.UTF_8)) {
+			timing = new Json().toType(reader, Json.MAP_TYPE);
+		}
+		List<Object> entries = (List<Object>) timing.get("entries");
+		Map<String, Map<String, Object>> byName = new HashMap<String, Map<String, Object>>();
+		for (Object item : entries) {
+			Map<String, Object> entry = (Map<String, Object>) item;
+			byName.put((String) entry.get("name"), entry);
+		}
+		long firstTestTeardown = ((Number) ((Map<String, Object>) byName.get("ProfiledTest.firstTest")
+				.get("phasesMillis")).get(TimingProfilerListener.TEARDOWN)).longValue();
+		Assert.assertTrue(firstTestTeardown >= TEARDOWN_MILLIS && firstTestTeardown < 2 * TEARDOWN_MILLIS,
+				"teardown of firstTest: " + firstTestTeardown);
+		Assert.assertTrue(byName.containsKey("ProfiledTest.tearDown"), String.valueOf(entries));
+		Assert.assertTrue(byName.containsKey("ProfiledTest.tearDownClass"), String.valueOf(entries));
+	}
+
+	// a suite named SUITE, taken from a run of the empty ProfiledTest
+	private ISuite getSuite() {
+		XmlSuite xmlSuite = new XmlSuite();
+		xmlSuite.setName(SUITE);
+		XmlTest test = new XmlTest(xmlSuite);
+		test.setName(SUITE);
+		test.setXmlClasses(Collections.singletonList(new XmlClass(ProfiledTest.class)));
+
+		ISuite[] suite = new ISuite[1];
+		TestNG testNG = new TestNG();
+		testNG.setUseDefaultListeners(false);
+		testNG.setVerbose(0);
+		testNG.addListener(new ISuiteListener() {
+			@Override
+			public void onStart(ISuite started) {
+				suite[0] = started;
+			}
+		});
+		testNG.setXmlSuites(new ArrayList<XmlSuite>(Collections.singletonList(xmlSuite)));
+		testNG.run();
+		return suite[0];
+	}
+
+	private void invoke(TimingProfilerListener listener, String methodName, String kind, long millis)
+			throws InterruptedException {
+		ITestNGMethod testMethod = stub(ITestNGMethod.class,
+				Map.of("getMethodName", methodName, "isAfterMethodConfiguration", kind.equals("afterMethod"),
+						"isAfterClassConfiguration", kind.equals("afterClass")));
+		IInvokedMethod method = stub(IInvokedMethod.class,
+				Map.of("getTestMethod", testMethod, "isTestMethod", kind.equals("test")));
+		ITestClass testClass = stub(ITestClass.class, Map.of("getRealClass", ProfiledTest.class));
+		ITestResult result = stub(ITestResult.class,
+				Map.of("getTestClass", testClass, "getParameters", new Object[0], "getStatus", ITestResult.SUCCESS));
+
+		listener.beforeInvocation(method, result);
+		Thread.sleep(millis);
+		listener.afterInvocation(method, result);
+	}
+
+	// answers the given getters, false for the other boolean ones, null otherwise
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> type, Map<String, Object> answers) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			if (answers.containsKey(method.getName())) {
+				return answers.get(method.getName());
+			}
+			if (method.getReturnType() == boolean.class) {
+				return false;
+			}
+			switch (method.getName()) {
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			default:
+				return null;
+			}
+		});
+	}
+
+	public static class ProfiledTest {
+
+		@Test
+		public void emptyTest() {
+		}
+	}
+
+}